@@ -0,0 +1,256 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Suma aproximada de recíprocos por muestreo de bloques.
+ *
+ * El arreglo se divide en bloques de BLOCK_SIZE elementos; se eligen bloques
+ * al azar sin reemplazo, se suman en paralelo y el total se extrapola con la
+ * media de los bloques muestreados. El error estándar sale de la varianza
+ * entre bloques (con corrección por población finita), lo que da un intervalo
+ * de confianza. El muestreo puede hacerse de una vez con una fracción fija, o
+ * por rondas que crecen hasta cumplir un error relativo o agotar un plazo.
+ */
+public final class ApproximateReciprocalSum {
+    /**
+     * Número de elementos de cada bloque muestreado.
+     */
+    static final int BLOCK_SIZE = 1024;
+    /**
+     * Número de bloques de la primera ronda del modo progresivo.
+     */
+    static final int FIRST_ROUND_BLOCKS = 64;
+    /**
+     * Fracción del tiempo restante que puede ocupar una ronda del modo con
+     * plazo; deja margen para la variación del ritmo medido.
+     */
+    static final double DEADLINE_FILL = 0.5;
+
+    /**
+     * Motor sobre el que se suman los bloques.
+     */
+    private final ReciprocalSumEngine engine;
+    /**
+     * Semilla de la elección de bloques, para que las estimaciones sean
+     * reproducibles.
+     */
+    private final long seed;
+    /**
+     * Reloj en nanosegundos con el que se mide el plazo y el ritmo de las
+     * rondas.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructor.
+     *
+     * @param setEngine Motor sobre el que se suman los bloques
+     * @param setSeed   Semilla de la elección de bloques
+     */
+    public ApproximateReciprocalSum(final ReciprocalSumEngine setEngine,
+            final long setSeed) {
+        this(setEngine, setSeed, System::nanoTime);
+    }
+
+    /**
+     * Constructor con un reloj propio, para probar el modo con plazo sin
+     * depender del tiempo real.
+     *
+     * @param setEngine    Motor sobre el que se suman los bloques
+     * @param setSeed      Semilla de la elección de bloques
+     * @param setNanoClock Reloj en nanosegundos
+     */
+    ApproximateReciprocalSum(final ReciprocalSumEngine setEngine,
+            final long setSeed, final LongSupplier setNanoClock) {
+        if (setEngine == null) {
+            throw new NullPointerException("engine");
+        }
+        if (setNanoClock == null) {
+            throw new NullPointerException("nanoClock");
+        }
+        this.engine = setEngine;
+        this.seed = setSeed;
+        this.nanoClock = setNanoClock;
+    }
+
+    /**
+     * Estima la suma de los recíprocos leyendo una fracción de los bloques.
+     *
+     * @param input          Arreglo de entrada
+     * @param sampleFraction Fracción de bloques a leer, en (0, 1]
+     * @return La estimación
+     */
+    public SumEstimate estimate(final double[] input, final double sampleFraction) {
+        if (!(sampleFraction > 0 && sampleFraction <= 1)) {
+            throw new IllegalArgumentException(
+                    "La fracción debe estar en (0, 1]: " + sampleFraction);
+        }
+        final Sampler sampler = new Sampler(input);
+        sampler.sampleMore((int) Math.ceil(sampleFraction * sampler.nBlocks));
+        return sampler.result();
+    }
+
+    /**
+     * Estima la suma de los recíprocos refinando la muestra por rondas hasta
+     * que el error relativo del intervalo del 95% sea a lo sumo
+     * targetRelativeError o se agote el plazo. Cada ronda a lo sumo duplica
+     * la anterior y se recorta a los bloques que, al ritmo medido en las
+     * rondas previas, caben en DEADLINE_FILL del tiempo restante, así que la
+     * última ronda no excede el plazo salvo por errores de medición. Siempre
+     * se completa la primera ronda; si se leen todos los bloques la suma es
+     * exacta.
+     *
+     * @param input               Arreglo de entrada
+     * @param maxMillis           Plazo en milisegundos
+     * @param targetRelativeError Error relativo deseado, 0 para refinar hasta
+     *                            el plazo
+     * @return La estimación
+     */
+    public SumEstimate estimate(final double[] input, final long maxMillis,
+            final double targetRelativeError) {
+        final long deadline = nanoClock.getAsLong() + maxMillis * 1_000_000L;
+        final Sampler sampler = new Sampler(input);
+
+        int roundBlocks = FIRST_ROUND_BLOCKS;
+        long sampledBlocks = 0;
+        long samplingNanos = 0;
+        while (true) {
+            final long roundStart = nanoClock.getAsLong();
+            sampler.sampleMore(roundBlocks);
+            final long now = nanoClock.getAsLong();
+            sampledBlocks += roundBlocks;
+            samplingNanos += now - roundStart;
+
+            final SumEstimate current = sampler.result();
+            if (current.isExact() || current.getRelativeError() <= targetRelativeError) {
+                return current;
+            }
+            final double nanosPerBlock = (double) Math.max(1, samplingNanos) / sampledBlocks;
+            final double fits = DEADLINE_FILL * (deadline - now) / nanosPerBlock;
+            if (fits < 1) {
+                return current;
+            }
+            roundBlocks = (int) Math.min(fits, Math.min(Integer.MAX_VALUE, 2L * roundBlocks));
+        }
+    }
+
+    /**
+     * Estado del muestreo de un arreglo: los bloques completos se eligen con
+     * un Fisher-Yates parcial y el bloque final incompleto (si existe) se suma
+     * siempre de forma exacta.
+     */
+    private final class Sampler {
+        /**
+         * Arreglo de entrada.
+         */
+        private final double[] input;
+        /**
+         * Número de bloques completos.
+         */
+        private final int nBlocks;
+        /**
+         * Permutación de los bloques; los primeros sampled ya fueron leídos.
+         */
+        private final int[] order;
+        /**
+         * Generador de la elección de bloques.
+         */
+        private final Random random = new Random(seed);
+        /**
+         * Suma exacta del bloque final incompleto.
+         */
+        private final double tailSum;
+        /**
+         * Número de bloques leídos.
+         */
+        private int sampled;
+        /**
+         * Media de las sumas de los bloques leídos (Welford).
+         */
+        private double mean;
+        /**
+         * Suma de los cuadrados de las desviaciones (Welford).
+         */
+        private double m2;
+
+        /**
+         * Constructor.
+         *
+         * @param setInput Arreglo de entrada
+         */
+        Sampler(final double[] setInput) {
+            this.input = setInput;
+            this.nBlocks = setInput.length / BLOCK_SIZE;
+            this.order = new int[nBlocks];
+            for (int b = 0; b < nBlocks; b++) {
+                order[b] = b;
+            }
+            this.tailSum = ReciprocalKernel.sum(setInput, nBlocks * BLOCK_SIZE,
+                    setInput.length);
+        }
+
+        /**
+         * Lee hasta count bloques más, sumándolos en paralelo.
+         *
+         * @param count Número de bloques a leer
+         */
+        void sampleMore(final int count) {
+            final int from = sampled;
+            final int to = (int) Math.min(nBlocks, (long) from + count);
+            for (int i = from; i < to; i++) {
+                final int j = i + random.nextInt(nBlocks - i);
+                final int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+
+            final int n = to - from;
+            if (n == 0) {
+                return;
+            }
+            final double[] blockSums = new double[n];
+            final int nChunks = Math.min(n, engine.getParallelism()
+                    * ReciprocalArraySum.LEAVES_PER_TASK);
+            engine.forEachChunk(nChunks, chunk -> {
+                final int lo = ReciprocalArraySum.getChunkStartInclusive(chunk, nChunks, n);
+                final int hi = ReciprocalArraySum.getChunkEndExclusive(chunk, nChunks, n);
+                for (int k = lo; k < hi; k++) {
+                    final int start = order[from + k] * BLOCK_SIZE;
+                    blockSums[k] = ReciprocalKernel.sum(input, start, start + BLOCK_SIZE);
+                }
+            });
+
+            for (double x : blockSums) {
+                sampled++;
+                final double delta = x - mean;
+                mean += delta / sampled;
+                m2 += delta * (x - mean);
+            }
+        }
+
+        /**
+         * Construye la estimación con los bloques leídos hasta ahora.
+         *
+         * @return La estimación
+         */
+        SumEstimate result() {
+            final long sampledElements = (long) sampled * BLOCK_SIZE
+                    + (input.length - (long) nBlocks * BLOCK_SIZE);
+            if (sampled == nBlocks) {
+                return new SumEstimate(mean * nBlocks + tailSum, 0,
+                        sampledElements, input.length);
+            }
+            double standardError = Double.POSITIVE_INFINITY;
+            if (sampled > 1) {
+                final double variance = m2 / (sampled - 1);
+                final double finiteCorrection = 1 - (double) sampled / nBlocks;
+                standardError = nBlocks
+                        * Math.sqrt(variance / sampled * finiteCorrection);
+            }
+            return new SumEstimate(mean * nBlocks + tailSum, standardError,
+                    sampledElements, input.length);
+        }
+    }
+}
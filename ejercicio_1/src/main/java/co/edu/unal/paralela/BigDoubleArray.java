@@ -0,0 +1,165 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arreglo de doubles segmentado con índices long.
+ *
+ * Un double[] de Java no puede tener más de 2^31 - 1 elementos. Este arreglo
+ * reúne una lista de segmentos double[] (de cualquier longitud) y los expone
+ * como un único arreglo lógico, sin copiarlos, para poder procesar entradas de
+ * decenas de miles de millones de elementos.
+ */
+public final class BigDoubleArray {
+    /**
+     * Tamaño de segmento usado por allocate cuando no se indica otro: 2^27
+     * doubles, es decir 1 GB por segmento.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 27;
+
+    /**
+     * Segmentos del arreglo, en orden.
+     */
+    private final double[][] segments;
+    /**
+     * Índice global donde inicia cada segmento; tiene un elemento extra al
+     * final con la longitud total.
+     */
+    private final long[] segmentStarts;
+
+    /**
+     * Constructor. Los segmentos no se copian: los cambios hechos a través
+     * de este arreglo son visibles en ellos y viceversa.
+     *
+     * @param setSegments Segmentos del arreglo, en orden
+     */
+    public BigDoubleArray(final List<double[]> setSegments) {
+        this.segments = setSegments.toArray(new double[setSegments.size()][]);
+        this.segmentStarts = new long[segments.length + 1];
+        for (int s = 0; s < segments.length; s++) {
+            segmentStarts[s + 1] = segmentStarts[s] + segments[s].length;
+        }
+    }
+
+    /**
+     * Crea un arreglo de la longitud indicada, en ceros, con segmentos de
+     * DEFAULT_SEGMENT_SIZE elementos.
+     *
+     * @param length Número total de elementos
+     * @return El arreglo creado
+     */
+    public static BigDoubleArray allocate(final long length) {
+        return allocate(length, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Crea un arreglo de la longitud indicada, en ceros, con segmentos de
+     * segmentSize elementos (el último puede ser más corto).
+     *
+     * @param length      Número total de elementos
+     * @param segmentSize Número de elementos por segmento
+     * @return El arreglo creado
+     */
+    public static BigDoubleArray allocate(final long length,
+            final int segmentSize) {
+        if (length < 0 || segmentSize <= 0) {
+            throw new IllegalArgumentException("Longitud " + length
+                    + " o tamaño de segmento " + segmentSize + " inválido");
+        }
+        final int nSegments = (int) ReciprocalArraySum.getChunkSize(
+                (long) segmentSize, length);
+        final double[][] data = new double[nSegments][];
+        for (int s = 0; s < nSegments; s++) {
+            final long start = (long) s * segmentSize;
+            data[s] = new double[(int) Math.min(segmentSize, length - start)];
+        }
+        return new BigDoubleArray(Arrays.asList(data));
+    }
+
+    /**
+     * Número total de elementos.
+     *
+     * @return La longitud del arreglo
+     */
+    public long length() {
+        return segmentStarts[segments.length];
+    }
+
+    /**
+     * Recupera un elemento.
+     *
+     * @param index Índice global del elemento
+     * @return El valor del elemento
+     */
+    public double get(final long index) {
+        final int s = segmentIndex(index);
+        return segments[s][(int) (index - segmentStarts[s])];
+    }
+
+    /**
+     * Modifica un elemento.
+     *
+     * @param index Índice global del elemento
+     * @param value Nuevo valor del elemento
+     */
+    public void set(final long index, final double value) {
+        final int s = segmentIndex(index);
+        segments[s][(int) (index - segmentStarts[s])] = value;
+    }
+
+    /**
+     * Número de segmentos.
+     *
+     * @return El número de segmentos
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Recupera un segmento (sin copiarlo).
+     *
+     * @param segment Índice del segmento
+     * @return El segmento
+     */
+    public double[] segment(final int segment) {
+        return segments[segment];
+    }
+
+    /**
+     * Índice global donde inicia un segmento.
+     *
+     * @param segment Índice del segmento
+     * @return El índice global del primer elemento del segmento
+     */
+    public long segmentStart(final int segment) {
+        return segmentStarts[segment];
+    }
+
+    /**
+     * Busca el segmento que contiene un índice global. Los segmentos vacíos se
+     * saltan.
+     *
+     * @param index Índice global, entre 0 y length() - 1
+     * @return El índice del segmento que contiene el elemento
+     */
+    public int segmentIndex(final long index) {
+        if (index < 0 || index >= length()) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Índice " + index + " fuera de [0, " + length() + ")");
+        }
+        int lo = 0;
+        int hi = segments.length - 1;
+        // @audit-info Busca el último segmento cuyo inicio es <= index
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (segmentStarts[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,208 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Reparto de reducciones paralelas consciente de las líneas de caché.
+ *
+ * Cada resultado parcial se escribe en una ranura separada por una línea de
+ * caché completa de las demás, de modo que ningún par de hilos escribe en la
+ * misma línea (false sharing). Los límites de las secciones son los del
+ * reparto uniforme: la JVM no expone en qué posición de una línea empiezan los
+ * datos de un double[], así que redondear los límites a múltiplos de línea
+ * relativos al índice 0 no garantiza alineación real. Los hilos sólo leen el
+ * arreglo, y compartir para lectura la línea del borde entre dos secciones
+ * vecinas no causa false sharing.
+ *
+ * Con pinned(workers) cada sección se ejecuta siempre en el mismo hilo
+ * dedicado, por lo que sumas repetidas sobre el mismo arreglo encuentran su
+ * rango todavía en la caché de ese núcleo (mientras el sistema operativo no
+ * mueva el hilo).
+ */
+public final class CacheAwarePartitioner implements AutoCloseable {
+    /**
+     * Tamaño supuesto de una línea de caché, en bytes.
+     */
+    static final int CACHE_LINE_BYTES = 64;
+    /**
+     * Doubles por línea de caché.
+     */
+    static final int DOUBLES_PER_LINE = CACHE_LINE_BYTES / Double.BYTES;
+
+    /**
+     * Motor sobre el que corren las secciones, o null si son fijas.
+     */
+    private final ReciprocalSumEngine engine;
+    /**
+     * Hilos dedicados, uno por sección, o null si se usa el motor.
+     */
+    private final ExecutorService[] workers;
+    /**
+     * Número de secciones en que se reparte cada arreglo.
+     */
+    private final int nChunks;
+
+    /**
+     * Constructor. Las secciones se ejecutan sobre un motor y cualquier hilo
+     * del motor puede tomar cualquier sección.
+     *
+     * @param setEngine Motor sobre el que corren las secciones
+     * @param numTasks  El número de secciones para crear
+     */
+    public CacheAwarePartitioner(final ReciprocalSumEngine setEngine,
+            final int numTasks) {
+        this(setEngine, null, numTasks);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param setEngine  Motor sobre el que corren las secciones, o null
+     * @param setWorkers Hilos dedicados, o null
+     * @param numTasks   El número de secciones para crear
+     */
+    private CacheAwarePartitioner(final ReciprocalSumEngine setEngine,
+            final ExecutorService[] setWorkers, final int numTasks) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+        if (setEngine == null && setWorkers == null) {
+            throw new NullPointerException("engine");
+        }
+        this.engine = setEngine;
+        this.workers = setWorkers;
+        this.nChunks = numTasks;
+    }
+
+    /**
+     * Crea un reparto con un hilo dedicado por sección: la sección i de cada
+     * arreglo siempre la calcula el hilo i. close() apaga esos hilos.
+     *
+     * @param nWorkers Número de hilos, y de secciones
+     * @return El reparto
+     */
+    public static CacheAwarePartitioner pinned(final int nWorkers) {
+        if (nWorkers <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de hilos debe ser positivo: " + nWorkers);
+        }
+        final ExecutorService[] workers = new ExecutorService[nWorkers];
+        for (int w = 0; w < nWorkers; w++) {
+            final int worker = w;
+            workers[w] = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable,
+                        "reciprocal-sum-pinned-" + worker);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return new CacheAwarePartitioner(null, workers, nWorkers);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos con ranuras separadas por líneas.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final double[] input) {
+        return reduce(input, ParallelDoubleReducer.reciprocalSum());
+    }
+
+    /**
+     * Calcula una reducción map-reduce con ranuras separadas por líneas. Los
+     * resultados parciales se combinan en orden de sección.
+     *
+     * @param input   Arreglo de entrada
+     * @param reducer Reducción a calcular
+     * @return El resultado de la reducción
+     */
+    public double reduce(final double[] input, final ParallelDoubleReducer reducer) {
+        final int nElements = input.length;
+        final double[] slots = new double[(nChunks + 2) * DOUBLES_PER_LINE];
+
+        forEachChunk(chunk -> slots[slot(chunk)] = reducer.seqReduce(input,
+                ReciprocalArraySum.getChunkStartInclusive(chunk, nChunks, nElements),
+                ReciprocalArraySum.getChunkEndExclusive(chunk, nChunks, nElements)));
+
+        double result = reducer.identity();
+        for (int chunk = 0; chunk < nChunks; chunk++) {
+            result = reducer.combine(result, slots[slot(chunk)]);
+        }
+        return result;
+    }
+
+    /**
+     * Número de secciones en que se reparte cada arreglo.
+     *
+     * @return El número de secciones
+     */
+    public int getChunkCount() {
+        return nChunks;
+    }
+
+    /**
+     * Posición de la ranura de una sección: las ranuras están separadas por
+     * una línea completa y hay una línea libre antes de la primera y después
+     * de la última, para no compartir línea con la cabecera del arreglo ni con
+     * otros objetos.
+     *
+     * @param chunk Índice de la sección
+     * @return El índice de la ranura en el arreglo de ranuras
+     */
+    static int slot(final int chunk) {
+        return (chunk + 1) * DOUBLES_PER_LINE;
+    }
+
+    /**
+     * Ejecuta body(chunk) para cada sección y espera a que todas terminen.
+     *
+     * @param body Trabajo de cada sección
+     */
+    private void forEachChunk(final IntConsumer body) {
+        if (workers == null) {
+            engine.forEachChunk(nChunks, body);
+            return;
+        }
+
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(nChunks);
+        for (int i = 0; i < nChunks; i++) {
+            final int chunk = i;
+            final FutureTask<Void> task = new FutureTask<Void>(
+                    () -> body.accept(chunk), null);
+            tasks.add(task);
+            workers[chunk].execute(task);
+        }
+        try {
+            for (FutureTask<Void> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una sección del cálculo",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Apaga los hilos dedicados, si los hay. El motor provisto por quien
+     * llama no se toca.
+     */
+    @Override
+    public void close() {
+        if (workers != null) {
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+        }
+    }
+}
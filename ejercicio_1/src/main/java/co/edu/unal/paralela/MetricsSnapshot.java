@@ -0,0 +1,192 @@
+package co.edu.unal.paralela;
+
+/**
+ * Fotografía inmutable de las métricas de ejecución de un ReciprocalSumEngine.
+ */
+public final class MetricsSnapshot {
+    /**
+     * Número de llamadas paralelas medidas.
+     */
+    private final long calls;
+    /**
+     * Tiempo total de pared de las llamadas, en nanosegundos.
+     */
+    private final long callNanos;
+    /**
+     * Número de hojas ejecutadas.
+     */
+    private final long leaves;
+    /**
+     * Tiempo total de las hojas, en nanosegundos.
+     */
+    private final long leafNanos;
+    /**
+     * Tiempo de la hoja más lenta, en nanosegundos.
+     */
+    private final long maxLeafNanos;
+    /**
+     * Bytes de entrada leídos por las llamadas medidas.
+     */
+    private final long bytes;
+    /**
+     * Promedio del desbalance de cada llamada.
+     */
+    private final double loadImbalance;
+    /**
+     * Desbalance de la última llamada.
+     */
+    private final double lastLoadImbalance;
+    /**
+     * Robos de trabajo del pool durante las llamadas medidas.
+     */
+    private final long steals;
+    /**
+     * Tareas encoladas en el pool.
+     */
+    private final long queuedTasks;
+
+    /**
+     * Constructor.
+     *
+     * @param setCalls         Número de llamadas
+     * @param setCallNanos     Tiempo total de las llamadas
+     * @param setLeaves        Número de hojas
+     * @param setLeafNanos     Tiempo total de las hojas
+     * @param setMaxLeafNanos  Tiempo de la hoja más lenta
+     * @param setBytes         Bytes leídos
+     * @param setImbalance     Promedio del desbalance de cada llamada
+     * @param setLastImbalance Desbalance de la última llamada
+     * @param setSteals        Robos de trabajo durante las llamadas
+     * @param setQueuedTasks   Tareas encoladas
+     */
+    MetricsSnapshot(final long setCalls, final long setCallNanos,
+            final long setLeaves, final long setLeafNanos,
+            final long setMaxLeafNanos, final long setBytes,
+            final double setImbalance, final double setLastImbalance,
+            final long setSteals, final long setQueuedTasks) {
+        this.calls = setCalls;
+        this.callNanos = setCallNanos;
+        this.leaves = setLeaves;
+        this.leafNanos = setLeafNanos;
+        this.maxLeafNanos = setMaxLeafNanos;
+        this.bytes = setBytes;
+        this.loadImbalance = setImbalance;
+        this.lastLoadImbalance = setLastImbalance;
+        this.steals = setSteals;
+        this.queuedTasks = setQueuedTasks;
+    }
+
+    /**
+     * Recupera el número de llamadas paralelas medidas.
+     *
+     * @return El número de llamadas
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Recupera el tiempo total de pared de las llamadas.
+     *
+     * @return El tiempo en nanosegundos
+     */
+    public long getCallNanos() {
+        return callNanos;
+    }
+
+    /**
+     * Recupera el número de hojas (secciones) ejecutadas.
+     *
+     * @return El número de hojas
+     */
+    public long getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Recupera el tiempo medio de una hoja.
+     *
+     * @return El tiempo medio en nanosegundos, 0 si no hay hojas
+     */
+    public double getMeanLeafNanos() {
+        return leaves == 0 ? 0 : (double) leafNanos / leaves;
+    }
+
+    /**
+     * Recupera el tiempo de la hoja más lenta.
+     *
+     * @return El tiempo máximo en nanosegundos
+     */
+    public long getMaxLeafNanos() {
+        return maxLeafNanos;
+    }
+
+    /**
+     * Recupera el desbalance de carga promedio. El desbalance de una llamada
+     * es su hoja más lenta dividida por la media de sus hojas; se calcula por
+     * llamada para no mezclar llamadas de tamaños distintos. Un valor cercano
+     * a 1 indica hojas parejas.
+     *
+     * @return El promedio del desbalance por llamada, 0 si no hay hojas
+     */
+    public double getLoadImbalance() {
+        return loadImbalance;
+    }
+
+    /**
+     * Recupera el desbalance de carga de la última llamada con hojas.
+     *
+     * @return El índice de desbalance, 0 si no hay hojas
+     */
+    public double getLastLoadImbalance() {
+        return lastLoadImbalance;
+    }
+
+    /**
+     * Recupera los bytes de entrada leídos por las llamadas medidas.
+     *
+     * @return El número de bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Recupera los robos de trabajo del pool ocurridos durante las llamadas
+     * medidas: la suma, por llamada, de la diferencia del contador del pool
+     * entre su inicio y su fin. Si el pool es compartido, incluye los robos
+     * de otro trabajo que corrió al mismo tiempo que las llamadas.
+     *
+     * @return El número de robos
+     */
+    public long getStealCount() {
+        return steals;
+    }
+
+    /**
+     * Recupera las tareas encoladas en el pool al tomar la fotografía.
+     *
+     * @return La profundidad de las colas
+     */
+    public long getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    /**
+     * Recupera el ancho de banda alcanzado: bytes leídos dividido por el
+     * tiempo de pared de las llamadas.
+     *
+     * @return El ancho de banda en GB/s, 0 si no hay llamadas
+     */
+    public double getBandwidthGBps() {
+        return callNanos == 0 ? 0 : (double) bytes / callNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("llamadas=%d hojas=%d hojaMedia=%.0fns hojaMax=%dns "
+                + "desbalance=%.2f robos=%d encoladas=%d ancho=%.2fGB/s", calls,
+                leaves, getMeanLeafNanos(), maxLeafNanos, getLoadImbalance(),
+                steals, queuedTasks, getBandwidthGBps());
+    }
+}
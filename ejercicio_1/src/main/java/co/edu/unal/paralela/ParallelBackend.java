@@ -0,0 +1,40 @@
+package co.edu.unal.paralela;
+
+/**
+ * Estrategia de ejecución paralela para las reducciones sobre arreglos.
+ *
+ * Todas las implementaciones reparten el arreglo con getChunkStartInclusive y
+ * getChunkEndExclusive y combinan los resultados parciales en orden de
+ * sección, así que sólo difieren en cómo ejecutan las secciones. Las
+ * implementaciones disponibles se obtienen de ParallelBackends.
+ */
+public interface ParallelBackend {
+    /**
+     * Nombre corto del backend, útil para reportar mediciones.
+     *
+     * @return El nombre del backend
+     */
+    String name();
+
+    /**
+     * Calcula en paralelo una reducción dividiendo el arreglo en numTasks
+     * secciones.
+     *
+     * @param input    Arreglo de entrada
+     * @param reducer  Reducción a calcular
+     * @param numTasks El número de tareas para crear
+     * @return El resultado de la reducción
+     */
+    double reduce(double[] input, ParallelDoubleReducer reducer, int numTasks);
+
+    /**
+     * Calcula en paralelo la suma de los recíprocos.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    default double sum(final double[] input, final int numTasks) {
+        return reduce(input, ParallelDoubleReducer.reciprocalSum(), numTasks);
+    }
+}
@@ -0,0 +1,267 @@
+package co.edu.unal.paralela;
+
+import static edu.rice.pcdp.PCDP.async;
+import static edu.rice.pcdp.PCDP.finish;
+import static edu.rice.pcdp.PCDP.forall;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementaciones de ParallelBackend: ForkJoin puro, ciclos de PCDP
+ * (forall y finish/async) y un executor con un hilo virtual por sección cuando
+ * la JVM los soporta. Permiten medir cuál rinde mejor en cada máquina y
+ * elegirlo en cada llamada.
+ */
+public final class ParallelBackends {
+    /**
+     * Propiedad del sistema con la que PCDP elige su número de trabajadores.
+     */
+    static final String PCDP_WORKERS_PROPERTY = "pcdp.numWorkers";
+
+    /**
+     * Constructor.
+     */
+    private ParallelBackends() {
+    }
+
+    /**
+     * Backend ForkJoin sobre el motor compartido.
+     *
+     * @return El backend
+     */
+    public static ParallelBackend forkJoin() {
+        return forkJoin(ReciprocalSumEngine.shared());
+    }
+
+    /**
+     * Backend ForkJoin sobre un motor dado.
+     *
+     * @param engine Motor sobre el que se ejecutan las reducciones
+     * @return El backend
+     */
+    public static ParallelBackend forkJoin(final ReciprocalSumEngine engine) {
+        return new ParallelBackend() {
+            @Override
+            public String name() {
+                return "forkjoin";
+            }
+
+            @Override
+            public double reduce(final double[] input,
+                    final ParallelDoubleReducer reducer, final int numTasks) {
+                return engine.reduce(input, reducer, numTasks);
+            }
+        };
+    }
+
+    /**
+     * Backend PCDP que recorre las secciones con forall. En máquinas de un
+     * núcleo requiere -Dpcdp.numWorkers=2 o más.
+     *
+     * @return El backend
+     * @throws IllegalStateException Si PCDP correría con un solo trabajador
+     */
+    public static ParallelBackend pcdpForall() {
+        checkPcdpWorkers();
+        return new ChunkedBackend("pcdp-forall") {
+            @Override
+            void forEachChunk(final int nChunks, final IntConsumer body) {
+                forall(0, nChunks - 1, chunk -> body.accept(chunk));
+            }
+        };
+    }
+
+    /**
+     * Backend PCDP que lanza cada sección con async dentro de un finish. En
+     * máquinas de un núcleo requiere -Dpcdp.numWorkers=2 o más.
+     *
+     * @return El backend
+     * @throws IllegalStateException Si PCDP correría con un solo trabajador
+     */
+    public static ParallelBackend pcdpFinishAsync() {
+        checkPcdpWorkers();
+        return new ChunkedBackend("pcdp-finish-async") {
+            @Override
+            void forEachChunk(final int nChunks, final IntConsumer body) {
+                finish(() -> {
+                    for (int i = 0; i < nChunks; i++) {
+                        final int chunk = i;
+                        async(() -> body.accept(chunk));
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * PCDP 0.0.4 se bloquea en finish cuando su pool tiene un solo
+     * trabajador, que es lo que crea por defecto en máquinas de un núcleo. En
+     * ese caso los backends PCDP fallan de inmediato en lugar de bloquearse:
+     * hay que lanzar la JVM con -Dpcdp.numWorkers=2 o más. Esta clase no
+     * cambia la propiedad, porque afectaría a todo el código que use PCDP en
+     * la JVM.
+     *
+     * @throws IllegalStateException Si PCDP correría con un solo trabajador
+     */
+    static void checkPcdpWorkers() {
+        final String configured = System.getProperty(PCDP_WORKERS_PROPERTY);
+        int workers = Runtime.getRuntime().availableProcessors();
+        if (configured != null) {
+            try {
+                workers = Integer.parseInt(configured.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException(PCDP_WORKERS_PROPERTY
+                        + " no es un número: " + configured, e);
+            }
+        }
+        if (workers < 2) {
+            throw new IllegalStateException("PCDP se bloquea con " + workers
+                    + " trabajador; ejecute la JVM con -D" + PCDP_WORKERS_PROPERTY + "=2 o más");
+        }
+    }
+
+    /**
+     * Backend sobre un ExecutorService provisto por quien llama, que no se
+     * apaga.
+     *
+     * @param executor Executor sobre el que se ejecutan las secciones
+     * @return El backend
+     */
+    public static ParallelBackend executor(final ExecutorService executor) {
+        final ReciprocalSumEngine engine = new ReciprocalSumEngine(executor);
+        return new ParallelBackend() {
+            @Override
+            public String name() {
+                return "executor";
+            }
+
+            @Override
+            public double reduce(final double[] input,
+                    final ParallelDoubleReducer reducer, final int numTasks) {
+                return engine.reduce(input, reducer, numTasks);
+            }
+        };
+    }
+
+    /**
+     * Indica si la JVM actual tiene hilos virtuales
+     * (Executors.newVirtualThreadPerTaskExecutor, JDK 21 o superior).
+     *
+     * @return verdadero si los hilos virtuales están disponibles
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Backend que ejecuta cada sección en su propio hilo virtual, con un
+     * executor por llamada que se cierra al terminar (concurrencia
+     * estructurada). Los módulos compilan para Java 8, así que el executor se
+     * obtiene por reflexión.
+     *
+     * @return El backend
+     * @throws UnsupportedOperationException Si la JVM no tiene hilos virtuales
+     */
+    public static ParallelBackend virtualThreads() {
+        if (!isVirtualThreadsAvailable()) {
+            throw new UnsupportedOperationException(
+                    "Los hilos virtuales requieren JDK 21 o superior");
+        }
+        return new ParallelBackend() {
+            @Override
+            public String name() {
+                return "virtual-threads";
+            }
+
+            @Override
+            public double reduce(final double[] input,
+                    final ParallelDoubleReducer reducer, final int numTasks) {
+                final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+                try {
+                    return new ReciprocalSumEngine(executor).reduce(input, reducer, numTasks);
+                } finally {
+                    executor.shutdown();
+                }
+            }
+        };
+    }
+
+    /**
+     * Crea por reflexión un executor con un hilo virtual por tarea.
+     *
+     * @return El executor
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new UnsupportedOperationException(
+                    "No se pudo crear el executor de hilos virtuales", e);
+        }
+    }
+
+    /**
+     * Backend que sólo define cómo ejecutar las secciones; el reparto y la
+     * combinación en orden de sección son comunes.
+     */
+    private abstract static class ChunkedBackend implements ParallelBackend {
+        /**
+         * Nombre del backend.
+         */
+        private final String name;
+
+        /**
+         * Constructor.
+         *
+         * @param setName Nombre del backend
+         */
+        ChunkedBackend(final String setName) {
+            this.name = setName;
+        }
+
+        /**
+         * Ejecuta body(chunk) para cada chunk en [0, nChunks) y espera a que
+         * todos terminen.
+         *
+         * @param nChunks Número de secciones
+         * @param body    Trabajo de cada sección
+         */
+        abstract void forEachChunk(int nChunks, IntConsumer body);
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public double reduce(final double[] input,
+                final ParallelDoubleReducer reducer, final int numTasks) {
+            if (numTasks <= 0) {
+                throw new IllegalArgumentException(
+                        "El número de tareas debe ser positivo: " + numTasks);
+            }
+            final double[] partials = new double[numTasks];
+
+            forEachChunk(numTasks, chunk -> partials[chunk] = reducer.seqReduce(input,
+                    ReciprocalArraySum.getChunkStartInclusive(chunk, numTasks, input.length),
+                    ReciprocalArraySum.getChunkEndExclusive(chunk, numTasks, input.length)));
+
+            double result = reducer.identity();
+            for (double partial : partials) {
+                result = reducer.combine(result, partial);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package co.edu.unal.paralela;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Reducción map-reduce paralela sobre arreglos double[] sin empaquetar
+ * (boxing) valores.
+ *
+ * Cada elemento se transforma con una función map y los resultados se
+ * combinan con una operación asociativa combine que tiene un elemento
+ * identidad. La suma de recíprocos es una instancia más (reciprocalSum()).
+ * Las reducciones predefinidas tienen ciclos especializados para que el JIT
+ * no tenga que pasar por map y combine en cada elemento; las sumas siguen la
+ * forma de los ciclos de ReciprocalKernel, con ReciprocalKernel.LANES
+ * acumuladores. Las creadas con of(...) usan el ciclo genérico.
+ */
+public final class ParallelDoubleReducer {
+    /**
+     * Ciclos especializados de las reducciones predefinidas.
+     */
+    private enum Kernel {
+        /**
+         * Suma de 1 / x.
+         */
+        RECIPROCAL_SUM,
+        /**
+         * Suma de x.
+         */
+        SUM,
+        /**
+         * Suma de x * x.
+         */
+        SUM_OF_SQUARES,
+        /**
+         * Suma de log(x).
+         */
+        LOG_SUM,
+        /**
+         * Mínimo de x.
+         */
+        MIN,
+        /**
+         * Máximo de x.
+         */
+        MAX,
+        /**
+         * Ciclo genérico con map y combine.
+         */
+        GENERIC
+    }
+
+    /**
+     * Suma de los recíprocos.
+     */
+    private static final ParallelDoubleReducer RECIPROCAL_SUM = new ParallelDoubleReducer(
+            x -> 1 / x, Double::sum, 0.0, Kernel.RECIPROCAL_SUM);
+    /**
+     * Suma de los elementos.
+     */
+    private static final ParallelDoubleReducer SUM = new ParallelDoubleReducer(
+            x -> x, Double::sum, 0.0, Kernel.SUM);
+    /**
+     * Suma de los cuadrados.
+     */
+    private static final ParallelDoubleReducer SUM_OF_SQUARES = new ParallelDoubleReducer(
+            x -> x * x, Double::sum, 0.0, Kernel.SUM_OF_SQUARES);
+    /**
+     * Suma de los logaritmos naturales.
+     */
+    private static final ParallelDoubleReducer LOG_SUM = new ParallelDoubleReducer(
+            Math::log, Double::sum, 0.0, Kernel.LOG_SUM);
+    /**
+     * Mínimo de los elementos.
+     */
+    private static final ParallelDoubleReducer MIN = new ParallelDoubleReducer(
+            x -> x, Math::min, Double.POSITIVE_INFINITY, Kernel.MIN);
+    /**
+     * Máximo de los elementos.
+     */
+    private static final ParallelDoubleReducer MAX = new ParallelDoubleReducer(
+            x -> x, Math::max, Double.NEGATIVE_INFINITY, Kernel.MAX);
+
+    /**
+     * Transformación aplicada a cada elemento.
+     */
+    private final DoubleUnaryOperator map;
+    /**
+     * Operación asociativa que combina resultados.
+     */
+    private final DoubleBinaryOperator combine;
+    /**
+     * Elemento identidad de combine.
+     */
+    private final double identity;
+    /**
+     * Ciclo especializado a usar.
+     */
+    private final Kernel kernel;
+
+    /**
+     * Constructor.
+     *
+     * @param setMap      Transformación aplicada a cada elemento
+     * @param setCombine  Operación asociativa que combina resultados
+     * @param setIdentity Elemento identidad de combine
+     * @param setKernel   Ciclo especializado a usar
+     */
+    private ParallelDoubleReducer(final DoubleUnaryOperator setMap,
+            final DoubleBinaryOperator setCombine, final double setIdentity,
+            final Kernel setKernel) {
+        this.map = setMap;
+        this.combine = setCombine;
+        this.identity = setIdentity;
+        this.kernel = setKernel;
+    }
+
+    /**
+     * Crea una reducción a partir de sus funciones.
+     *
+     * @param map      Transformación aplicada a cada elemento
+     * @param combine  Operación asociativa que combina resultados
+     * @param identity Elemento identidad de combine
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer of(final DoubleUnaryOperator map,
+            final DoubleBinaryOperator combine, final double identity) {
+        if (map == null || combine == null) {
+            throw new NullPointerException("map y combine son obligatorios");
+        }
+        return new ParallelDoubleReducer(map, combine, identity, Kernel.GENERIC);
+    }
+
+    /**
+     * Reducción predefinida: la suma de los recíprocos.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer reciprocalSum() {
+        return RECIPROCAL_SUM;
+    }
+
+    /**
+     * Reducción predefinida: la suma de los elementos.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer sum() {
+        return SUM;
+    }
+
+    /**
+     * Reducción predefinida: la suma de los cuadrados.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer sumOfSquares() {
+        return SUM_OF_SQUARES;
+    }
+
+    /**
+     * Reducción predefinida: la suma de los logaritmos naturales.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer logSum() {
+        return LOG_SUM;
+    }
+
+    /**
+     * Reducción predefinida: el mínimo de los elementos.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer min() {
+        return MIN;
+    }
+
+    /**
+     * Reducción predefinida: el máximo de los elementos.
+     *
+     * @return La reducción
+     */
+    public static ParallelDoubleReducer max() {
+        return MAX;
+    }
+
+    /**
+     * Recupera el elemento identidad de la reducción.
+     *
+     * @return El elemento identidad de la reducción
+     */
+    public double identity() {
+        return identity;
+    }
+
+    /**
+     * Combina dos resultados parciales.
+     *
+     * @param left  Resultado del rango de la izquierda
+     * @param right Resultado del rango de la derecha
+     * @return El resultado combinado
+     */
+    public double combine(final double left, final double right) {
+        switch (kernel) {
+            case MIN:
+                return Math.min(left, right);
+            case MAX:
+                return Math.max(left, right);
+            case GENERIC:
+                return combine.applyAsDouble(left, right);
+            default:
+                return left + right;
+        }
+    }
+
+    /**
+     * Calcula secuencialmente la reducción de todo el arreglo.
+     *
+     * @param input Arreglo de entrada
+     * @return El resultado de la reducción
+     */
+    public double seqReduce(final double[] input) {
+        return seqReduce(input, 0, input.length);
+    }
+
+    /**
+     * Calcula en paralelo la reducción de todo el arreglo con el motor
+     * compartido y un número establecido de tareas.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return El resultado de la reducción
+     */
+    public double parReduce(final double[] input, final int numTasks) {
+        return ReciprocalSumEngine.shared().reduce(input, this, numTasks);
+    }
+
+    /**
+     * Calcula secuencialmente la reducción de input[from, to).
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return El resultado de la reducción del rango
+     */
+    public double seqReduce(final double[] input, final int from, final int to) {
+        switch (kernel) {
+            case RECIPROCAL_SUM:
+                return ReciprocalKernel.sum(input, from, to);
+            case SUM:
+                return sumRange(input, from, to);
+            case SUM_OF_SQUARES:
+                return sumOfSquaresRange(input, from, to);
+            case LOG_SUM:
+                return logSumRange(input, from, to);
+            case MIN:
+                return minRange(input, from, to);
+            case MAX:
+                return maxRange(input, from, to);
+            default:
+                return genericRange(input, from, to);
+        }
+    }
+
+    /**
+     * Ciclo genérico: aplica map y combine a cada elemento.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return El resultado de la reducción del rango
+     */
+    private double genericRange(final double[] input, final int from, final int to) {
+        double acc = identity;
+        for (int i = from; i < to; i++) {
+            acc = combine.applyAsDouble(acc, map.applyAsDouble(input[i]));
+        }
+        return acc;
+    }
+
+    /**
+     * Suma de x con cuatro acumuladores independientes.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma del rango
+     */
+    private static double sumRange(final double[] input, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - ReciprocalKernel.LANES + 1;
+        for (; i < unrolledEnd; i += ReciprocalKernel.LANES) {
+            s0 += input[i];
+            s1 += input[i + 1];
+            s2 += input[i + 2];
+            s3 += input[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += input[i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Suma de x * x con cuatro acumuladores independientes.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma de los cuadrados del rango
+     */
+    private static double sumOfSquaresRange(final double[] input, final int from,
+            final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - ReciprocalKernel.LANES + 1;
+        for (; i < unrolledEnd; i += ReciprocalKernel.LANES) {
+            s0 += input[i] * input[i];
+            s1 += input[i + 1] * input[i + 1];
+            s2 += input[i + 2] * input[i + 2];
+            s3 += input[i + 3] * input[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += input[i] * input[i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Suma de log(x).
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma de los logaritmos del rango
+     */
+    private static double logSumRange(final double[] input, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += Math.log(input[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Mínimo de x.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return El mínimo del rango, infinito positivo si está vacío
+     */
+    private static double minRange(final double[] input, final int from, final int to) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, input[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Máximo de x.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return El máximo del rango, infinito negativo si está vacío
+     */
+    private static double maxRange(final double[] input, final int from, final int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, input[i]);
+        }
+        return max;
+    }
+}
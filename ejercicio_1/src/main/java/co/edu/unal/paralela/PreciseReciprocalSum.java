@@ -0,0 +1,117 @@
+package co.edu.unal.paralela;
+
+/**
+ * Suma de recíprocos compensada (Neumaier) y determinista.
+ *
+ * El arreglo se divide en bloques de BLOCK_SIZE elementos que dependen sólo de
+ * los índices, nunca del número de tareas. Cada bloque produce un par (suma,
+ * compensación) y los pares se combinan con un árbol binario fijo sobre los
+ * índices de bloque. Así el resultado es idéntico bit a bit sin importar
+ * cuántas tareas calculen los bloques ni en qué orden terminen.
+ */
+final class PreciseReciprocalSum {
+    /**
+     * Número de elementos de cada bloque (hoja del árbol de reducción).
+     */
+    static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Constructor.
+     */
+    private PreciseReciprocalSum() {
+    }
+
+    /**
+     * Calcula el número de bloques en que se divide un arreglo.
+     *
+     * @param nElements El número de elementos
+     * @return El número de bloques
+     */
+    static int getBlockCount(final int nElements) {
+        // @audit-info Sin sumar BLOCK_SIZE - 1 primero, que se desborda
+        // cerca de Integer.MAX_VALUE
+        return nElements == 0 ? 0 : (nElements - 1) / BLOCK_SIZE + 1;
+    }
+
+    /**
+     * Calcula los pares (suma, compensación) de los bloques [fromBlock,
+     * toBlock) y los guarda en sums y comps, indexados por bloque.
+     *
+     * @param input     Arreglo de entrada
+     * @param fromBlock Bloque inicial inclusivo
+     * @param toBlock   Bloque final exclusivo
+     * @param sums      Sumas parciales por bloque
+     * @param comps     Compensaciones por bloque
+     */
+    static void sumBlocks(final double[] input, final int fromBlock,
+            final int toBlock, final double[] sums, final double[] comps) {
+        for (int b = fromBlock; b < toBlock; b++) {
+            final int start = b * BLOCK_SIZE;
+            final int end = start + Math.min(BLOCK_SIZE, input.length - start);
+
+            double sum = 0;
+            double comp = 0;
+            for (int i = start; i < end; i++) {
+                final double x = 1 / input[i];
+                final double t = sum + x;
+                if (Math.abs(sum) >= Math.abs(x)) {
+                    comp += (sum - t) + x;
+                } else {
+                    comp += (x - t) + sum;
+                }
+                sum = t;
+            }
+            sums[b] = sum;
+            comps[b] = comp;
+        }
+    }
+
+    /**
+     * Combina los pares de todos los bloques con un árbol binario fijo: en
+     * cada nivel el bloque i absorbe al bloque i + ancho. Modifica los
+     * arreglos recibidos.
+     *
+     * @param sums  Sumas parciales por bloque
+     * @param comps Compensaciones por bloque
+     * @return La suma compensada total
+     */
+    static double combine(final double[] sums, final double[] comps) {
+        final int nBlocks = sums.length;
+        if (nBlocks == 0) {
+            return 0;
+        }
+
+        for (int width = 1; width < nBlocks; width <<= 1) {
+            for (int i = 0; i + width < nBlocks; i += width << 1) {
+                final double a = sums[i];
+                final double b = sums[i + width];
+                final double t = a + b;
+                final double err;
+                if (Math.abs(a) >= Math.abs(b)) {
+                    err = (a - t) + b;
+                } else {
+                    err = (b - t) + a;
+                }
+                sums[i] = t;
+                comps[i] = comps[i] + comps[i + width] + err;
+            }
+        }
+
+        return sums[0] + comps[0];
+    }
+
+    /**
+     * Calcula secuencialmente la suma compensada determinista. Produce
+     * exactamente el mismo valor que la versión paralela.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    static double seqSum(final double[] input) {
+        final int nBlocks = getBlockCount(input.length);
+        final double[] sums = new double[nBlocks];
+        final double[] comps = new double[nBlocks];
+        sumBlocks(input, 0, nBlocks, sums, comps);
+        return combine(sums, comps);
+    }
+}
@@ -1,7 +1,11 @@
 package co.edu.unal.paralela;
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
 import java.util.concurrent.ForkJoinTask;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 import java.util.List;
 import java.util.ArrayList;
@@ -13,6 +17,16 @@ import java.util.Collection;
  */
 public final class ReciprocalArraySum {
 
+    /**
+     * Número de hojas que la división recursiva genera por cada tarea cuando
+     * el tamaño de grano se deriva automáticamente.
+     */
+    static final int LEAVES_PER_TASK = 8;
+    /**
+     * Tamaño de grano mínimo de la división recursiva.
+     */
+    static final int MIN_GRAIN_SIZE = 16 * 1024;
+
     /**
      * Constructor.
      */
@@ -26,14 +40,19 @@ public final class ReciprocalArraySum {
      * @return La suma de los recíprocos del arreglo de entrada
      */
     protected static double seqArraySum(final double[] input) {
-        double sum = 0;
-
         // Calcula la suma de los recíprocos de los elementos del arreglo
-        for (int i = 0; i < input.length; i++) {
-            sum += 1 / input[i];
-        }
+        return ReciprocalKernel.sum(input, 0, input.length);
+    }
 
-        return sum;
+    /**
+     * Calcula secuencialmente la suma de valores recíprocos para un arreglo de
+     * floats, acumulando en double.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double seqArraySum(final float[] input) {
+        return ReciprocalKernel.sum(input, 0, input.length);
     }
 
     /**
@@ -45,9 +64,9 @@ public final class ReciprocalArraySum {
      * @param nElements El número de elementos para dividir
      * @return El tamaño por defecto de la sección (chunk)
      */
-    private static int getChunkSize(final int nChunks, final int nElements) {
+    static int getChunkSize(final int nChunks, final int nElements) {
         // Función techo entera
-        return (nElements + nChunks - 1) / nChunks;
+        return (int) getChunkSize((long) nChunks, (long) nElements);
     }
 
     /**
@@ -63,10 +82,10 @@ public final class ReciprocalArraySum {
      *         conjunto de
      *         nElements
      */
-    private static int getChunkStartInclusive(final int chunk,
+    static int getChunkStartInclusive(final int chunk,
             final int nChunks, final int nElements) {
-        final int chunkSize = getChunkSize(nChunks, nElements);
-        return chunk * chunkSize;
+        return (int) getChunkStartInclusive((long) chunk, (long) nChunks,
+                (long) nElements);
     }
 
     /**
@@ -80,10 +99,53 @@ public final class ReciprocalArraySum {
      *                  atravesarse
      * @return El índice de terminación exclusivo para esta sección/trozo (chunk)
      */
-    private static int getChunkEndExclusive(final int chunk, final int nChunks,
+    static int getChunkEndExclusive(final int chunk, final int nChunks,
             final int nElements) {
-        final int chunkSize = getChunkSize(nChunks, nElements);
-        final int end = (chunk + 1) * chunkSize;
+        return (int) getChunkEndExclusive((long) chunk, (long) nChunks,
+                (long) nElements);
+    }
+
+    /**
+     * Versión con índices long de getChunkSize. Las versiones int delegan en
+     * esta para que (chunk + 1) * chunkSize no se desborde cuando se usan
+     * muchas secciones.
+     *
+     * @param nChunks   El número de secciones (chunks) para crear
+     * @param nElements El número de elementos para dividir
+     * @return El tamaño por defecto de la sección (chunk)
+     */
+    static long getChunkSize(final long nChunks, final long nElements) {
+        // Función techo entera
+        return (nElements + nChunks - 1) / nChunks;
+    }
+
+    /**
+     * Versión con índices long de getChunkStartInclusive. El resultado nunca
+     * supera nElements.
+     *
+     * @param chunk     la sección/trozo (chunk) para cacular la posición de inicio
+     * @param nChunks   Cantidad de secciones/trozos (chunks) creados
+     * @param nElements La cantidad de elementos a dividir
+     * @return El índice inclusivo donde esta sección/trozo (chunk) inicia
+     */
+    static long getChunkStartInclusive(final long chunk, final long nChunks,
+            final long nElements) {
+        final long chunkSize = getChunkSize(nChunks, nElements);
+        return Math.min(chunk * chunkSize, nElements);
+    }
+
+    /**
+     * Versión con índices long de getChunkEndExclusive.
+     *
+     * @param chunk     La sección para calcular donde termina
+     * @param nChunks   Cantidad de secciones/trozos (chunks) creados
+     * @param nElements La cantidad de elementos a dividir
+     * @return El índice de terminación exclusivo para esta sección/trozo (chunk)
+     */
+    static long getChunkEndExclusive(final long chunk, final long nChunks,
+            final long nElements) {
+        final long chunkSize = getChunkSize(nChunks, nElements);
+        final long end = (chunk + 1) * chunkSize;
         if (end > nElements) {
             return nElements;
         } else {
@@ -91,6 +153,21 @@ public final class ReciprocalArraySum {
         }
     }
 
+    /**
+     * Calcula un tamaño de grano para la división recursiva a partir del
+     * número de tareas deseado: se generan varias hojas por tarea para que el
+     * robo de trabajo pueda compensar núcleos lentos u ocupados, sin bajar de
+     * un mínimo que amortice el costo de crear cada tarea.
+     *
+     * @param nTasks    Número de tareas (hilos) que se espera usar
+     * @param nElements El número de elementos para dividir
+     * @return El tamaño de grano
+     */
+    static int getGrainSize(final int nTasks, final int nElements) {
+        final int leaves = Math.max(1, nTasks) * LEAVES_PER_TASK;
+        return Math.max(MIN_GRAIN_SIZE, getChunkSize(leaves, nElements));
+    }
+
     /**
      * Este pedazo de clase puede ser completada para para implementar el cuerpo de
      * cada tarea creada
@@ -100,7 +177,11 @@ public final class ReciprocalArraySum {
     // @audit-info RecursiveAction es una clase abstracta que permite acciones
     // ForkJoin sin retornar un resultado.
 
-    private static class ReciprocalArraySumTask extends RecursiveAction {
+    static class ReciprocalArraySumTask extends RecursiveAction {
+        /**
+         * Versión de la forma serializada; RecursiveAction es Serializable.
+         */
+        private static final long serialVersionUID = 1L;
         /**
          * Iniciar el índice para el recorrido transversal hecho por esta tarea.
          */
@@ -117,8 +198,25 @@ public final class ReciprocalArraySum {
          * Valor intermedio producido por esta tarea.
          */
         private double value;
-
+        /**
+         * Número de secciones en que se reparte el rango en un solo nivel, o 0
+         * si esta tarea no hace un reparto plano.
+         */
         private final int chunksNum;
+        /**
+         * Tamaño de grano para la división recursiva: los rangos más grandes
+         * se parten por la mitad. 0 desactiva la división recursiva.
+         */
+        private final int grainSize;
+        /**
+         * Reducción que calcula esta tarea; por defecto la suma de recíprocos.
+         */
+        private final ParallelDoubleReducer reducer;
+        /**
+         * Medición de la llamada donde se registra el tiempo de cada hoja, o
+         * null si las métricas están desactivadas.
+         */
+        private final ReciprocalSumMetrics.Call call;
 
         /**
          * Constructor.
@@ -128,15 +226,85 @@ public final class ReciprocalArraySum {
          * @param setEndIndexExclusive   establece el índice final para el recorrido
          *                               trasversal.
          * @param setInput               Valores de entrada
+         * @param chunksNum              Número de secciones del reparto plano
          */
         ReciprocalArraySumTask(final int setStartIndexInclusive,
                 final int setEndIndexExclusive,
                 final double[] setInput,
                 final int chunksNum) {
+            this(setStartIndexInclusive, setEndIndexExclusive, setInput,
+                    chunksNum, 0);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive establece el índice inicial para comenzar
+         *                               el recorrido trasversal.
+         * @param setEndIndexExclusive   establece el índice final para el recorrido
+         *                               trasversal.
+         * @param setInput               Valores de entrada
+         * @param chunksNum              Número de secciones del reparto plano
+         * @param setGrainSize           Tamaño de grano de la división recursiva
+         */
+        ReciprocalArraySumTask(final int setStartIndexInclusive,
+                final int setEndIndexExclusive,
+                final double[] setInput,
+                final int chunksNum,
+                final int setGrainSize) {
+            this(setStartIndexInclusive, setEndIndexExclusive, setInput,
+                    chunksNum, setGrainSize, ParallelDoubleReducer.reciprocalSum());
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive establece el índice inicial para comenzar
+         *                               el recorrido trasversal.
+         * @param setEndIndexExclusive   establece el índice final para el recorrido
+         *                               trasversal.
+         * @param setInput               Valores de entrada
+         * @param chunksNum              Número de secciones del reparto plano
+         * @param setGrainSize           Tamaño de grano de la división recursiva
+         * @param setReducer             Reducción a calcular
+         */
+        ReciprocalArraySumTask(final int setStartIndexInclusive,
+                final int setEndIndexExclusive,
+                final double[] setInput,
+                final int chunksNum,
+                final int setGrainSize,
+                final ParallelDoubleReducer setReducer) {
+            this(setStartIndexInclusive, setEndIndexExclusive, setInput,
+                    chunksNum, setGrainSize, setReducer, null);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive establece el índice inicial para comenzar
+         *                               el recorrido trasversal.
+         * @param setEndIndexExclusive   establece el índice final para el recorrido
+         *                               trasversal.
+         * @param setInput               Valores de entrada
+         * @param chunksNum              Número de secciones del reparto plano
+         * @param setGrainSize           Tamaño de grano de la división recursiva
+         * @param setReducer             Reducción a calcular
+         * @param setCall                Medición de la llamada, o null
+         */
+        ReciprocalArraySumTask(final int setStartIndexInclusive,
+                final int setEndIndexExclusive,
+                final double[] setInput,
+                final int chunksNum,
+                final int setGrainSize,
+                final ParallelDoubleReducer setReducer,
+                final ReciprocalSumMetrics.Call setCall) {
             this.startIndexInclusive = setStartIndexInclusive;
             this.endIndexExclusive = setEndIndexExclusive;
             this.input = setInput;
             this.chunksNum = chunksNum;
+            this.grainSize = setGrainSize;
+            this.reducer = setReducer;
+            this.call = setCall;
         }
 
         /**
@@ -151,36 +319,69 @@ public final class ReciprocalArraySum {
             return value;
         }
 
+        /**
+         * Número de elementos del rango recorrido por esta tarea.
+         *
+         * @return La longitud del rango
+         */
+        int getLength() {
+            return endIndexExclusive - startIndexInclusive;
+        }
+
         // @audit-info Realiza el cálculo principal de la tarea recursiva en juego.
 
         @Override
         protected void compute() {
             // @audit-info Computa el recíproco en un trozo del array
-            value = 0;
+            value = reducer.identity();
 
-            if(chunksNum == 0) {
-                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
-                    value += 1 / input[i];
-                }
-            }
-            else {
+            if (chunksNum > 0) {
                 Collection<ReciprocalArraySumTask> subTasks = ForkJoinTask.invokeAll(subTask());
-                
-                for(ReciprocalArraySumTask subTask : subTasks) {
-                    value += subTask.getValue();
+
+                for (ReciprocalArraySumTask subTask : subTasks) {
+                    value = reducer.combine(value, subTask.getValue());
                 }
+            } else if (grainSize > 0
+                    && endIndexExclusive - startIndexInclusive > grainSize) {
+                // @audit-info Parte el rango por la mitad: una mitad se publica
+                // para que otro hilo la pueda robar y la otra se calcula aquí.
+                final int mid = (startIndexInclusive + endIndexExclusive) >>> 1;
+                final ReciprocalArraySumTask left = new ReciprocalArraySumTask(
+                        startIndexInclusive, mid, input, 0, grainSize, reducer,
+                        call);
+                final ReciprocalArraySumTask right = new ReciprocalArraySumTask(
+                        mid, endIndexExclusive, input, 0, grainSize, reducer,
+                        call);
+                left.fork();
+                right.compute();
+                left.join();
+                value = reducer.combine(left.getValue(), right.getValue());
+            } else if (call == null) {
+                value = reducer.seqReduce(input, startIndexInclusive,
+                        endIndexExclusive);
+            } else {
+                final long leafStart = System.nanoTime();
+                value = reducer.seqReduce(input, startIndexInclusive,
+                        endIndexExclusive);
+                call.recordLeaf(System.nanoTime() - leafStart);
             }
         }
 
         private List<ReciprocalArraySumTask> subTask() {
             List<ReciprocalArraySumTask> tasks = new ArrayList<>(chunksNum);
+            final int nElements = endIndexExclusive - startIndexInclusive;
 
-            for(int i = 0; i < chunksNum; ++i) {
+            for (int i = 0; i < chunksNum; ++i) {
                 ReciprocalArraySumTask task = new ReciprocalArraySumTask(
-                        getChunkStartInclusive(i, chunksNum, input.length),
-                        getChunkEndExclusive(i, chunksNum, input.length),
+                        startIndexInclusive
+                                + getChunkStartInclusive(i, chunksNum, nElements),
+                        startIndexInclusive
+                                + getChunkEndExclusive(i, chunksNum, nElements),
                         input,
-                        0);
+                        0,
+                        0,
+                        reducer,
+                        call);
                 tasks.add(task);
             }
 
@@ -218,11 +419,221 @@ public final class ReciprocalArraySum {
      */
     protected static double parManyTaskArraySum(final double[] input,
             final int numTasks) {
-        ReciprocalArraySumTask sumTask = new ReciprocalArraySumTask(0, input.length, input, numTasks);
-        ForkJoinPool pool = new ForkJoinPool(numTasks);
-        pool.invoke(sumTask);
-        sumTask.invoke();
+        // @audit-info Se reutiliza el pool del motor compartido en lugar de
+        // crear (y nunca cerrar) un ForkJoinPool nuevo en cada llamada. La suma
+        // de recíprocos es una instancia de ParallelDoubleReducer.
+        return ParallelDoubleReducer.reciprocalSum().parReduce(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un buffer (en el heap, directo o
+     * mapeado) usando un número establecido de tareas, sin copiarlo al heap.
+     *
+     * @param input    Buffer de entrada, desde su posición hasta su límite
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del buffer de entrada
+     */
+    protected static double parManyTaskArraySum(final DoubleBuffer input,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sum(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un arreglo de floats usando un
+     * número establecido de tareas. Los elementos se leen en precisión simple
+     * y se acumulan en double.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parManyTaskArraySum(final float[] input,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sum(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un buffer de floats (en el heap,
+     * directo o mapeado) usando un número establecido de tareas, acumulando
+     * en double.
+     *
+     * @param input    Buffer de entrada, desde su posición hasta su límite
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del buffer de entrada
+     */
+    protected static double parManyTaskArraySum(final FloatBuffer input,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sum(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un archivo de doubles crudos,
+     * mapeándolo por ventanas en lugar de cargarlo al heap.
+     *
+     * @param file     Archivo de doubles crudos
+     * @param order    Orden de bytes de los doubles del archivo
+     * @param numTasks El número de tareas para crear por ventana
+     * @return La suma de los recíprocos del archivo
+     * @throws IOException Si el archivo no se puede leer
+     */
+    protected static double parManyTaskArraySum(final Path file,
+            final ByteOrder order, final int numTasks) throws IOException {
+        return ReciprocalSumEngine.shared().sumFile(file, order, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un arreglo segmentado, que puede
+     * tener más de 2^31 elementos, usando un número establecido de tareas.
+     *
+     * @param input    Arreglo segmentado de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parManyTaskArraySum(final BigDoubleArray input,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sum(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos con un número establecido de tareas
+     * ejecutadas por el backend indicado (ForkJoin, PCDP, hilos virtuales...).
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @param backend  Backend que ejecuta las tareas
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parManyTaskArraySum(final double[] input,
+            final int numTasks, final ParallelBackend backend) {
+        return backend.sum(input, numTasks);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos eligiendo automáticamente el
+     * paralelismo y el tamaño de grano según el tamaño del arreglo. Por
+     * debajo del punto de equilibrio medido se usa la versión secuencial.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parAutoTunedArraySum(final double[] input) {
+        return ReciprocalSumTuner.shared().sum(input);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de muchos arreglos en una sola pasada
+     * paralela, empacando los arreglos pequeños en unidades de trabajo
+     * balanceadas.
+     *
+     * @param inputs   Arreglos de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos de cada arreglo, en el mismo orden
+     */
+    protected static double[] parManyTaskBatchArraySum(final double[][] inputs,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sumBatch(inputs, numTasks);
+    }
+
+    /**
+     * Estima la suma de los recíprocos leyendo en paralelo una fracción de
+     * bloques elegidos al azar.
+     *
+     * @param input          Arreglo de entrada
+     * @param sampleFraction Fracción de bloques a leer, en (0, 1]
+     * @return La estimación con su intervalo de confianza
+     */
+    protected static SumEstimate parApproximateArraySum(final double[] input,
+            final double sampleFraction) {
+        return new ApproximateReciprocalSum(ReciprocalSumEngine.shared(), 314)
+                .estimate(input, sampleFraction);
+    }
+
+    /**
+     * Estima la suma de los recíprocos refinando la muestra hasta alcanzar el
+     * error relativo deseado o agotar el plazo.
+     *
+     * @param input               Arreglo de entrada
+     * @param maxMillis           Plazo en milisegundos
+     * @param targetRelativeError Error relativo deseado
+     * @return La estimación con su intervalo de confianza
+     */
+    protected static SumEstimate parApproximateArraySum(final double[] input,
+            final long maxMillis, final double targetRelativeError) {
+        return new ApproximateReciprocalSum(ReciprocalSumEngine.shared(), 314)
+                .estimate(input, maxMillis, targetRelativeError);
+    }
+
+    /**
+     * Calcula en paralelo la suma acumulada inclusiva de los recíprocos:
+     * out[i] = 1 / in[0] + ... + 1 / in[i].
+     *
+     * @param in  Arreglo de entrada
+     * @param out Arreglo de salida, de la misma longitud que in
+     */
+    protected static void parReciprocalPrefixSum(final double[] in,
+            final double[] out) {
+        final ReciprocalSumEngine engine = ReciprocalSumEngine.shared();
+        engine.reciprocalPrefixSum(in, out, engine.getParallelism(), true);
+    }
+
+    /**
+     * Calcula en paralelo y en el mismo arreglo la suma acumulada inclusiva de
+     * los recíprocos, reemplazando cada valor por su suma acumulada.
+     *
+     * @param inOut Arreglo de entrada y de salida
+     */
+    protected static void parReciprocalPrefixSum(final double[] inOut) {
+        parReciprocalPrefixSum(inOut, inOut);
+    }
+
+    /**
+     * Calcula en paralelo la suma acumulada exclusiva de los recíprocos:
+     * out[0] = 0 y out[i] = 1 / in[0] + ... + 1 / in[i - 1].
+     *
+     * @param in  Arreglo de entrada
+     * @param out Arreglo de salida, de la misma longitud que in (puede ser in)
+     */
+    protected static void parReciprocalExclusivePrefixSum(final double[] in,
+            final double[] out) {
+        final ReciprocalSumEngine engine = ReciprocalSumEngine.shared();
+        engine.reciprocalPrefixSum(in, out, engine.getParallelism(), false);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos en modo preciso y determinista: el
+     * resultado es idéntico bit a bit para cualquier número de tareas, incluida
+     * la ejecución secuencial de seqPreciseArraySum.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parManyTaskPreciseArraySum(final double[] input,
+            final int numTasks) {
+        return ReciprocalSumEngine.shared().sumPrecise(input, numTasks);
+    }
+
+    /**
+     * Calcula secuencialmente la suma de los recíprocos en modo preciso.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double seqPreciseArraySum(final double[] input) {
+        return PreciseReciprocalSum.seqSum(input);
+    }
 
-        return sumTask.getValue();
+    /**
+     * Calcula la suma de los recíprocos con resultados parciales en ranuras
+     * separadas por líneas de caché completas, sobre el motor compartido.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    protected static double parCacheAwareArraySum(final double[] input,
+            final int numTasks) {
+        return new CacheAwarePartitioner(ReciprocalSumEngine.shared(), numTasks)
+                .sum(input);
     }
 }
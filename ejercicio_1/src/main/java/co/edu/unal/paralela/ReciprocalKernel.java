@@ -0,0 +1,183 @@
+package co.edu.unal.paralela;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Núcleo (kernel) secuencial de la suma de recíprocos compartido por la
+ * versión secuencial y por las hojas de las tareas paralelas.
+ *
+ * Un ciclo con un único acumulador encadena cada suma con la anterior, de modo
+ * que el procesador no puede solapar las sumas de punto flotante. Aquí el
+ * ciclo se desenrolla con cuatro acumuladores independientes, lo que rompe la
+ * cadena de dependencias y deja que el JIT genere código superescalar o
+ * vectorial.
+ *
+ * Cada tipo de entrada tiene su propia copia del ciclo a propósito. Un único
+ * ciclo que recibe el término como IntToDoubleFunction resultó de tres a
+ * cinco veces más lento: al verlo llamado con varias funciones, el JIT lo
+ * compila aparte y ya no puede incorporar (inline) la lectura del elemento.
+ * Las copias siguen la misma forma, con LANES acumuladores y unrolledEnd
+ * como límite del ciclo desenrollado, y también la usan las sumas de
+ * ParallelDoubleReducer.
+ */
+final class ReciprocalKernel {
+    /**
+     * Número de acumuladores independientes (y factor de desenrollado).
+     */
+    static final int LANES = 4;
+
+    /**
+     * Constructor.
+     */
+    private ReciprocalKernel() {
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de input[from, to).
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma de los recíprocos del rango
+     */
+    static double sum(final double[] input, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - LANES + 1;
+        for (; i < unrolledEnd; i += LANES) {
+            s0 += 1 / input[i];
+            s1 += 1 / input[i + 1];
+            s2 += 1 / input[i + 2];
+            s3 += 1 / input[i + 3];
+        }
+        // @audit-info Elementos sobrantes cuando el rango no es múltiplo de LANES
+        for (; i < to; i++) {
+            s0 += 1 / input[i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de buffer[from, to) usando lecturas
+     * absolutas, que no modifican la posición del buffer y por lo tanto pueden
+     * hacerse desde varios hilos sobre el mismo buffer.
+     *
+     * @param buffer Buffer de entrada (en el heap, directo o mapeado)
+     * @param from   Índice inicial inclusivo
+     * @param to     Índice final exclusivo
+     * @return La suma de los recíprocos del rango
+     */
+    static double sum(final DoubleBuffer buffer, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - LANES + 1;
+        for (; i < unrolledEnd; i += LANES) {
+            s0 += 1 / buffer.get(i);
+            s1 += 1 / buffer.get(i + 1);
+            s2 += 1 / buffer.get(i + 2);
+            s3 += 1 / buffer.get(i + 3);
+        }
+        for (; i < to; i++) {
+            s0 += 1 / buffer.get(i);
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de input[from, to) para un arreglo
+     * segmentado, recorriendo cada segmento tocado por el rango sin copiarlo.
+     *
+     * @param input Arreglo segmentado de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma de los recíprocos del rango
+     */
+    static double sum(final BigDoubleArray input, final long from, final long to) {
+        double sum = 0;
+        long i = from;
+        while (i < to) {
+            final int segment = input.segmentIndex(i);
+            final long segmentStart = input.segmentStart(segment);
+            final double[] data = input.segment(segment);
+            final int lo = (int) (i - segmentStart);
+            final int hi = (int) Math.min(data.length, to - segmentStart);
+            sum += sum(data, lo, hi);
+            i = segmentStart + hi;
+        }
+        return sum;
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de input[from, to) para un arreglo de
+     * floats. Cada elemento se amplía a double antes de invertirlo y se
+     * acumula en double, así que la única pérdida frente a un double[] es la
+     * de haber guardado los datos en precisión simple; a cambio se leen la
+     * mitad de bytes de memoria.
+     *
+     * @param input Arreglo de entrada
+     * @param from  Índice inicial inclusivo
+     * @param to    Índice final exclusivo
+     * @return La suma de los recíprocos del rango
+     */
+    static double sum(final float[] input, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - LANES + 1;
+        for (; i < unrolledEnd; i += LANES) {
+            s0 += 1 / (double) input[i];
+            s1 += 1 / (double) input[i + 1];
+            s2 += 1 / (double) input[i + 2];
+            s3 += 1 / (double) input[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += 1 / (double) input[i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de buffer[from, to) para un buffer de
+     * floats, acumulando en double y usando lecturas absolutas.
+     *
+     * @param buffer Buffer de entrada (en el heap, directo o mapeado)
+     * @param from   Índice inicial inclusivo
+     * @param to     Índice final exclusivo
+     * @return La suma de los recíprocos del rango
+     */
+    static double sum(final FloatBuffer buffer, final int from, final int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+
+        int i = from;
+        final int unrolledEnd = to - LANES + 1;
+        for (; i < unrolledEnd; i += LANES) {
+            s0 += 1 / (double) buffer.get(i);
+            s1 += 1 / (double) buffer.get(i + 1);
+            s2 += 1 / (double) buffer.get(i + 2);
+            s3 += 1 / (double) buffer.get(i + 3);
+        }
+        for (; i < to; i++) {
+            s0 += 1 / (double) buffer.get(i);
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,79 @@
+package co.edu.unal.paralela;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Acumulador concurrente de la suma de recíprocos para valores que llegan en
+ * flujo desde muchos hilos productores.
+ *
+ * Las sumas se reparten en celdas (stripes) de un DoubleAdder: cada hilo
+ * escribe normalmente en su propia celda, así que no hay un único CAS
+ * disputado por todos. addAll calcula primero la suma del rango con el núcleo
+ * secuencial y sólo publica un valor por llamada.
+ */
+public final class ReciprocalSumAccumulator {
+    /**
+     * Celdas con las sumas parciales de los recíprocos.
+     */
+    private final DoubleAdder cells = new DoubleAdder();
+
+    /**
+     * Acumula el recíproco de un valor.
+     *
+     * @param value Valor de entrada (distinto de cero)
+     */
+    public void add(final double value) {
+        cells.add(1 / value);
+    }
+
+    /**
+     * Acumula los recíprocos de values[from, to).
+     *
+     * @param values Arreglo de entrada
+     * @param from   Índice inicial inclusivo
+     * @param to     Índice final exclusivo
+     */
+    public void addAll(final double[] values, final int from, final int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new ArrayIndexOutOfBoundsException("Rango [" + from + ", "
+                    + to + ") inválido para un arreglo de " + values.length);
+        }
+        cells.add(ReciprocalKernel.sum(values, from, to));
+    }
+
+    /**
+     * Acumula los recíprocos de todo el arreglo.
+     *
+     * @param values Arreglo de entrada
+     */
+    public void addAll(final double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * Recupera la suma acumulada. No es una fotografía atómica: las sumas
+     * concurrentes con esta llamada pueden o no quedar incluidas.
+     *
+     * @return La suma de los recíprocos acumulados
+     */
+    public double sum() {
+        return cells.sum();
+    }
+
+    /**
+     * Reinicia la suma a cero. Sólo es exacto si no hay sumas concurrentes.
+     */
+    public void reset() {
+        cells.reset();
+    }
+
+    /**
+     * Recupera la suma acumulada y reinicia el acumulador, por ejemplo para
+     * publicar totales por ventana de tiempo.
+     *
+     * @return La suma de los recíprocos acumulados antes de reiniciar
+     */
+    public double sumThenReset() {
+        return cells.sumThenReset();
+    }
+}
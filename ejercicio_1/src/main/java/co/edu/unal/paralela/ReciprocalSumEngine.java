@@ -0,0 +1,936 @@
+package co.edu.unal.paralela;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Motor de larga vida para calcular la suma de recíprocos en paralelo.
+ *
+ * A diferencia de crear un ForkJoinPool por cada llamada, el motor es dueño de
+ * un único pool durante toda su vida (o usa uno provisto por quien lo llama),
+ * de modo que el costo de cada suma queda dominado por la aritmética y no por
+ * la creación de hilos. Cuando el motor es dueño del pool, close() lo apaga.
+ */
+public final class ReciprocalSumEngine implements AutoCloseable {
+    /**
+     * Tamaño en bytes de cada ventana mapeada al sumar un archivo. Es múltiplo
+     * de 8 para que ningún double quede partido entre dos ventanas.
+     */
+    static final long REGION_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Forma en que el motor reparte el arreglo entre las tareas.
+     */
+    public enum SplitMode {
+        /**
+         * Un solo nivel: exactamente numTasks secciones del mismo tamaño.
+         */
+        FLAT,
+        /**
+         * División recursiva por mitades hasta un tamaño de grano; el robo de
+         * trabajo reequilibra la carga cuando los núcleos avanzan desigual.
+         */
+        RECURSIVE
+    }
+
+    /**
+     * Pool ForkJoin usado para ejecutar las tareas, o null si el motor trabaja
+     * sobre un Executor genérico.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Executor genérico provisto por quien llama, o null si se usa el pool.
+     */
+    private final Executor executor;
+    /**
+     * Indica si el motor creó el pool y por lo tanto debe apagarlo.
+     */
+    private final boolean ownsPool;
+    /**
+     * Indica si el motor ya fue cerrado.
+     */
+    private volatile boolean closed;
+    /**
+     * Métricas de ejecución, o null mientras estén desactivadas.
+     */
+    private volatile ReciprocalSumMetrics metrics;
+
+    /**
+     * Recupera el motor compartido por los métodos estáticos de
+     * ReciprocalArraySum y ParallelDoubleReducer. Su pool sólo se crea la
+     * primera vez que se necesita y vive mientras viva la aplicación; sus
+     * hilos son daemon, por lo que no impiden que la JVM termine.
+     *
+     * @return El motor compartido
+     */
+    static ReciprocalSumEngine shared() {
+        return SharedEngine.INSTANCE;
+    }
+
+    /**
+     * Constructor. Crea un pool propio con un hilo por procesador disponible.
+     */
+    public ReciprocalSumEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor. Crea un pool propio con el paralelismo indicado.
+     *
+     * @param parallelism Número de hilos trabajadores del pool
+     */
+    public ReciprocalSumEngine(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+                    "El paralelismo debe ser positivo: " + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.executor = null;
+        this.ownsPool = true;
+    }
+
+    /**
+     * Constructor. Usa un pool provisto por quien llama; close() no lo apaga.
+     *
+     * @param setPool Pool ForkJoin a reutilizar
+     */
+    public ReciprocalSumEngine(final ForkJoinPool setPool) {
+        if (setPool == null) {
+            throw new NullPointerException("pool");
+        }
+        this.pool = setPool;
+        this.executor = null;
+        this.ownsPool = false;
+    }
+
+    /**
+     * Constructor. Usa un Executor provisto por quien llama; close() no lo
+     * apaga. Si el Executor es un ForkJoinPool se usa directamente como pool.
+     *
+     * @param setExecutor Executor a reutilizar
+     */
+    public ReciprocalSumEngine(final Executor setExecutor) {
+        if (setExecutor == null) {
+            throw new NullPointerException("executor");
+        }
+        if (setExecutor instanceof ForkJoinPool) {
+            this.pool = (ForkJoinPool) setExecutor;
+            this.executor = null;
+        } else {
+            this.pool = null;
+            this.executor = setExecutor;
+        }
+        this.ownsPool = false;
+    }
+
+    /**
+     * Calcula la suma de los recíprocos usando dos tareas en paralelo.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final double[] input) {
+        return sum(input, 2);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos dividiendo el arreglo en numTasks
+     * secciones (chunks) que se ejecutan en paralelo.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final double[] input, final int numTasks) {
+        return sum(input, numTasks, SplitMode.FLAT);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos con el modo de división indicado. En
+     * modo RECURSIVE el tamaño de grano se deriva de numTasks y del tamaño del
+     * arreglo.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @param mode     Modo de división del trabajo
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final double[] input, final int numTasks,
+            final SplitMode mode) {
+        return reduce(input, ParallelDoubleReducer.reciprocalSum(), numTasks, mode);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos partiendo el arreglo recursivamente
+     * por mitades hasta que cada rango tenga a lo sumo grainSize elementos.
+     *
+     * @param input     Arreglo de entrada
+     * @param grainSize Tamaño máximo de cada hoja
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sumRecursive(final double[] input, final int grainSize) {
+        return reduceRecursive(input, ParallelDoubleReducer.reciprocalSum(),
+                grainSize);
+    }
+
+    /**
+     * Calcula en paralelo una reducción map-reduce dividiendo el arreglo en
+     * numTasks secciones (chunks).
+     *
+     * @param input    Arreglo de entrada
+     * @param reducer  Reducción a calcular
+     * @param numTasks El número de tareas para crear
+     * @return El resultado de la reducción
+     */
+    public double reduce(final double[] input, final ParallelDoubleReducer reducer,
+            final int numTasks) {
+        return reduce(input, reducer, numTasks, SplitMode.FLAT);
+    }
+
+    /**
+     * Calcula en paralelo una reducción map-reduce con el modo de división
+     * indicado. En modo RECURSIVE el tamaño de grano se deriva de numTasks y
+     * del tamaño del arreglo.
+     *
+     * @param input    Arreglo de entrada
+     * @param reducer  Reducción a calcular
+     * @param numTasks El número de tareas para crear
+     * @param mode     Modo de división del trabajo
+     * @return El resultado de la reducción
+     */
+    public double reduce(final double[] input, final ParallelDoubleReducer reducer,
+            final int numTasks, final SplitMode mode) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+        if (mode == SplitMode.RECURSIVE) {
+            return reduceRecursive(input, reducer,
+                    ReciprocalArraySum.getGrainSize(numTasks, input.length));
+        }
+        ensureOpen();
+
+        if (pool != null) {
+            final ReciprocalSumMetrics.Call call = startCall();
+            return invokeTask(new ReciprocalArraySum.ReciprocalArraySumTask(0,
+                    input.length, input, numTasks, 0, reducer, call), call);
+        }
+        return reduceOnExecutor(input, reducer, numTasks);
+    }
+
+    /**
+     * Calcula en paralelo una reducción map-reduce partiendo el arreglo
+     * recursivamente por mitades hasta que cada rango tenga a lo sumo
+     * grainSize elementos. Sobre un Executor genérico, que no roba trabajo,
+     * se usan tantas secciones planas como hojas tendría el árbol.
+     *
+     * @param input     Arreglo de entrada
+     * @param reducer   Reducción a calcular
+     * @param grainSize Tamaño máximo de cada hoja
+     * @return El resultado de la reducción
+     */
+    public double reduceRecursive(final double[] input,
+            final ParallelDoubleReducer reducer, final int grainSize) {
+        if (grainSize <= 0) {
+            throw new IllegalArgumentException(
+                    "El tamaño de grano debe ser positivo: " + grainSize);
+        }
+        ensureOpen();
+
+        if (pool != null) {
+            final ReciprocalSumMetrics.Call call = startCall();
+            return invokeTask(new ReciprocalArraySum.ReciprocalArraySumTask(0,
+                    input.length, input, 0, grainSize, reducer, call), call);
+        }
+        return reduceOnExecutor(input, reducer, Math.max(1,
+                ReciprocalArraySum.getChunkSize(grainSize, input.length)));
+    }
+
+    /**
+     * Ejecuta cada sección como una tarea independiente sobre el Executor
+     * genérico y combina los resultados en orden de sección.
+     *
+     * @param input    Arreglo de entrada
+     * @param reducer  Reducción a calcular
+     * @param numTasks El número de secciones
+     * @return El resultado de la reducción
+     */
+    private double reduceOnExecutor(final double[] input,
+            final ParallelDoubleReducer reducer, final int numTasks) {
+        final double[] partials = new double[numTasks];
+
+        forEachChunk(numTasks, (long) input.length * Double.BYTES,
+                chunk -> partials[chunk] = reducer.seqReduce(input,
+                ReciprocalArraySum.getChunkStartInclusive(chunk, numTasks, input.length),
+                ReciprocalArraySum.getChunkEndExclusive(chunk, numTasks, input.length)));
+
+        double result = reducer.identity();
+        for (double partial : partials) {
+            result = reducer.combine(result, partial);
+        }
+        return result;
+    }
+
+    /**
+     * Calcula la suma de los recíprocos partiendo el arreglo recursivamente
+     * con un tamaño de grano derivado del paralelismo del motor.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sumRecursive(final double[] input) {
+        return sum(input, getParallelism(), SplitMode.RECURSIVE);
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un arreglo segmentado. Las secciones
+     * se calculan con índices long y pueden cruzar límites de segmento sin
+     * copiar datos.
+     *
+     * @param input    Arreglo segmentado de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final BigDoubleArray input, final int numTasks) {
+        return sumChunks(input.length(), Double.BYTES, numTasks,
+                (from, to) -> ReciprocalKernel.sum(input, from, to));
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de los elementos restantes de un
+     * DoubleBuffer (desde position hasta limit) sin copiarlos al heap. Sirve
+     * para buffers directos y mapeados; no modifica la posición del buffer.
+     *
+     * @param input    Buffer de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del buffer de entrada
+     */
+    public double sum(final DoubleBuffer input, final int numTasks) {
+        final DoubleBuffer view = input.slice();
+        return sumChunks(view.remaining(), Double.BYTES, numTasks,
+                (from, to) -> ReciprocalKernel.sum(view, (int) from, (int) to));
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un arreglo de floats acumulando en
+     * double. Lee la mitad de bytes que la versión double[], lo que en un
+     * ciclo limitado por el ancho de banda de memoria se traduce en casi el
+     * doble de rendimiento.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final float[] input, final int numTasks) {
+        return sumChunks(input.length, Float.BYTES, numTasks,
+                (from, to) -> ReciprocalKernel.sum(input, (int) from, (int) to));
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de los elementos restantes de un
+     * FloatBuffer (desde position hasta limit) acumulando en double, sin
+     * copiarlos al heap ni modificar la posición del buffer.
+     *
+     * @param input    Buffer de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del buffer de entrada
+     */
+    public double sum(final FloatBuffer input, final int numTasks) {
+        final FloatBuffer view = input.slice();
+        return sumChunks(view.remaining(), Float.BYTES, numTasks,
+                (from, to) -> ReciprocalKernel.sum(view, (int) from, (int) to));
+    }
+
+    /**
+     * Suma de los recíprocos de un rango [from, to) de una entrada.
+     */
+    @FunctionalInterface
+    private interface RangeSum {
+        /**
+         * Calcula la suma de los recíprocos de un rango.
+         *
+         * @param from Índice inicial inclusivo
+         * @param to   Índice final exclusivo
+         * @return La suma de los recíprocos del rango
+         */
+        double sum(long from, long to);
+    }
+
+    /**
+     * Reparte nElements índices en min(numTasks, nElements) secciones del
+     * mismo tamaño, calcula cada sección en paralelo con kernel y suma los
+     * parciales en orden de sección.
+     *
+     * @param nElements    Número de elementos de la entrada
+     * @param elementBytes Bytes de cada elemento, para las métricas
+     * @param numTasks     El número de tareas para crear
+     * @param kernel       Suma de los recíprocos de un rango de la entrada
+     * @return La suma de los recíprocos de la entrada
+     */
+    private double sumChunks(final long nElements, final int elementBytes,
+            final int numTasks, final RangeSum kernel) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+
+        final int nChunks = (int) Math.max(1, Math.min(numTasks, nElements));
+        final double[] partials = new double[nChunks];
+
+        forEachChunk(nChunks, nElements * elementBytes,
+                chunk -> partials[chunk] = kernel.sum(
+                ReciprocalArraySum.getChunkStartInclusive((long) chunk, nChunks, nElements),
+                ReciprocalArraySum.getChunkEndExclusive((long) chunk, nChunks, nElements)));
+
+        double sum = 0;
+        for (double partial : partials) {
+            sum += partial;
+        }
+        return sum;
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de un archivo de doubles crudos con
+     * el orden de bytes indicado. El archivo se mapea en ventanas de
+     * REGION_BYTES y cada ventana se procesa en paralelo, por lo que se pueden
+     * sumar archivos más grandes que el heap sin copiarlos.
+     *
+     * @param file     Archivo de doubles crudos
+     * @param order    Orden de bytes de los doubles del archivo
+     * @param numTasks El número de tareas para crear por ventana
+     * @return La suma de los recíprocos del archivo
+     * @throws IOException Si el archivo no se puede leer o su tamaño no es
+     *                     múltiplo de 8 bytes
+     */
+    public double sumFile(final Path file, final ByteOrder order,
+            final int numTasks) throws IOException {
+        return sumFile(file, order, numTasks, REGION_BYTES);
+    }
+
+    /**
+     * Igual que sumFile(Path, ByteOrder, int) con un tamaño de ventana
+     * explícito.
+     *
+     * @param file        Archivo de doubles crudos
+     * @param order       Orden de bytes de los doubles del archivo
+     * @param numTasks    El número de tareas para crear por ventana
+     * @param regionBytes Tamaño de cada ventana, múltiplo de 8
+     * @return La suma de los recíprocos del archivo
+     * @throws IOException Si el archivo no se puede leer
+     */
+    double sumFile(final Path file, final ByteOrder order, final int numTasks,
+            final long regionBytes) throws IOException {
+        if (regionBytes <= 0 || regionBytes % Double.BYTES != 0
+                || regionBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Tamaño de ventana inválido: " + regionBytes);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size % Double.BYTES != 0) {
+                throw new IOException("El tamaño de " + file
+                        + " no es múltiplo de " + Double.BYTES + " bytes: " + size);
+            }
+
+            double sum = 0;
+            for (long offset = 0; offset < size; offset += regionBytes) {
+                final long length = Math.min(regionBytes, size - offset);
+                final DoubleBuffer window = channel
+                        .map(FileChannel.MapMode.READ_ONLY, offset, length)
+                        .order(order)
+                        .asDoubleBuffer();
+                sum += sum(window, numTasks);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Calcula la suma de los recíprocos de cada arreglo de un lote en una sola
+     * pasada paralela.
+     *
+     * @param inputs   Arreglos de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos de cada arreglo, en el mismo orden
+     */
+    public double[] sumBatch(final double[][] inputs, final int numTasks) {
+        return reduceBatch(inputs, ParallelDoubleReducer.reciprocalSum(), numTasks);
+    }
+
+    /**
+     * Calcula una reducción sobre cada arreglo de un lote en una sola pasada
+     * paralela. Los arreglos pequeños se empacan juntos en unidades de trabajo
+     * balanceadas y los grandes se parten entre varias unidades, de modo que
+     * miles de arreglos pequeños no pagan cada uno el costo de un fork/join.
+     *
+     * @param inputs   Arreglos de entrada
+     * @param reducer  Reducción a calcular
+     * @param numTasks El número de tareas para crear
+     * @return El resultado de la reducción de cada arreglo, en el mismo orden
+     */
+    public double[] reduceBatch(final double[][] inputs,
+            final ParallelDoubleReducer reducer, final int numTasks) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+
+        long total = 0;
+        for (double[] input : inputs) {
+            total += input.length;
+        }
+        final int unitSize = (int) Math.min(Integer.MAX_VALUE, Math.max(
+                ReciprocalArraySum.MIN_GRAIN_SIZE,
+                ReciprocalArraySum.getChunkSize(
+                        (long) numTasks * ReciprocalArraySum.LEAVES_PER_TASK, total)));
+        final BatchPlan plan = new BatchPlan(inputs, unitSize);
+        final double[] pieceResults = new double[plan.pieceCount];
+
+        if (plan.unitCount > 0) {
+            forEachChunk(plan.unitCount, total * Double.BYTES, unit -> {
+                for (int p = plan.unitStarts[unit]; p < plan.unitStarts[unit + 1]; p++) {
+                    pieceResults[p] = reducer.seqReduce(inputs[plan.pieceArrays[p]],
+                            plan.pieceFrom[p], plan.pieceTo[p]);
+                }
+            });
+        }
+
+        final double[] results = new double[inputs.length];
+        Arrays.fill(results, reducer.identity());
+        for (int p = 0; p < plan.pieceCount; p++) {
+            final int a = plan.pieceArrays[p];
+            results[a] = reducer.combine(results[a], pieceResults[p]);
+        }
+        return results;
+    }
+
+    /**
+     * Reparto de un lote de arreglos en unidades de trabajo. Cada unidad
+     * agrupa piezas (rangos de un arreglo) consecutivas hasta sumar unitSize
+     * elementos; un arreglo más grande que el espacio libre de la unidad se
+     * parte en varias piezas.
+     */
+    private static final class BatchPlan {
+        /**
+         * Número de piezas.
+         */
+        private int pieceCount;
+        /**
+         * Arreglo al que pertenece cada pieza.
+         */
+        private int[] pieceArrays;
+        /**
+         * Índice inicial inclusivo de cada pieza.
+         */
+        private int[] pieceFrom;
+        /**
+         * Índice final exclusivo de cada pieza.
+         */
+        private int[] pieceTo;
+        /**
+         * Número de unidades de trabajo.
+         */
+        private int unitCount;
+        /**
+         * Primera pieza de cada unidad; tiene un elemento extra al final.
+         */
+        private int[] unitStarts;
+
+        /**
+         * Constructor.
+         *
+         * @param inputs   Arreglos del lote
+         * @param unitSize Número de elementos por unidad de trabajo
+         */
+        BatchPlan(final double[][] inputs, final int unitSize) {
+            final int capacity = inputs.length + 16;
+            pieceArrays = new int[capacity];
+            pieceFrom = new int[capacity];
+            pieceTo = new int[capacity];
+            unitStarts = new int[16];
+
+            int fill = 0;
+            for (int a = 0; a < inputs.length; a++) {
+                int from = 0;
+                final int length = inputs[a].length;
+                while (from < length) {
+                    if (fill == 0) {
+                        startUnit();
+                    }
+                    final int to = (int) Math.min(length, (long) from + unitSize - fill);
+                    addPiece(a, from, to);
+                    fill += to - from;
+                    if (fill == unitSize) {
+                        fill = 0;
+                    }
+                    from = to;
+                }
+            }
+            unitStarts[unitCount] = pieceCount;
+        }
+
+        /**
+         * Abre una nueva unidad de trabajo que comienza en la siguiente pieza.
+         */
+        private void startUnit() {
+            if (unitCount + 1 >= unitStarts.length) {
+                unitStarts = Arrays.copyOf(unitStarts, unitStarts.length * 2);
+            }
+            unitStarts[unitCount++] = pieceCount;
+        }
+
+        /**
+         * Agrega una pieza a la unidad actual.
+         *
+         * @param array Arreglo de la pieza
+         * @param from  Índice inicial inclusivo
+         * @param to    Índice final exclusivo
+         */
+        private void addPiece(final int array, final int from, final int to) {
+            if (pieceCount == pieceArrays.length) {
+                final int grown = pieceArrays.length * 2;
+                pieceArrays = Arrays.copyOf(pieceArrays, grown);
+                pieceFrom = Arrays.copyOf(pieceFrom, grown);
+                pieceTo = Arrays.copyOf(pieceTo, grown);
+            }
+            pieceArrays[pieceCount] = array;
+            pieceFrom[pieceCount] = from;
+            pieceTo[pieceCount] = to;
+            pieceCount++;
+        }
+    }
+
+    /**
+     * Calcula en paralelo la suma acumulada (scan) de los recíprocos en dos
+     * pasadas: primero la suma de cada sección, luego un scan secuencial de
+     * esos totales (uno por sección) y por último cada sección escribe su
+     * suma acumulada partiendo del total de las secciones anteriores. in y out
+     * pueden ser el mismo arreglo.
+     *
+     * @param in        Arreglo de entrada
+     * @param out       Arreglo de salida, de la misma longitud que in
+     * @param numTasks  El número de tareas para crear
+     * @param inclusive Si out[i] incluye a 1 / in[i] (scan inclusivo) o sólo
+     *                  a los elementos anteriores (scan exclusivo)
+     */
+    public void reciprocalPrefixSum(final double[] in, final double[] out,
+            final int numTasks, final boolean inclusive) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+        if (out.length != in.length) {
+            throw new IllegalArgumentException("La salida tiene " + out.length
+                    + " elementos y la entrada " + in.length);
+        }
+
+        final int nElements = in.length;
+        final int nChunks = Math.max(1, Math.min(numTasks, nElements));
+        final double[] offsets = new double[nChunks];
+
+        // @audit-info Pasada 1: suma de los recíprocos de cada sección
+        forEachChunk(nChunks, (long) nElements * Double.BYTES,
+                chunk -> offsets[chunk] = ReciprocalKernel.sum(in,
+                ReciprocalArraySum.getChunkStartInclusive(chunk, nChunks, nElements),
+                ReciprocalArraySum.getChunkEndExclusive(chunk, nChunks, nElements)));
+
+        // @audit-info Scan exclusivo de los totales por sección
+        double running = 0;
+        for (int chunk = 0; chunk < nChunks; chunk++) {
+            final double chunkTotal = offsets[chunk];
+            offsets[chunk] = running;
+            running += chunkTotal;
+        }
+
+        // @audit-info Pasada 2: cada sección escribe su scan desde su offset
+        forEachChunk(nChunks, 2L * nElements * Double.BYTES, chunk -> {
+            final int start = ReciprocalArraySum.getChunkStartInclusive(chunk,
+                    nChunks, nElements);
+            final int end = ReciprocalArraySum.getChunkEndExclusive(chunk,
+                    nChunks, nElements);
+            double acc = offsets[chunk];
+            if (inclusive) {
+                for (int i = start; i < end; i++) {
+                    acc += 1 / in[i];
+                    out[i] = acc;
+                }
+            } else {
+                for (int i = start; i < end; i++) {
+                    final double reciprocal = 1 / in[i];
+                    out[i] = acc;
+                    acc += reciprocal;
+                }
+            }
+        });
+    }
+
+    /**
+     * Calcula la suma de los recíprocos en modo preciso: suma compensada
+     * (Neumaier) por bloques de índices fijos, combinada con un árbol fijo
+     * sobre esos bloques. El resultado es idéntico bit a bit para cualquier
+     * valor de numTasks y cualquier paralelismo del motor.
+     *
+     * @param input    Arreglo de entrada
+     * @param numTasks El número de tareas para crear
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sumPrecise(final double[] input, final int numTasks) {
+        if (numTasks <= 0) {
+            throw new IllegalArgumentException(
+                    "El número de tareas debe ser positivo: " + numTasks);
+        }
+        ensureOpen();
+
+        final int nBlocks = PreciseReciprocalSum.getBlockCount(input.length);
+        final int nChunks = Math.min(numTasks, Math.max(1, nBlocks));
+        final double[] sums = new double[nBlocks];
+        final double[] comps = new double[nBlocks];
+
+        forEachChunk(nChunks, (long) input.length * Double.BYTES,
+                chunk -> PreciseReciprocalSum.sumBlocks(input,
+                ReciprocalArraySum.getChunkStartInclusive(chunk, nChunks, nBlocks),
+                ReciprocalArraySum.getChunkEndExclusive(chunk, nChunks, nBlocks),
+                sums, comps));
+
+        return PreciseReciprocalSum.combine(sums, comps);
+    }
+
+    /**
+     * Empieza a medir una llamada si las métricas están activas.
+     *
+     * @return La medición de la llamada, o null si las métricas están
+     *         desactivadas
+     */
+    private ReciprocalSumMetrics.Call startCall() {
+        final ReciprocalSumMetrics current = metrics;
+        return current == null ? null : current.startCall();
+    }
+
+    /**
+     * Ejecuta una tarea de reducción sobre el pool y registra la llamada en
+     * las métricas, si están activas.
+     *
+     * @param task Tarea raíz de la reducción
+     * @param call Medición de la llamada, o null
+     * @return El valor calculado por la tarea
+     */
+    private double invokeTask(final ReciprocalArraySum.ReciprocalArraySumTask task,
+            final ReciprocalSumMetrics.Call call) {
+        pool.invoke(task);
+        if (call != null) {
+            call.finish((long) task.getLength() * Double.BYTES);
+        }
+        return task.getValue();
+    }
+
+    /**
+     * Ejecuta body(chunk) para cada chunk en [0, nChunks) en paralelo y
+     * espera a que todos terminen.
+     *
+     * @param nChunks Número de secciones
+     * @param body    Trabajo de cada sección
+     */
+    void forEachChunk(final int nChunks, final IntConsumer body) {
+        forEachChunk(nChunks, 0, body);
+    }
+
+    /**
+     * Igual que forEachChunk(int, IntConsumer), indicando cuántos bytes lee y
+     * escribe la llamada para reportar el ancho de banda en las métricas.
+     *
+     * @param nChunks Número de secciones
+     * @param bytes   Bytes movidos por todas las secciones, 0 si no se conocen
+     * @param body    Trabajo de cada sección
+     */
+    void forEachChunk(final int nChunks, final long bytes, final IntConsumer body) {
+        ensureOpen();
+
+        final ReciprocalSumMetrics.Call call = startCall();
+        if (call == null) {
+            runChunks(nChunks, body);
+            return;
+        }
+        runChunks(nChunks, chunk -> {
+            final long leafStart = System.nanoTime();
+            body.accept(chunk);
+            call.recordLeaf(System.nanoTime() - leafStart);
+        });
+        call.finish(bytes);
+    }
+
+    /**
+     * Ejecuta body(chunk) para cada chunk en [0, nChunks) sobre el pool o el
+     * Executor del motor y espera a que todos terminen.
+     *
+     * @param nChunks Número de secciones
+     * @param body    Trabajo de cada sección
+     */
+    private void runChunks(final int nChunks, final IntConsumer body) {
+        if (pool != null) {
+            pool.invoke(new ChunkAction(0, nChunks, body));
+            return;
+        }
+
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(nChunks);
+        for (int i = 0; i < nChunks; i++) {
+            final int chunk = i;
+            final FutureTask<Void> task = new FutureTask<Void>(
+                    () -> body.accept(chunk), null);
+            tasks.add(task);
+            executor.execute(task);
+        }
+        try {
+            for (FutureTask<Void> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una sección del cálculo",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Tarea que reparte un rango de índices de sección por mitades hasta
+     * llegar a secciones individuales.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+        /**
+         * Versión de la forma serializada; RecursiveAction es Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Primera sección inclusiva.
+         */
+        private final int from;
+        /**
+         * Última sección exclusiva.
+         */
+        private final int to;
+        /**
+         * Trabajo de cada sección.
+         */
+        private final IntConsumer body;
+
+        /**
+         * Constructor.
+         *
+         * @param setFrom Primera sección inclusiva
+         * @param setTo   Última sección exclusiva
+         * @param setBody Trabajo de cada sección
+         */
+        ChunkAction(final int setFrom, final int setTo, final IntConsumer setBody) {
+            this.from = setFrom;
+            this.to = setTo;
+            this.body = setBody;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else if (to - from > 1) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ChunkAction(from, mid, body),
+                        new ChunkAction(mid, to, body));
+            }
+        }
+    }
+
+    /**
+     * Paralelismo del pool del motor, o el número de procesadores disponibles
+     * si el motor trabaja sobre un Executor genérico.
+     *
+     * @return El paralelismo esperado
+     */
+    public int getParallelism() {
+        if (pool != null) {
+            return pool.getParallelism();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Activa las métricas de ejecución del motor. Mientras estén desactivadas
+     * (el estado inicial) el motor no mide nada; activarlas de nuevo conserva
+     * los contadores existentes.
+     *
+     * @return Las métricas activas
+     */
+    public synchronized ReciprocalSumMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ReciprocalSumMetrics(pool);
+        }
+        return metrics;
+    }
+
+    /**
+     * Desactiva las métricas de ejecución. Las llamadas en curso pueden
+     * terminar de registrarse en las métricas anteriores.
+     */
+    public synchronized void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * Recupera las métricas de ejecución del motor.
+     *
+     * @return Las métricas activas, o null si están desactivadas
+     */
+    public ReciprocalSumMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Verifica que el motor no haya sido cerrado.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("El motor ya fue cerrado");
+        }
+    }
+
+    /**
+     * Cierra el motor. Si el motor creó su propio pool, lo apaga; los pools y
+     * executors provistos por quien llama no se tocan.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Contenedor perezoso del motor compartido.
+     */
+    private static final class SharedEngine {
+        /**
+         * Motor compartido con un hilo por procesador disponible.
+         */
+        static final ReciprocalSumEngine INSTANCE = new ReciprocalSumEngine();
+
+        /**
+         * Constructor.
+         */
+        private SharedEngine() {
+        }
+    }
+}
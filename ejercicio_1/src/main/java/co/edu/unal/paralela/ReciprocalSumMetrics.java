@@ -0,0 +1,246 @@
+package co.edu.unal.paralela;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Contadores de ejecución de un ReciprocalSumEngine.
+ *
+ * Sólo existen mientras las métricas están activas: con las métricas
+ * desactivadas el motor y sus tareas sólo comparan una referencia con null, así
+ * que pueden quedar compiladas en producción. Los contadores son LongAdder
+ * para que las hojas concurrentes no compitan por una misma celda.
+ */
+public final class ReciprocalSumMetrics implements ReciprocalSumMetricsMXBean {
+    /**
+     * Pool cuyos robos y colas se reportan, o null para executors genéricos.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Número de llamadas paralelas medidas.
+     */
+    private final LongAdder calls = new LongAdder();
+    /**
+     * Tiempo total de pared de las llamadas.
+     */
+    private final LongAdder callNanos = new LongAdder();
+    /**
+     * Número de hojas ejecutadas.
+     */
+    private final LongAdder leaves = new LongAdder();
+    /**
+     * Tiempo total de las hojas.
+     */
+    private final LongAdder leafNanos = new LongAdder();
+    /**
+     * Tiempo de la hoja más lenta.
+     */
+    private final LongAccumulator maxLeafNanos = new LongAccumulator(Math::max, 0);
+    /**
+     * Bytes de entrada leídos.
+     */
+    private final LongAdder bytes = new LongAdder();
+    /**
+     * Suma de los desbalances de las llamadas con hojas.
+     */
+    private final DoubleAdder imbalanceSum = new DoubleAdder();
+    /**
+     * Número de llamadas con hojas.
+     */
+    private final LongAdder callsWithLeaves = new LongAdder();
+    /**
+     * Desbalance de la última llamada con hojas.
+     */
+    private volatile double lastImbalance;
+    /**
+     * Robos del pool durante las llamadas medidas.
+     */
+    private final LongAdder steals = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param setPool Pool cuyos robos y colas se reportan, o null
+     */
+    ReciprocalSumMetrics(final ForkJoinPool setPool) {
+        this.pool = setPool;
+    }
+
+    /**
+     * Empieza a medir una llamada.
+     *
+     * @return La medición de la llamada
+     */
+    Call startCall() {
+        return new Call();
+    }
+
+    /**
+     * Medición de una llamada paralela. Sus hojas se cuentan aparte para
+     * calcular el desbalance de esa llamada, y los robos se toman como la
+     * diferencia del contador del pool entre el inicio y el fin de la
+     * llamada.
+     */
+    final class Call {
+        /**
+         * Inicio de la llamada.
+         */
+        private final long start = System.nanoTime();
+        /**
+         * Robos del pool al iniciar la llamada.
+         */
+        private final long stealsAtStart = pool == null ? 0 : pool.getStealCount();
+        /**
+         * Número de hojas de la llamada.
+         */
+        private final LongAdder callLeaves = new LongAdder();
+        /**
+         * Tiempo total de las hojas de la llamada.
+         */
+        private final LongAdder callLeafNanos = new LongAdder();
+        /**
+         * Tiempo de la hoja más lenta de la llamada.
+         */
+        private final LongAccumulator callMaxLeafNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Constructor.
+         */
+        private Call() {
+        }
+
+        /**
+         * Registra una hoja ejecutada.
+         *
+         * @param nanos Tiempo de la hoja
+         */
+        void recordLeaf(final long nanos) {
+            callLeaves.increment();
+            callLeafNanos.add(nanos);
+            callMaxLeafNanos.accumulate(nanos);
+            leaves.increment();
+            leafNanos.add(nanos);
+            maxLeafNanos.accumulate(nanos);
+        }
+
+        /**
+         * Registra la llamada completa: su tiempo, sus bytes, su desbalance y
+         * sus robos.
+         *
+         * @param readBytes Bytes de entrada leídos, 0 si no se conocen
+         */
+        void finish(final long readBytes) {
+            calls.increment();
+            callNanos.add(System.nanoTime() - start);
+            bytes.add(readBytes);
+            if (pool != null) {
+                steals.add(pool.getStealCount() - stealsAtStart);
+            }
+            final long n = callLeaves.sum();
+            if (n > 0) {
+                final double mean = (double) callLeafNanos.sum() / n;
+                final double imbalance = mean == 0 ? 1.0 : callMaxLeafNanos.get() / mean;
+                imbalanceSum.add(imbalance);
+                callsWithLeaves.increment();
+                lastImbalance = imbalance;
+            }
+        }
+    }
+
+    /**
+     * Toma una fotografía de las métricas.
+     *
+     * @return La fotografía
+     */
+    public MetricsSnapshot snapshot() {
+        final long queued = pool == null ? 0
+                : pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+        final long imbalanced = callsWithLeaves.sum();
+        return new MetricsSnapshot(calls.sum(), callNanos.sum(), leaves.sum(),
+                leafNanos.sum(), maxLeafNanos.get(), bytes.sum(),
+                imbalanced == 0 ? 0 : imbalanceSum.sum() / imbalanced,
+                lastImbalance, steals.sum(), queued);
+    }
+
+    /**
+     * Registra estas métricas en el servidor JMX de la plataforma.
+     *
+     * @param name Nombre que distingue a este motor
+     * @return El nombre JMX registrado
+     * @throws JMException Si el registro falla
+     */
+    public ObjectName registerMBean(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName(
+                "co.edu.unal.paralela:type=ReciprocalSumEngine,name="
+                        + ObjectName.quote(name));
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getCalls() {
+        return snapshot().getCalls();
+    }
+
+    @Override
+    public long getLeaves() {
+        return snapshot().getLeaves();
+    }
+
+    @Override
+    public double getMeanLeafNanos() {
+        return snapshot().getMeanLeafNanos();
+    }
+
+    @Override
+    public long getMaxLeafNanos() {
+        return snapshot().getMaxLeafNanos();
+    }
+
+    @Override
+    public double getLoadImbalance() {
+        return snapshot().getLoadImbalance();
+    }
+
+    @Override
+    public double getLastLoadImbalance() {
+        return snapshot().getLastLoadImbalance();
+    }
+
+    @Override
+    public long getStealCount() {
+        return snapshot().getStealCount();
+    }
+
+    @Override
+    public long getQueuedTasks() {
+        return snapshot().getQueuedTasks();
+    }
+
+    @Override
+    public double getBandwidthGBps() {
+        return snapshot().getBandwidthGBps();
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        callNanos.reset();
+        leaves.reset();
+        leafNanos.reset();
+        maxLeafNanos.reset();
+        bytes.reset();
+        imbalanceSum.reset();
+        callsWithLeaves.reset();
+        lastImbalance = 0;
+        steals.reset();
+    }
+}
@@ -0,0 +1,77 @@
+package co.edu.unal.paralela;
+
+/**
+ * Interfaz JMX de las métricas de un ReciprocalSumEngine. Cada atributo se
+ * calcula a partir de una fotografía (MetricsSnapshot) tomada al leerlo.
+ */
+public interface ReciprocalSumMetricsMXBean {
+    /**
+     * Recupera el número de llamadas paralelas medidas.
+     *
+     * @return El número de llamadas
+     */
+    long getCalls();
+
+    /**
+     * Recupera el número de hojas (secciones) ejecutadas.
+     *
+     * @return El número de hojas
+     */
+    long getLeaves();
+
+    /**
+     * Recupera el tiempo medio de una hoja.
+     *
+     * @return El tiempo medio en nanosegundos
+     */
+    double getMeanLeafNanos();
+
+    /**
+     * Recupera el tiempo de la hoja más lenta.
+     *
+     * @return El tiempo máximo en nanosegundos
+     */
+    long getMaxLeafNanos();
+
+    /**
+     * Recupera el desbalance de carga promedio por llamada: en cada llamada,
+     * la hoja más lenta dividida por la media de sus hojas.
+     *
+     * @return El índice de desbalance (1 es perfecto)
+     */
+    double getLoadImbalance();
+
+    /**
+     * Recupera el desbalance de carga de la última llamada.
+     *
+     * @return El índice de desbalance (1 es perfecto)
+     */
+    double getLastLoadImbalance();
+
+    /**
+     * Recupera los robos de trabajo del pool durante las llamadas medidas,
+     * incluidos los de otro trabajo concurrente si el pool es compartido.
+     *
+     * @return El número de robos
+     */
+    long getStealCount();
+
+    /**
+     * Recupera las tareas encoladas en el pool en este momento.
+     *
+     * @return La profundidad de las colas
+     */
+    long getQueuedTasks();
+
+    /**
+     * Recupera el ancho de banda alcanzado por las llamadas medidas.
+     *
+     * @return El ancho de banda en GB/s
+     */
+    double getBandwidthGBps();
+
+    /**
+     * Reinicia los contadores.
+     */
+    void reset();
+}
@@ -0,0 +1,345 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ajuste automático del paralelismo de la suma de recíprocos.
+ *
+ * El mejor número de tareas depende del tamaño del arreglo, de los cachés y de
+ * la carga de la máquina, así que en lugar de pedirlo a quien llama el
+ * afinador lo mide. La primera vez que ve un arreglo de cierto tamaño (por
+ * potencias de 2) ejecuta pruebas cortas sobre los primeros PROBE_ELEMENTS
+ * elementos de esa misma entrada: la versión secuencial y la división
+ * recursiva con distintos números de hilos y de hojas por hilo. La
+ * configuración más rápida queda guardada para ese tamaño; si gana la
+ * secuencial, los arreglos de ese tamaño ya no pagan el costo del fork/join.
+ *
+ * Cada número de hilos menor que el paralelismo del motor se ejecuta sobre un
+ * motor propio del afinador con exactamente ese número de hilos, que se crea
+ * la primera vez que se necesita y se apaga con close().
+ */
+public final class ReciprocalSumTuner implements AutoCloseable {
+    /**
+     * Hojas por hilo que se prueban con la división recursiva.
+     */
+    static final int[] CANDIDATE_LEAVES_PER_THREAD = {1, 2, 4, 8, 16};
+    /**
+     * Número máximo de elementos de cada prueba. Los arreglos mayores se
+     * calibran sobre una copia de sus primeros PROBE_ELEMENTS elementos
+     * (32 MB), que ya no caben en el caché, así que la prueba sigue midiendo
+     * el régimen limitado por memoria sin recorrer toda la entrada.
+     */
+    static final int PROBE_ELEMENTS = 1 << 22;
+    /**
+     * Número de veces que se mide cada candidato; se conserva el mejor
+     * tiempo para descartar la primera ejecución (en frío) y el ruido.
+     */
+    static final int PROBE_REPEATS = 3;
+    /**
+     * Tamaño de grano mínimo que se permite al derivar la configuración.
+     */
+    static final int MIN_TUNED_GRAIN = 4096;
+
+    /**
+     * Configuración elegida para un rango de tamaños.
+     */
+    public static final class Tuning {
+        /**
+         * Número de hilos entre los que se reparte la suma, 1 si la versión
+         * secuencial fue la más rápida.
+         */
+        private final int parallelism;
+        /**
+         * Hojas por hilo de la división recursiva, o 0 si la versión
+         * secuencial fue la más rápida.
+         */
+        private final int leavesPerThread;
+
+        /**
+         * Constructor.
+         *
+         * @param setParallelism     Número de hilos, 1 para secuencial
+         * @param setLeavesPerThread Hojas por hilo, o 0 para secuencial
+         */
+        Tuning(final int setParallelism, final int setLeavesPerThread) {
+            this.parallelism = setParallelism;
+            this.leavesPerThread = setLeavesPerThread;
+        }
+
+        /**
+         * Indica si el rango de tamaños está por debajo del punto de
+         * equilibrio y conviene la versión secuencial.
+         *
+         * @return verdadero si se usa la versión secuencial
+         */
+        public boolean isSequential() {
+            return leavesPerThread == 0;
+        }
+
+        /**
+         * Recupera el número de hojas por hilo elegido.
+         *
+         * @return Hojas por hilo, o 0 si se usa la versión secuencial
+         */
+        public int getLeavesPerThread() {
+            return leavesPerThread;
+        }
+
+        /**
+         * Recupera el número de hilos elegido.
+         *
+         * @return Número de hilos entre los que se reparte la suma, 1 si se
+         *         usa la versión secuencial
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Calcula el tamaño de grano para un arreglo concreto: el arreglo se
+         * parte en getParallelism() * getLeavesPerThread() hojas, que se
+         * ejecutan con getParallelism() hilos.
+         *
+         * @param nElements El número de elementos
+         * @return El tamaño de grano
+         */
+        public int getGrainSize(final int nElements) {
+            if (isSequential()) {
+                return Math.max(1, nElements);
+            }
+            return Math.max(MIN_TUNED_GRAIN, ReciprocalArraySum.getChunkSize(
+                    parallelism * leavesPerThread, nElements));
+        }
+    }
+
+    /**
+     * Motor sobre el que se ejecutan las sumas.
+     */
+    private final ReciprocalSumEngine engine;
+    /**
+     * Configuración elegida por rango de tamaños (clave: bits de la longitud).
+     */
+    private final ConcurrentMap<Integer, Tuning> tunings =
+            new ConcurrentHashMap<Integer, Tuning>();
+    /**
+     * Motores propios del afinador, uno por cada número de hilos menor que
+     * el paralelismo del motor principal.
+     */
+    private final ConcurrentMap<Integer, ReciprocalSumEngine> engines =
+            new ConcurrentHashMap<Integer, ReciprocalSumEngine>();
+
+    /**
+     * Constructor.
+     *
+     * @param setEngine Motor sobre el que se ejecutan las sumas
+     */
+    public ReciprocalSumTuner(final ReciprocalSumEngine setEngine) {
+        if (setEngine == null) {
+            throw new NullPointerException("engine");
+        }
+        this.engine = setEngine;
+    }
+
+    /**
+     * Recupera el afinador compartido, que trabaja sobre el motor compartido.
+     *
+     * @return El afinador compartido
+     */
+    static ReciprocalSumTuner shared() {
+        return SharedTuner.INSTANCE;
+    }
+
+    /**
+     * Calcula la suma de los recíprocos con la configuración elegida para el
+     * tamaño del arreglo, calibrándola si es la primera vez.
+     *
+     * @param input Arreglo de entrada
+     * @return La suma de los recíprocos del arreglo de entrada
+     */
+    public double sum(final double[] input) {
+        final Tuning tuning = getTuning(input);
+        if (tuning.isSequential()) {
+            return ReciprocalKernel.sum(input, 0, input.length);
+        }
+        return engineFor(tuning.getParallelism()).sumRecursive(input,
+                tuning.getGrainSize(input.length));
+    }
+
+    /**
+     * Recupera la configuración elegida para arreglos del tamaño de input,
+     * calibrándola sobre input si todavía no existe. La calibración corre
+     * fuera del mapa para no bloquear a otros hilos; si dos hilos calibran el
+     * mismo rango a la vez, ambos usan la primera configuración guardada.
+     *
+     * @param input Arreglo de entrada
+     * @return La configuración elegida
+     */
+    public Tuning getTuning(final double[] input) {
+        final int bucket = sizeBucket(input.length);
+        final Tuning known = tunings.get(bucket);
+        if (known != null) {
+            return known;
+        }
+        final Tuning calibrated = calibrate(input);
+        final Tuning previous = tunings.putIfAbsent(bucket, calibrated);
+        return previous == null ? calibrated : previous;
+    }
+
+    /**
+     * Olvida todas las configuraciones, por ejemplo si cambió la carga de la
+     * máquina.
+     */
+    public void reset() {
+        tunings.clear();
+    }
+
+    /**
+     * Apaga los motores propios del afinador. El motor recibido en el
+     * constructor no se cierra.
+     */
+    @Override
+    public void close() {
+        for (ReciprocalSumEngine owned : engines.values()) {
+            owned.close();
+        }
+        engines.clear();
+    }
+
+    /**
+     * Recupera el motor que ejecuta las sumas con un número de hilos dado:
+     * el motor principal si es su paralelismo, o uno propio con exactamente
+     * ese número de hilos.
+     *
+     * @param parallelism Número de hilos
+     * @return El motor
+     */
+    ReciprocalSumEngine engineFor(final int parallelism) {
+        if (parallelism >= engine.getParallelism()) {
+            return engine;
+        }
+        return engines.computeIfAbsent(parallelism, ReciprocalSumEngine::new);
+    }
+
+    /**
+     * Calcula el rango de tamaños de un arreglo: el número de bits de su
+     * longitud, es decir su potencia de 2.
+     *
+     * @param nElements El número de elementos
+     * @return El rango de tamaños
+     */
+    static int sizeBucket(final int nElements) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(nElements);
+    }
+
+    /**
+     * Mide los candidatos sobre los primeros PROBE_ELEMENTS elementos de
+     * input y elige el más rápido. Se prueban todos los números de hilos
+     * potencia de 2 menores que el paralelismo del motor, más el paralelismo
+     * del motor, con cada número de hojas por hilo; para un mismo número de
+     * hilos, los candidatos que dan el mismo tamaño de grano se miden una
+     * sola vez.
+     *
+     * @param input Arreglo de entrada
+     * @return La configuración elegida
+     */
+    private Tuning calibrate(final double[] input) {
+        final double[] probe = input.length <= PROBE_ELEMENTS ? input
+                : Arrays.copyOf(input, PROBE_ELEMENTS);
+
+        long bestTime = timeSequential(probe);
+        Tuning best = new Tuning(1, 0);
+        for (int parallelism : candidateParallelism(engine.getParallelism())) {
+            final ReciprocalSumEngine candidateEngine = engineFor(parallelism);
+            int lastGrain = 0;
+            for (int leaves : CANDIDATE_LEAVES_PER_THREAD) {
+                final Tuning candidate = new Tuning(parallelism, leaves);
+                final int grain = candidate.getGrainSize(probe.length);
+                // @audit-info Con más hojas el grano sólo baja, así que un
+                // grano repetido es igual al del candidato anterior
+                if (grain == lastGrain || grain >= probe.length) {
+                    continue;
+                }
+                lastGrain = grain;
+                final long time = timeRecursive(candidateEngine, probe, grain);
+                if (time < bestTime) {
+                    bestTime = time;
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Números de hilos que se prueban: las potencias de 2 desde 2 menores que
+     * maxParallelism, y maxParallelism.
+     *
+     * @param maxParallelism El paralelismo del motor
+     * @return Los números de hilos, vacío si maxParallelism es 1
+     */
+    static int[] candidateParallelism(final int maxParallelism) {
+        final int[] candidates = new int[Integer.SIZE];
+        int n = 0;
+        for (int p = 2; p < maxParallelism; p *= 2) {
+            candidates[n++] = p;
+        }
+        if (maxParallelism > 1) {
+            candidates[n++] = maxParallelism;
+        }
+        return Arrays.copyOf(candidates, n);
+    }
+
+    /**
+     * Mide el mejor tiempo de la versión secuencial.
+     *
+     * @param probe Arreglo de prueba
+     * @return El mejor tiempo en nanosegundos
+     */
+    private long timeSequential(final double[] probe) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < PROBE_REPEATS; r++) {
+            final long start = System.nanoTime();
+            ReciprocalKernel.sum(probe, 0, probe.length);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Mide el mejor tiempo de la división recursiva con un grano dado.
+     *
+     * @param candidateEngine Motor con el número de hilos del candidato
+     * @param probe           Arreglo de prueba
+     * @param grain           Tamaño de grano
+     * @return El mejor tiempo en nanosegundos
+     */
+    private long timeRecursive(final ReciprocalSumEngine candidateEngine,
+            final double[] probe, final int grain) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < PROBE_REPEATS; r++) {
+            final long start = System.nanoTime();
+            candidateEngine.sumRecursive(probe, grain);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Contenedor perezoso del afinador compartido.
+     */
+    private static final class SharedTuner {
+        /**
+         * Afinador sobre el motor compartido.
+         */
+        static final ReciprocalSumTuner INSTANCE =
+                new ReciprocalSumTuner(ReciprocalSumEngine.shared());
+
+        /**
+         * Constructor.
+         */
+        private SharedTuner() {
+        }
+    }
+}
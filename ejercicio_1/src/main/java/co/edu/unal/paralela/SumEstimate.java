@@ -0,0 +1,127 @@
+package co.edu.unal.paralela;
+
+/**
+ * Estimación de una suma con su intervalo de confianza, producida por
+ * ApproximateReciprocalSum.
+ */
+public final class SumEstimate {
+    /**
+     * Cuantil de la normal estándar para un intervalo de confianza del 95%.
+     */
+    public static final double Z_95 = 1.959963984540054;
+
+    /**
+     * Valor estimado de la suma.
+     */
+    private final double estimate;
+    /**
+     * Error estándar de la estimación.
+     */
+    private final double standardError;
+    /**
+     * Número de elementos leídos para producir la estimación.
+     */
+    private final long sampledElements;
+    /**
+     * Número total de elementos de la entrada.
+     */
+    private final long totalElements;
+
+    /**
+     * Constructor.
+     *
+     * @param setEstimate        Valor estimado de la suma
+     * @param setStandardError   Error estándar de la estimación
+     * @param setSampledElements Número de elementos leídos
+     * @param setTotalElements   Número total de elementos
+     */
+    SumEstimate(final double setEstimate, final double setStandardError,
+            final long setSampledElements, final long setTotalElements) {
+        this.estimate = setEstimate;
+        this.standardError = setStandardError;
+        this.sampledElements = setSampledElements;
+        this.totalElements = setTotalElements;
+    }
+
+    /**
+     * Recupera el valor estimado de la suma.
+     *
+     * @return El valor estimado
+     */
+    public double getEstimate() {
+        return estimate;
+    }
+
+    /**
+     * Recupera el error estándar de la estimación.
+     *
+     * @return El error estándar, 0 si la suma es exacta
+     */
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * Recupera el límite inferior del intervalo de confianza del 95%.
+     *
+     * @return El límite inferior
+     */
+    public double getLowerBound() {
+        return estimate - Z_95 * standardError;
+    }
+
+    /**
+     * Recupera el límite superior del intervalo de confianza del 95%.
+     *
+     * @return El límite superior
+     */
+    public double getUpperBound() {
+        return estimate + Z_95 * standardError;
+    }
+
+    /**
+     * Recupera el error relativo del intervalo: la mitad de su ancho dividida
+     * por el valor estimado.
+     *
+     * @return El error relativo, 0 si la suma es exacta
+     */
+    public double getRelativeError() {
+        if (standardError == 0) {
+            return 0;
+        }
+        return Z_95 * standardError / Math.abs(estimate);
+    }
+
+    /**
+     * Recupera el número de elementos leídos.
+     *
+     * @return El número de elementos leídos
+     */
+    public long getSampledElements() {
+        return sampledElements;
+    }
+
+    /**
+     * Recupera el número total de elementos de la entrada.
+     *
+     * @return El número total de elementos
+     */
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Indica si se leyeron todos los elementos, es decir si la suma es exacta.
+     *
+     * @return verdadero si la suma es exacta
+     */
+    public boolean isExact() {
+        return sampledElements == totalElements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%f [%f, %f] (%d de %d elementos)", estimate,
+                getLowerBound(), getUpperBound(), sampledElements, totalElements);
+    }
+}
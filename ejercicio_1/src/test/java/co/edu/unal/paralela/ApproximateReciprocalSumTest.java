@@ -0,0 +1,132 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ApproximateReciprocalSumTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Prueba que la estimación por fracción cae dentro de su intervalo de
+     * confianza y lee aproximadamente la fracción pedida.
+     */
+    public void testSampleFraction() {
+        final double[] input = createArray(5_000_123);
+        final double correct = seqArraySum(input);
+
+        final SumEstimate estimate = ReciprocalArraySum.parApproximateArraySum(input, 0.05);
+        assertFalse(estimate.isExact());
+        assertTrue(estimate.toString(), estimate.getLowerBound() <= correct);
+        assertTrue(estimate.toString(), estimate.getUpperBound() >= correct);
+        assertTrue(estimate.getSampledElements() < input.length / 10);
+        assertEquals(input.length, estimate.getTotalElements());
+    }
+
+    /**
+     * Prueba que el modo progresivo se detiene al cumplir el error relativo y
+     * que con fracción 1 la suma es exacta.
+     */
+    public void testProgressiveRefinement() {
+        final double[] input = createArray(5_000_123);
+        final double correct = seqArraySum(input);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            final ApproximateReciprocalSum approx = new ApproximateReciprocalSum(engine, 42);
+
+            final SumEstimate estimate = approx.estimate(input, 10_000, 0.01);
+            assertTrue(estimate.toString(), estimate.getRelativeError() <= 0.01);
+            assertEquals(correct, estimate.getEstimate(), correct * 0.03);
+
+            final SumEstimate exact = approx.estimate(input, 1.0);
+            assertTrue(exact.isExact());
+            assertEquals(0.0, exact.getStandardError());
+            assertEquals(correct, exact.getEstimate(), 1E-2);
+        }
+    }
+
+    /**
+     * Prueba el modo con plazo, sin error objetivo, con un reloj que avanza un
+     * milisegundo por lectura: las rondas se duplican mientras caben en
+     * DEADLINE_FILL del tiempo restante, luego se recortan, y el muestreo se
+     * detiene en cuanto no cabe ni un bloque.
+     */
+    public void testDeadlineRoundSizing() {
+        final double[] input = createArray(2_000_000);
+        final int nBlocks = input.length / ApproximateReciprocalSum.BLOCK_SIZE;
+        final int tail = input.length - nBlocks * ApproximateReciprocalSum.BLOCK_SIZE;
+        final long[] reads = new long[1];
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            final ApproximateReciprocalSum approx = new ApproximateReciprocalSum(
+                    engine, 7, () -> reads[0]++ * 1_000_000L);
+
+            // Plazo en t = 10 ms; cada ronda lee el reloj dos veces (1 ms de
+            // muestreo y 1 ms entre rondas). Rondas: 64, 128 (duplica),
+            // 256 (duplica), 298 (cabe en la mitad de 4 ms), 186 (cabe en la
+            // mitad de 2 ms); tras la quinta ya no queda tiempo.
+            final SumEstimate estimate = approx.estimate(input, 10, 0);
+            assertFalse(estimate.isExact());
+            assertEquals((64 + 128 + 256 + 298 + 186)
+                    * (long) ApproximateReciprocalSum.BLOCK_SIZE + tail,
+                    estimate.getSampledElements());
+            assertEquals(1 + 2 * 5, reads[0]);
+        }
+    }
+
+    /**
+     * Prueba que con el plazo ya agotado se completa sólo la primera ronda.
+     */
+    public void testExpiredDeadlineSamplesFirstRound() {
+        final double[] input = createArray(2_000_000);
+        final int nBlocks = input.length / ApproximateReciprocalSum.BLOCK_SIZE;
+        final int tail = input.length - nBlocks * ApproximateReciprocalSum.BLOCK_SIZE;
+        final long[] reads = new long[1];
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            final ApproximateReciprocalSum approx = new ApproximateReciprocalSum(
+                    engine, 7, () -> reads[0]++ * 1_000_000L);
+
+            final SumEstimate estimate = approx.estimate(input, 0, 0);
+            assertEquals(ApproximateReciprocalSum.FIRST_ROUND_BLOCKS
+                    * (long) ApproximateReciprocalSum.BLOCK_SIZE + tail,
+                    estimate.getSampledElements());
+            assertEquals(3, reads[0]);
+        }
+    }
+
+    /**
+     * Prueba arreglos más pequeños que un bloque y fracciones inválidas.
+     */
+    public void testEdgeCases() {
+        final double[] input = createArray(100);
+        final SumEstimate estimate = ReciprocalArraySum.parApproximateArraySum(input, 0, 0.5);
+        assertTrue(estimate.isExact());
+        assertEquals(seqArraySum(input), estimate.getEstimate(), 1E-9);
+
+        try {
+            ReciprocalArraySum.parApproximateArraySum(input, 1.5);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BigDoubleArrayTest extends TestCase {
+
+    /**
+     * Prueba que las secciones calculadas con int no se desbordan cerca de
+     * 2^31 elementos.
+     */
+    public void testChunkArithmeticDoesNotOverflow() {
+        final int nElements = Integer.MAX_VALUE - 1;
+        assertEquals(nElements, ReciprocalArraySum.getChunkEndExclusive(2, 3, nElements));
+        assertTrue(ReciprocalArraySum.getChunkStartInclusive(2, 3, nElements) > 0);
+
+        final long big = 40_000_000_000L;
+        final long nChunks = 7;
+        long covered = 0;
+        for (long c = 0; c < nChunks; c++) {
+            final long start = ReciprocalArraySum.getChunkStartInclusive(c, nChunks, big);
+            assertEquals(covered, start);
+            covered = ReciprocalArraySum.getChunkEndExclusive(c, nChunks, big);
+        }
+        assertEquals(big, covered);
+    }
+
+    /**
+     * Prueba el acceso con índices long sobre segmentos de distinto tamaño,
+     * incluidos segmentos vacíos.
+     */
+    public void testSegmentIndexing() {
+        final BigDoubleArray array = new BigDoubleArray(Arrays.asList(
+                new double[] {1, 2, 3}, new double[0], new double[] {4}, new double[] {5, 6}));
+        assertEquals(6, array.length());
+        for (long i = 0; i < array.length(); i++) {
+            assertEquals((double) (i + 1), array.get(i));
+        }
+        array.set(3, 40);
+        assertEquals(40.0, array.segment(2)[0]);
+
+        try {
+            array.get(6);
+            fail("Se esperaba ArrayIndexOutOfBoundsException");
+        } catch (ArrayIndexOutOfBoundsException expected) {
+            // esperado
+        }
+    }
+
+    /**
+     * Prueba que la suma paralela cruza límites de segmento y concuerda con
+     * la suma secuencial.
+     */
+    public void testParallelSumAcrossSegments() {
+        final BigDoubleArray array = BigDoubleArray.allocate(1_000_003, 65_537);
+        final Random rand = new Random(314);
+        double correct = 0;
+        for (long i = 0; i < array.length(); i++) {
+            final double value = 1 + rand.nextInt(99);
+            array.set(i, value);
+            correct += 1 / value;
+        }
+
+        assertEquals(16, array.segmentCount());
+        for (int numTasks = 1; numTasks <= 33; numTasks += 4) {
+            assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(array, numTasks), 1E-2);
+        }
+    }
+}
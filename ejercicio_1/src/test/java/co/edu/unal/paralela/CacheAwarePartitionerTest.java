@@ -0,0 +1,72 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class CacheAwarePartitionerTest extends TestCase {
+
+    /**
+     * Crea un arreglo double[] de longitud N sin ceros.
+     *
+     * @param N Tamaño del arreglo a crear
+     * @return Arreglo double de longitud N inicializado
+     */
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Prueba que cada ranura ocupa su propia línea de caché y que hay una
+     * línea libre antes de la primera y después de la última.
+     */
+    public void testSlotsArePadded() {
+        for (int chunk = 0; chunk < 16; chunk++) {
+            assertEquals(CacheAwarePartitioner.DOUBLES_PER_LINE,
+                    CacheAwarePartitioner.slot(chunk + 1) - CacheAwarePartitioner.slot(chunk));
+        }
+        assertEquals(CacheAwarePartitioner.DOUBLES_PER_LINE, CacheAwarePartitioner.slot(0));
+        assertEquals(CacheAwarePartitioner.CACHE_LINE_BYTES,
+                CacheAwarePartitioner.DOUBLES_PER_LINE * Double.BYTES);
+    }
+
+    /**
+     * Prueba que el reparto concuerda con la suma secuencial, tanto
+     * sobre un motor como con hilos dedicados en llamadas repetidas.
+     */
+    public void testSumMatchesSequential() {
+        final double[] input = createArray(1_000_003);
+        final double correct = seqArraySum(input);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(3)) {
+            for (int numTasks : new int[] {1, 4, 7}) {
+                assertEquals(correct, new CacheAwarePartitioner(engine, numTasks)
+                        .sum(input), 1E-2);
+            }
+        }
+        try (CacheAwarePartitioner pinned = CacheAwarePartitioner.pinned(3)) {
+            for (int r = 0; r < 5; r++) {
+                assertEquals(correct, pinned.sum(input), 1E-2);
+            }
+            assertEquals(99.0, pinned.reduce(input, ParallelDoubleReducer.max()));
+        }
+        assertEquals(correct, ReciprocalArraySum.parCacheAwareArraySum(input, 8), 1E-2);
+        assertEquals(seqArraySum(createArray(5)),
+                ReciprocalArraySum.parCacheAwareArraySum(createArray(5), 8), 1E-12);
+    }
+}
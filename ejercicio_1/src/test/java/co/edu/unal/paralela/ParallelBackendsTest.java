@@ -0,0 +1,101 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+public class ParallelBackendsTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Prueba que todos los backends disponibles calculan la misma suma.
+     */
+    public void testAllBackendsAgree() {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        final List<ParallelBackend> backends = new ArrayList<ParallelBackend>();
+        backends.add(ParallelBackends.forkJoin());
+        backends.add(ParallelBackends.pcdpForall());
+        backends.add(ParallelBackends.pcdpFinishAsync());
+        backends.add(ParallelBackends.executor(executor));
+        if (ParallelBackends.isVirtualThreadsAvailable()) {
+            backends.add(ParallelBackends.virtualThreads());
+        }
+
+        final double[] input = createArray(2_000_003);
+        final double correct = seqArraySum(input);
+        try {
+            for (ParallelBackend backend : backends) {
+                for (int numTasks : new int[] {1, 2, 7}) {
+                    assertEquals(backend.name(), correct,
+                            ReciprocalArraySum.parManyTaskArraySum(input, numTasks, backend), 1E-2);
+                }
+                assertEquals(backend.name(), input.length,
+                        backend.reduce(input, ParallelDoubleReducer.of(x -> 1, Double::sum, 0), 5), 0.0);
+
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prueba que pedir hilos virtuales en una JVM sin ellos falla de forma
+     * explícita.
+     */
+    public void testVirtualThreadsUnavailable() {
+        if (ParallelBackends.isVirtualThreadsAvailable()) {
+            return;
+        }
+        try {
+            ParallelBackends.virtualThreads();
+            fail("Se esperaba UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+            // esperado
+        }
+    }
+
+    /**
+     * Prueba que los backends PCDP fallan de inmediato, sin tocar la
+     * propiedad, cuando PCDP correría con un solo trabajador.
+     */
+    public void testPcdpRequiresTwoWorkers() {
+        final String previous = System.getProperty(ParallelBackends.PCDP_WORKERS_PROPERTY);
+        System.setProperty(ParallelBackends.PCDP_WORKERS_PROPERTY, "1");
+        try {
+            ParallelBackends.pcdpFinishAsync();
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("-Dpcdp.numWorkers"));
+            assertEquals("1", System.getProperty(ParallelBackends.PCDP_WORKERS_PROPERTY));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ParallelBackends.PCDP_WORKERS_PROPERTY);
+            } else {
+                System.setProperty(ParallelBackends.PCDP_WORKERS_PROPERTY, previous);
+            }
+        }
+    }
+}
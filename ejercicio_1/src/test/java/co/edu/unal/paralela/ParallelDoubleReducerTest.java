@@ -0,0 +1,86 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+public class ParallelDoubleReducerTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    /**
+     * Prueba las reducciones predefinidas contra ciclos de referencia, en
+     * versión secuencial y paralela.
+     */
+    public void testBuiltInReducers() {
+        final double[] input = createArray(500_003);
+        double sum = 0;
+        double squares = 0;
+        double logs = 0;
+        double reciprocals = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double x : input) {
+            sum += x;
+            squares += x * x;
+            logs += Math.log(x);
+            reciprocals += 1 / x;
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+
+        for (int numTasks : new int[] {1, 3, 8}) {
+            assertEquals(sum, ParallelDoubleReducer.sum().parReduce(input, numTasks), 1E-2);
+            assertEquals(squares, ParallelDoubleReducer.sumOfSquares().parReduce(input, numTasks), 1E-1);
+            assertEquals(logs, ParallelDoubleReducer.logSum().parReduce(input, numTasks), 1E-2);
+            assertEquals(reciprocals, ParallelDoubleReducer.reciprocalSum().parReduce(input, numTasks), 1E-2);
+            assertEquals(min, ParallelDoubleReducer.min().parReduce(input, numTasks));
+            assertEquals(max, ParallelDoubleReducer.max().parReduce(input, numTasks));
+        }
+        assertEquals(reciprocals, ParallelDoubleReducer.reciprocalSum().seqReduce(input), 1E-2);
+    }
+
+    /**
+     * Prueba una reducción definida por el usuario en ambos modos de división
+     * y sobre un Executor genérico.
+     */
+    public void testCustomReducer() {
+        final double[] input = createArray(200_001);
+        final ParallelDoubleReducer cubes = ParallelDoubleReducer.of(x -> x * x * x, Double::sum, 0);
+        final ParallelDoubleReducer countAbove50 = ParallelDoubleReducer.of(
+                x -> x > 50 ? 1 : 0, Double::sum, 0);
+        final double expected = cubes.seqReduce(input);
+        final double expectedCount = countAbove50.seqReduce(input);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(3);
+                ReciprocalSumEngine executorEngine = new ReciprocalSumEngine(executor)) {
+            assertEquals(expected, engine.reduce(input, cubes, 5), expected * 1E-12);
+            assertEquals(expected, engine.reduce(input, cubes, 5,
+                    ReciprocalSumEngine.SplitMode.RECURSIVE), expected * 1E-12);
+            assertEquals(expected, executorEngine.reduce(input, cubes, 5), expected * 1E-12);
+            assertEquals(expectedCount, engine.reduceRecursive(input, countAbove50, 1000));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prueba que un arreglo vacío produce el elemento identidad.
+     */
+    public void testEmptyInputYieldsIdentity() {
+        assertEquals(Double.POSITIVE_INFINITY, ParallelDoubleReducer.min().parReduce(new double[0], 4));
+        assertEquals(0.0, ParallelDoubleReducer.sum().parReduce(new double[0], 4));
+    }
+}
@@ -0,0 +1,154 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+public class PreciseReciprocalSumTest extends TestCase {
+    // Número de veces que se repite cada medición de desempeño.
+    final static private int REPEATS = 10;
+    /**
+     * Crea un arreglo con valores de magnitudes muy distintas, para que el
+     * orden de las sumas sí cambie el resultado del modo normal.
+     *
+     * @param N Tamaño del arreglo a crear
+     * @return Arreglo double de longitud N inicializado
+     */
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = (1 + rand.nextInt(99)) * Math.pow(10, rand.nextInt(9) - 4);
+        }
+
+        return input;
+    }
+
+    /**
+     * Prueba que el modo preciso es idéntico bit a bit para cualquier número
+     * de tareas y paralelismo, y que concuerda con la suma secuencial.
+     */
+    public void testBitIdenticalForAnyParallelism() {
+        final double[] input = createArray(1_000_003);
+        final double reference = ReciprocalArraySum.seqPreciseArraySum(input);
+
+        double naive = 0;
+        for (int i = 0; i < input.length; i++) {
+            naive += 1 / input[i];
+        }
+        assertEquals(naive, reference, 1E-2);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int parallelism = 1; parallelism <= 4; parallelism++) {
+                try (ReciprocalSumEngine engine = new ReciprocalSumEngine(parallelism)) {
+                    for (int numTasks = 1; numTasks <= 17; numTasks += 2) {
+                        assertEquals(Double.doubleToLongBits(reference),
+                                Double.doubleToLongBits(engine.sumPrecise(input, numTasks)));
+                    }
+                }
+            }
+            try (ReciprocalSumEngine engine = new ReciprocalSumEngine(executor)) {
+                assertEquals(Double.doubleToLongBits(reference),
+                        Double.doubleToLongBits(engine.sumPrecise(input, 5)));
+            }
+            assertEquals(Double.doubleToLongBits(reference), Double.doubleToLongBits(
+                    ReciprocalArraySum.parManyTaskPreciseArraySum(input, 64)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prueba arreglos vacíos y más pequeños que un bloque.
+     */
+    public void testSmallInputs() {
+        assertEquals(0.0, ReciprocalArraySum.parManyTaskPreciseArraySum(new double[0], 4));
+        assertEquals(1.75, ReciprocalArraySum.parManyTaskPreciseArraySum(
+                new double[] {1.0, 2.0, 4.0}, 4));
+    }
+
+    /**
+     * Prueba que el número de bloques no se desborda con longitudes cercanas
+     * a Integer.MAX_VALUE.
+     */
+    public void testBlockCount() {
+        final int block = PreciseReciprocalSum.BLOCK_SIZE;
+        assertEquals(0, PreciseReciprocalSum.getBlockCount(0));
+        assertEquals(1, PreciseReciprocalSum.getBlockCount(1));
+        assertEquals(1, PreciseReciprocalSum.getBlockCount(block));
+        assertEquals(2, PreciseReciprocalSum.getBlockCount(block + 1));
+        assertEquals(Integer.MAX_VALUE / block + 1,
+                PreciseReciprocalSum.getBlockCount(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE / block + 1,
+                PreciseReciprocalSum.getBlockCount(Integer.MAX_VALUE - block + 2));
+    }
+
+    /**
+     * Prueba longitudes alrededor de los límites de bloque: el resultado no
+     * depende del número de tareas aunque un bloque quede incompleto.
+     */
+    public void testBlockBoundaries() {
+        final int block = PreciseReciprocalSum.BLOCK_SIZE;
+        for (int n : new int[] {block - 1, block, block + 1, 3 * block + 7}) {
+            final double[] input = createArray(n);
+            final double reference = ReciprocalArraySum.seqPreciseArraySum(input);
+            for (int numTasks : new int[] {1, 2, 3, 64}) {
+                assertEquals(Double.doubleToLongBits(reference), Double.doubleToLongBits(
+                        ReciprocalArraySum.parManyTaskPreciseArraySum(input, numTasks)));
+            }
+        }
+    }
+
+    /**
+     * Prueba que la suma compensada conserva los términos pequeños que una
+     * suma ingenua pierde al sumarlos a un valor grande.
+     */
+    public void testCompensationKeepsSmallTerms() {
+        final int n = 1_000_000;
+        final double[] input = new double[n + 1];
+        input[0] = 1.0;
+        Arrays.fill(input, 1, n + 1, 1E16);
+
+        double naive = 0;
+        for (int i = 0; i < input.length; i++) {
+            naive += 1 / input[i];
+        }
+        final double exact = 1.0 + n * 1E-16;
+        assertEquals(1.0, naive);
+        assertEquals(exact, ReciprocalArraySum.seqPreciseArraySum(input), 1E-15);
+        assertEquals(exact, ReciprocalArraySum.parManyTaskPreciseArraySum(input, 4), 1E-15);
+    }
+
+    /**
+     * Mide el sobrecosto del modo preciso frente al modo normal con el mismo
+     * número de tareas. No verifica un umbral: sólo informa los tiempos.
+     */
+    public void testPreciseOverhead() {
+        final int ncores = Runtime.getRuntime().availableProcessors();
+        final double[] input = createArray(20_000_000);
+        ReciprocalArraySum.parManyTaskArraySum(input, ncores);
+        ReciprocalArraySum.parManyTaskPreciseArraySum(input, ncores);
+
+        final long plainStartTime = System.nanoTime();
+        for (int r = 0; r < REPEATS; r++) {
+            ReciprocalArraySum.parManyTaskArraySum(input, ncores);
+        }
+        final long plainTime = System.nanoTime() - plainStartTime;
+
+        final long preciseStartTime = System.nanoTime();
+        for (int r = 0; r < REPEATS; r++) {
+            ReciprocalArraySum.parManyTaskPreciseArraySum(input, ncores);
+        }
+        final long preciseTime = System.nanoTime() - preciseStartTime;
+
+        System.out.println("Modo preciso con " + ncores + " tareas paralelas. Normal: "
+                + plainTime / REPEATS / 1_000_000 + " ms, preciso: "
+                + preciseTime / REPEATS / 1_000_000 + " ms, sobrecosto: "
+                + (double) preciseTime / (double) plainTime + "x");
+    }
+}
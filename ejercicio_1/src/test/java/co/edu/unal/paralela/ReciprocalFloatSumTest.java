@@ -0,0 +1,109 @@
+package co.edu.unal.paralela;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ReciprocalFloatSumTest extends TestCase {
+    /**
+     * Crea un arreglo float[] de longitud N sin ceros.
+     *
+     * @param N Tamaño del arreglo a crear
+     * @return Arreglo float de longitud N inicializado
+     */
+    private float[] createArray(final int N) {
+        final float[] input = new float[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double[] widen(final float[] input) {
+        final double[] output = new double[input.length];
+        for (int i = 0; i < input.length; i++) {
+            output[i] = input[i];
+        }
+        return output;
+    }
+
+    /**
+     * Prueba que las versiones float concuerdan con la suma sobre los mismos
+     * valores ampliados a double.
+     */
+    public void testMatchesDoubleSum() {
+        final float[] input = createArray(1_000_003);
+        final double correct = ReciprocalArraySum.seqArraySum(widen(input));
+
+        assertEquals(correct, ReciprocalArraySum.seqArraySum(input), 1E-2);
+        for (int numTasks : new int[] {1, 2, 7, 16}) {
+            assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(input, numTasks), 1E-2);
+        }
+
+        final FloatBuffer direct = ByteBuffer.allocateDirect(input.length * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        direct.put(input).flip();
+        assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(direct, 4), 1E-2);
+        assertEquals(0, direct.position());
+
+        direct.position(3);
+        final double tail = ReciprocalArraySum.seqArraySum(widen(createArray(3)));
+        assertEquals(correct - tail, ReciprocalArraySum.parManyTaskArraySum(direct, 4), 1E-2);
+        assertEquals(0.0, ReciprocalArraySum.parManyTaskArraySum(new float[0], 4));
+    }
+
+    /**
+     * Prueba longitudes menores y no múltiplos de ReciprocalKernel.LANES, más
+     * tareas que elementos y buffers con position y limit distintos de los
+     * extremos.
+     */
+    public void testShortAndSlicedInputs() {
+        final float[] input = createArray(2 * ReciprocalKernel.LANES + 1);
+        for (int n = 0; n <= input.length; n++) {
+            final float[] prefix = Arrays.copyOf(input, n);
+            final double correct = ReciprocalArraySum.seqArraySum(widen(prefix));
+            assertEquals(correct, ReciprocalArraySum.seqArraySum(prefix), 1E-12);
+            assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(prefix, 16), 1E-12);
+
+            final FloatBuffer heap = FloatBuffer.wrap(input);
+            heap.position(1).limit(Math.max(1, n));
+            final float[] window = Arrays.copyOfRange(input, 1, Math.max(1, n));
+            assertEquals(ReciprocalArraySum.seqArraySum(widen(window)),
+                    ReciprocalArraySum.parManyTaskArraySum(heap, 3), 1E-12);
+            assertEquals(1, heap.position());
+        }
+        try {
+            ReciprocalArraySum.parManyTaskArraySum(input, 0);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+
+    /**
+     * Prueba que los floats se acumulan en double: con un acumulador float la
+     * suma de muchos 1 / 3 se alejaría del valor exacto.
+     */
+    public void testAccumulatesInDouble() {
+        final int n = 10_000_000;
+        final float[] input = new float[n];
+        Arrays.fill(input, 3.0f);
+
+        float floatSum = 0;
+        for (int i = 0; i < n; i++) {
+            floatSum += 1 / input[i];
+        }
+        final double exact = n / 3.0;
+        assertTrue(Math.abs(floatSum - exact) > 1.0);
+
+        assertEquals(exact, ReciprocalArraySum.seqArraySum(input), 1E-3);
+        assertEquals(exact, ReciprocalArraySum.parManyTaskArraySum(input, 4), 1E-3);
+    }
+}
@@ -0,0 +1,38 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ReciprocalKernelTest extends TestCase {
+
+    /**
+     * Prueba que el núcleo desenrollado concuerda con el ciclo escalar para
+     * rangos de cualquier longitud y desplazamiento, incluidos los sobrantes
+     * que no son múltiplo del número de acumuladores.
+     */
+    public void testMatchesScalarLoop() {
+        final double[] input = new double[1_037];
+        final Random rand = new Random(314);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        for (int from = 0; from < 9; from++) {
+            for (int to = from; to < input.length; to += 13) {
+                double expected = 0;
+                for (int i = from; i < to; i++) {
+                    expected += 1 / input[i];
+                }
+                assertEquals(expected, ReciprocalKernel.sum(input, from, to), 1E-9);
+            }
+        }
+    }
+
+    /**
+     * Prueba que el rango vacío suma cero.
+     */
+    public void testEmptyRange() {
+        assertEquals(0.0, ReciprocalKernel.sum(new double[] {2.0, 4.0}, 1, 1));
+    }
+}
@@ -0,0 +1,100 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ReciprocalPrefixSumTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    /**
+     * Suma acumulada secuencial de referencia.
+     */
+    private double[] seqPrefixSum(final double[] input, final boolean inclusive) {
+        final double[] out = new double[input.length];
+        double acc = 0;
+        for (int i = 0; i < input.length; i++) {
+            if (!inclusive) {
+                out[i] = acc;
+            }
+            acc += 1 / input[i];
+            if (inclusive) {
+                out[i] = acc;
+            }
+        }
+        return out;
+    }
+
+    private void assertClose(final double[] expected, final double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("Índice " + i, expected[i], actual[i], 1E-6);
+        }
+    }
+
+    /**
+     * Prueba los scans inclusivo y exclusivo con varios números de tareas.
+     */
+    public void testInclusiveAndExclusive() {
+        final double[] input = createArray(1_000_003);
+        final double[] inclusive = seqPrefixSum(input, true);
+        final double[] exclusive = seqPrefixSum(input, false);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(3)) {
+            for (int numTasks : new int[] {1, 2, 7, 64}) {
+                final double[] out = new double[input.length];
+                engine.reciprocalPrefixSum(input, out, numTasks, true);
+                assertClose(inclusive, out);
+                engine.reciprocalPrefixSum(input, out, numTasks, false);
+                assertClose(exclusive, out);
+            }
+        }
+
+        final double[] out = new double[input.length];
+        ReciprocalArraySum.parReciprocalPrefixSum(input, out);
+        assertClose(inclusive, out);
+        ReciprocalArraySum.parReciprocalExclusivePrefixSum(input, out);
+        assertClose(exclusive, out);
+    }
+
+    /**
+     * Prueba las variantes en el mismo arreglo.
+     */
+    public void testInPlace() {
+        final double[] input = createArray(100_001);
+        final double[] inclusive = seqPrefixSum(input, true);
+        final double[] exclusive = seqPrefixSum(input, false);
+
+        final double[] inOut = Arrays.copyOf(input, input.length);
+        ReciprocalArraySum.parReciprocalPrefixSum(inOut);
+        assertClose(inclusive, inOut);
+
+        final double[] inOutExclusive = Arrays.copyOf(input, input.length);
+        ReciprocalArraySum.parReciprocalExclusivePrefixSum(inOutExclusive, inOutExclusive);
+        assertClose(exclusive, inOutExclusive);
+    }
+
+    /**
+     * Prueba entradas vacías y salidas de longitud incorrecta.
+     */
+    public void testEdgeCases() {
+        ReciprocalArraySum.parReciprocalPrefixSum(new double[0], new double[0]);
+        try {
+            ReciprocalArraySum.parReciprocalPrefixSum(new double[3], new double[2]);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+}
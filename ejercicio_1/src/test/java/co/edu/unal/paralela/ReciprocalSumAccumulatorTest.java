@@ -0,0 +1,73 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ReciprocalSumAccumulatorTest extends TestCase {
+
+    /**
+     * Prueba que muchos productores concurrentes acumulan el mismo total que
+     * la suma secuencial.
+     */
+    public void testConcurrentProducers() throws InterruptedException {
+        final ReciprocalSumAccumulator accumulator = new ReciprocalSumAccumulator();
+        final int nThreads = 8;
+        final int perThread = 100_000;
+        final double[] batch = new double[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = 1 + i % 99;
+        }
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < nThreads; t++) {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    accumulator.add(1 + i % 99);
+                }
+                accumulator.addAll(batch);
+                accumulator.addAll(batch, 10, 20);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double expected = 0;
+        for (int i = 0; i < perThread; i++) {
+            expected += 1.0 / (1 + i % 99);
+        }
+        for (int i = 0; i < batch.length; i++) {
+            expected += 1 / batch[i];
+        }
+        for (int i = 10; i < 20; i++) {
+            expected += 1 / batch[i];
+        }
+        expected *= nThreads;
+
+        assertEquals(expected, accumulator.sum(), 1E-6);
+        assertEquals(expected, accumulator.sumThenReset(), 1E-6);
+        assertEquals(0.0, accumulator.sum());
+    }
+
+    /**
+     * Prueba reset y la validación del rango de addAll.
+     */
+    public void testResetAndRangeValidation() {
+        final ReciprocalSumAccumulator accumulator = new ReciprocalSumAccumulator();
+        accumulator.add(4);
+        assertEquals(0.25, accumulator.sum());
+        accumulator.reset();
+        assertEquals(0.0, accumulator.sum());
+
+        try {
+            accumulator.addAll(new double[2], 1, 3);
+            fail("Se esperaba ArrayIndexOutOfBoundsException");
+        } catch (ArrayIndexOutOfBoundsException expected) {
+            // esperado
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+public class ReciprocalSumEngineTest extends TestCase {
+
+    /**
+     * Crea un arreglo double[] de longitud N sin ceros.
+     *
+     * @param N Tamaño del arreglo a crear
+     * @return Arreglo double de longitud N inicializado
+     */
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Prueba que un mismo motor puede reutilizarse para muchas sumas.
+     */
+    public void testEngineIsReusable() {
+        final double[] input = createArray(100_000);
+        final double correct = seqArraySum(input);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(4)) {
+            for (int numTasks = 1; numTasks <= 16; numTasks++) {
+                assertEquals(correct, engine.sum(input, numTasks), 1E-2);
+            }
+            assertEquals(correct, engine.sum(input), 1E-2);
+        }
+    }
+
+    /**
+     * Prueba que la división recursiva concuerda con la suma secuencial para
+     * granos explícitos y derivados automáticamente.
+     */
+    public void testRecursiveSplitting() {
+        final double[] input = createArray(1_000_003);
+        final double correct = seqArraySum(input);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(3)) {
+            for (int grain : new int[] {1_000, 4_096, 100_000, 2_000_000}) {
+                assertEquals(correct, engine.sumRecursive(input, grain), 1E-2);
+            }
+            assertEquals(correct, engine.sumRecursive(input), 1E-2);
+            assertEquals(correct, engine.sum(input, 5,
+                    ReciprocalSumEngine.SplitMode.RECURSIVE), 1E-2);
+        }
+    }
+
+    /**
+     * Prueba que el lote empaca arreglos pequeños, parte los grandes y
+     * devuelve la suma de cada arreglo en su posición.
+     */
+    public void testBatch() {
+        final Random rand = new Random(271);
+        final double[][] inputs = new double[3_000][];
+        for (int a = 0; a < inputs.length; a++) {
+            inputs[a] = createArray(rand.nextInt(4_000));
+        }
+        inputs[17] = new double[0];
+        inputs[1_500] = createArray(700_000);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(4)) {
+            for (int numTasks : new int[] {1, 4, 32}) {
+                final double[] sums = engine.sumBatch(inputs, numTasks);
+                assertEquals(inputs.length, sums.length);
+                for (int a = 0; a < inputs.length; a++) {
+                    assertEquals(seqArraySum(inputs[a]), sums[a], 1E-6);
+                }
+            }
+        }
+        assertEquals(0, ReciprocalArraySum.parManyTaskBatchArraySum(new double[0][], 4).length);
+    }
+
+    /**
+     * Prueba que el motor trabaja sobre pools y executors provistos por quien
+     * llama, y que no los apaga al cerrarse.
+     */
+    public void testCallerSuppliedExecutors() {
+        final double[] input = createArray(50_001);
+        final double correct = seqArraySum(input);
+
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            try (ReciprocalSumEngine engine = new ReciprocalSumEngine(pool)) {
+                assertEquals(correct, engine.sum(input, 7), 1E-2);
+            }
+            try (ReciprocalSumEngine engine = new ReciprocalSumEngine(executor)) {
+                assertEquals(correct, engine.sum(input, 7), 1E-2);
+            }
+            assertFalse(pool.isShutdown());
+            assertFalse(executor.isShutdown());
+        } finally {
+            pool.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prueba que un motor cerrado rechaza nuevas sumas.
+     */
+    public void testClosedEngineRejectsWork() {
+        final ReciprocalSumEngine engine = new ReciprocalSumEngine(1);
+        engine.close();
+        try {
+            engine.sum(createArray(10), 2);
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+    }
+}
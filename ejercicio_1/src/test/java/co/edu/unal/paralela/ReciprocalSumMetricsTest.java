@@ -0,0 +1,140 @@
+package co.edu.unal.paralela;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+public class ReciprocalSumMetricsTest extends TestCase {
+
+    /**
+     * Crea un arreglo double[] de longitud N sin ceros.
+     *
+     * @param N Tamaño del arreglo a crear
+     * @return Arreglo double de longitud N inicializado
+     */
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    /**
+     * Prueba que con las métricas desactivadas el motor no registra nada y que
+     * al activarlas se cuentan llamadas, hojas y bytes.
+     */
+    public void testLeavesAndCallsAreCounted() {
+        final double[] input = createArray(1_000_000);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            assertNull(engine.getMetrics());
+            engine.sum(input, 8);
+
+            final ReciprocalSumMetrics metrics = engine.enableMetrics();
+            assertSame(metrics, engine.enableMetrics());
+            engine.sum(input, 8);
+            engine.sumRecursive(input, 100_000);
+
+            final MetricsSnapshot snapshot = metrics.snapshot();
+            assertEquals(2, snapshot.getCalls());
+            assertEquals(8 + 16, snapshot.getLeaves());
+            assertEquals(2L * input.length * Double.BYTES, snapshot.getBytes());
+            assertTrue(snapshot.getMaxLeafNanos() > 0);
+            assertTrue(snapshot.getLoadImbalance() >= 1.0);
+            assertTrue(snapshot.getBandwidthGBps() > 0);
+            assertTrue(snapshot.getStealCount() >= 0);
+
+            engine.disableMetrics();
+            assertNull(engine.getMetrics());
+            engine.sum(input, 8);
+            assertEquals(2, metrics.snapshot().getCalls());
+
+            metrics.reset();
+            assertEquals(0, metrics.snapshot().getLeaves());
+            assertEquals(0.0, metrics.snapshot().getLoadImbalance());
+            assertEquals(0.0, metrics.getLastLoadImbalance());
+        }
+    }
+
+    /**
+     * Prueba que el desbalance se calcula por llamada: el promedio queda
+     * entre el menor y el mayor de los valores de cada llamada, y una llamada
+     * con una sola hoja está perfectamente balanceada.
+     */
+    public void testLoadImbalanceIsPerCall() {
+        final double[] input = createArray(1_000_000);
+
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            final ReciprocalSumMetrics metrics = engine.enableMetrics();
+            engine.sum(input, 1);
+            assertEquals(1.0, metrics.getLastLoadImbalance(), 1e-12);
+            assertEquals(1.0, metrics.snapshot().getLoadImbalance(), 1e-12);
+
+            double min = Double.MAX_VALUE;
+            double max = 0.0;
+            for (int call = 0; call < 5; call++) {
+                engine.sum(input, 8);
+                final double last = metrics.getLastLoadImbalance();
+                assertTrue(last >= 1.0);
+                assertTrue(last <= 8.0);
+                assertEquals(last, metrics.snapshot().getLastLoadImbalance(), 0.0);
+                min = Math.min(min, last);
+                max = Math.max(max, last);
+            }
+
+            final double average = metrics.snapshot().getLoadImbalance();
+            assertTrue(average >= Math.min(1.0, min) - 1e-12);
+            assertTrue(average <= max + 1e-12);
+        }
+    }
+
+    /**
+     * Prueba que las secciones ejecutadas sobre un Executor genérico también
+     * se miden.
+     */
+    public void testExecutorChunksAreCounted() {
+        final double[] input = createArray(100_000);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(executor)) {
+            final ReciprocalSumMetrics metrics = engine.enableMetrics();
+            engine.sum(input, 5);
+            engine.sumPrecise(input, 3);
+
+            final MetricsSnapshot snapshot = metrics.snapshot();
+            assertEquals(2, snapshot.getCalls());
+            assertEquals(5 + 3, snapshot.getLeaves());
+            assertEquals(0, snapshot.getStealCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prueba que las métricas se publican por JMX.
+     */
+    public void testMBeanRegistration() throws Exception {
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2)) {
+            final ReciprocalSumMetrics metrics = engine.enableMetrics();
+            engine.sum(createArray(10_000), 4);
+
+            final ObjectName name = metrics.registerMBean("prueba");
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                assertEquals(1L, server.getAttribute(name, "Calls"));
+                assertEquals(4L, server.getAttribute(name, "Leaves"));
+            } finally {
+                server.unregisterMBean(name);
+            }
+        }
+    }
+}
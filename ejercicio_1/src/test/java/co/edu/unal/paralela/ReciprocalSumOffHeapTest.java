@@ -0,0 +1,108 @@
+package co.edu.unal.paralela;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ReciprocalSumOffHeapTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Escribe el arreglo como doubles crudos con el orden de bytes indicado.
+     */
+    private Path writeFile(final double[] input, final ByteOrder order) throws IOException {
+        final Path file = Files.createTempFile("reciprocal", ".bin");
+        final ByteBuffer bytes = ByteBuffer.allocate(input.length * Double.BYTES).order(order);
+        bytes.asDoubleBuffer().put(input);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Prueba buffers en el heap y directos, respetando la posición y el límite.
+     */
+    public void testDoubleBuffers() {
+        final double[] input = createArray(300_001);
+        final double correct = seqArraySum(input);
+
+        final DoubleBuffer heap = DoubleBuffer.wrap(input);
+        assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(heap, 7), 1E-2);
+        assertEquals(0, heap.position());
+
+        final DoubleBuffer direct = ByteBuffer.allocateDirect(input.length * Double.BYTES)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        direct.put(input).flip();
+        direct.position(1000);
+        double tail = 0;
+        for (int i = 1000; i < input.length; i++) {
+            tail += 1 / input[i];
+        }
+        assertEquals(tail, ReciprocalArraySum.parManyTaskArraySum(direct, 4), 1E-2);
+    }
+
+    /**
+     * Prueba archivos en ambos órdenes de bytes, con ventanas pequeñas para
+     * forzar que la suma cruce varias regiones mapeadas.
+     */
+    public void testMappedFiles() throws IOException {
+        final double[] input = createArray(250_003);
+        final double correct = seqArraySum(input);
+
+        for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            final Path file = writeFile(input, order);
+            try (ReciprocalSumEngine engine = new ReciprocalSumEngine(3)) {
+                assertEquals(correct, engine.sumFile(file, order, 4), 1E-2);
+                assertEquals(correct, engine.sumFile(file, order, 4, 8 * 10_000), 1E-2);
+                assertEquals(correct, ReciprocalArraySum.parManyTaskArraySum(file, order, 2), 1E-2);
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Prueba que un archivo truncado a la mitad de un double se rechaza.
+     */
+    public void testRejectsPartialDouble() throws IOException {
+        final Path file = Files.createTempFile("reciprocal", ".bin");
+        try {
+            Files.write(file, new byte[12]);
+            ReciprocalArraySum.parManyTaskArraySum(file, ByteOrder.BIG_ENDIAN, 2);
+            fail("Se esperaba IOException");
+        } catch (IOException expected) {
+            // esperado
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
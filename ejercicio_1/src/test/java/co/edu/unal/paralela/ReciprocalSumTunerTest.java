@@ -0,0 +1,140 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ReciprocalSumTunerTest extends TestCase {
+
+    private double[] createArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private double seqArraySum(final double[] input) {
+        double sum = 0;
+        for (int i = 0; i < input.length; i++) {
+            sum += 1 / input[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Prueba que la configuración se calibra una vez por rango de tamaños y
+     * que el resultado es correcto para tamaños pequeños y grandes.
+     */
+    public void testCalibratesOncePerBucket() {
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(4);
+                ReciprocalSumTuner tuner = new ReciprocalSumTuner(engine)) {
+            for (int n : new int[] {0, 1, 100, 5_000, 300_000, 3_000_000, 6_000_000}) {
+                final double[] input = createArray(n);
+                assertEquals(seqArraySum(input), tuner.sum(input), 1E-2);
+
+                final ReciprocalSumTuner.Tuning tuning = tuner.getTuning(input);
+                assertSame(tuning, tuner.getTuning(createArray(n)));
+                assertTrue(tuning.getGrainSize(n) >= 1);
+                assertTrue(tuning.getParallelism() >= 1 && tuning.getParallelism() <= 4);
+                assertEquals(tuning.isSequential(), tuning.getParallelism() == 1);
+                if (!tuning.isSequential()) {
+                    assertEquals(tuning.getParallelism(),
+                            tuner.engineFor(tuning.getParallelism()).getParallelism());
+                }
+            }
+            tuner.reset();
+        }
+    }
+
+    /**
+     * Prueba que un arreglo diminuto queda por debajo del punto de equilibrio
+     * y se calcula secuencialmente.
+     */
+    public void testTinyInputsRunSequentially() {
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(4);
+                ReciprocalSumTuner tuner = new ReciprocalSumTuner(engine)) {
+            assertTrue(tuner.getTuning(createArray(8)).isSequential());
+        }
+        assertEquals(seqArraySum(createArray(1000)),
+                ReciprocalArraySum.parAutoTunedArraySum(createArray(1000)), 1E-9);
+    }
+
+    /**
+     * Prueba el cálculo del rango de tamaños.
+     */
+    public void testSizeBucket() {
+        assertEquals(0, ReciprocalSumTuner.sizeBucket(0));
+        assertEquals(1, ReciprocalSumTuner.sizeBucket(1));
+        assertEquals(11, ReciprocalSumTuner.sizeBucket(1024));
+        assertEquals(11, ReciprocalSumTuner.sizeBucket(2047));
+    }
+
+    /**
+     * Prueba los números de hilos candidatos.
+     */
+    public void testCandidateParallelism() {
+        assertEquals(0, ReciprocalSumTuner.candidateParallelism(1).length);
+        assertTrue(Arrays.equals(new int[] {2},
+                ReciprocalSumTuner.candidateParallelism(2)));
+        assertTrue(Arrays.equals(new int[] {2, 4, 6},
+                ReciprocalSumTuner.candidateParallelism(6)));
+    }
+
+    /**
+     * Prueba que cada número de hilos se ejecuta sobre un motor con
+     * exactamente ese número de hilos y que close() apaga sólo los motores
+     * propios del afinador.
+     */
+    public void testCandidateEnginesCapThreads() {
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(4)) {
+            final ReciprocalSumEngine two;
+            try (ReciprocalSumTuner tuner = new ReciprocalSumTuner(engine)) {
+                assertSame(engine, tuner.engineFor(4));
+                two = tuner.engineFor(2);
+                assertNotSame(engine, two);
+                assertEquals(2, two.getParallelism());
+                assertSame(two, tuner.engineFor(2));
+
+                final double[] input = createArray(100_000);
+                assertEquals(seqArraySum(input), two.sumRecursive(input, 10_000), 1E-9);
+            }
+            try {
+                two.sumRecursive(createArray(10), 1);
+                fail("Se esperaba IllegalStateException");
+            } catch (IllegalStateException expected) {
+                // esperado
+            }
+            final double[] small = createArray(10);
+            assertEquals(seqArraySum(small), engine.sumRecursive(small, 1), 1E-12);
+        }
+    }
+
+    /**
+     * Prueba que hilos que calibran el mismo rango a la vez terminan usando
+     * la misma configuración.
+     */
+    public void testConcurrentCalibrationAgrees() throws InterruptedException {
+        try (ReciprocalSumEngine engine = new ReciprocalSumEngine(2);
+                ReciprocalSumTuner tuner = new ReciprocalSumTuner(engine)) {
+            final double[] input = createArray(200_000);
+            final ReciprocalSumTuner.Tuning[] seen = new ReciprocalSumTuner.Tuning[4];
+            final Thread[] threads = new Thread[seen.length];
+            for (int t = 0; t < threads.length; t++) {
+                final int index = t;
+                threads[t] = new Thread(() -> seen[index] = tuner.getTuning(input));
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (ReciprocalSumTuner.Tuning tuning : seen) {
+                assertSame(tuner.getTuning(input), tuning);
+            }
+        }
+    }
+}
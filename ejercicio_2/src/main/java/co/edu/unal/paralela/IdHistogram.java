@@ -0,0 +1,144 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Histograma de identificadores enteros (por ejemplo los de un
+ * NameDictionary) con contadores long sin empaquetar.
+ *
+ * Cada hilo cuenta en su propio histograma y los histogramas se suman al
+ * final con merge, de modo que contar no crea objetos por elemento ni
+ * comparte contadores entre hilos. El arreglo crece si aparece un
+ * identificador mayor que los vistos hasta ahora.
+ */
+final class IdHistogram {
+    /**
+     * Capacidad inicial cuando no se conoce el número de identificadores.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Conteo de cada identificador.
+     */
+    private long[] counts;
+
+    /**
+     * Constructor.
+     */
+    IdHistogram() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity Número esperado de identificadores distintos
+     */
+    IdHistogram(final int capacity) {
+        this.counts = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Suma uno al conteo de un identificador.
+     *
+     * @param id Identificador
+     */
+    void add(final int id) {
+        add(id, 1);
+    }
+
+    /**
+     * Suma delta al conteo de un identificador.
+     *
+     * @param id    Identificador
+     * @param delta Cantidad a sumar
+     */
+    void add(final int id, final long delta) {
+        if (id >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+        }
+        counts[id] += delta;
+    }
+
+    /**
+     * Suma a este histograma los conteos de otro.
+     *
+     * @param other Histograma a sumar
+     */
+    void merge(final IdHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int id = 0; id < other.counts.length; id++) {
+            counts[id] += other.counts[id];
+        }
+    }
+
+    /**
+     * Recupera el conteo de un identificador.
+     *
+     * @param id Identificador
+     * @return El conteo, 0 si nunca se contó
+     */
+    long count(final int id) {
+        return id < counts.length ? counts[id] : 0;
+    }
+
+    /**
+     * Busca el identificador con mayor conteo. Los empates se resuelven a
+     * favor del nombre menor en orden de String, para que el resultado no
+     * dependa del orden en que se asignaron los identificadores.
+     *
+     * @param dictionary Diccionario de los identificadores
+     * @return El identificador más frecuente, o -1 si no se contó ninguno
+     */
+    int mostCommon(final NameDictionary dictionary) {
+        int best = -1;
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] == 0) {
+                continue;
+            }
+            if (best < 0 || counts[id] > counts[best] || (counts[id] == counts[best]
+                    && dictionary.name(id).compareTo(dictionary.name(best)) < 0)) {
+                best = id;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Los k identificadores más frecuentes, de mayor a menor frecuencia; los
+     * empates se resuelven a favor del nombre menor en orden de String. Los
+     * identificadores con frecuencia 0 no se incluyen.
+     *
+     * @param dictionary Diccionario de los identificadores
+     * @param k          Número máximo de resultados
+     * @return Los nombres más frecuentes con su frecuencia exacta
+     */
+    List<NameCount> topK(final NameDictionary dictionary, final int k) {
+        if (k <= 0) {
+            return new ArrayList<NameCount>();
+        }
+        // @audit-info La cabeza de la cola es el peor de los k mejores vistos
+        final PriorityQueue<Integer> best = new PriorityQueue<Integer>(k + 1,
+                (a, b) -> counts[a] != counts[b] ? Long.compare(counts[a], counts[b])
+                        : dictionary.name(b).compareTo(dictionary.name(a)));
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != 0) {
+                best.add(id);
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+        }
+        final List<NameCount> result = new ArrayList<NameCount>(best.size());
+        for (int id : best) {
+            result.add(new NameCount(dictionary.name(id), counts[id], 0));
+        }
+        result.sort(NameCount.BY_COUNT_DESCENDING);
+        return result;
+    }
+}
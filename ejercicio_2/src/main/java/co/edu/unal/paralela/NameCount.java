@@ -0,0 +1,86 @@
+package co.edu.unal.paralela;
+
+import java.util.Comparator;
+
+/**
+ * Un nombre con su frecuencia, como lo devuelven las consultas de los
+ * nombres más comunes. En los resultados exactos el error es 0; en los
+ * aproximados la frecuencia real está entre getCount() - getError() y
+ * getCount().
+ */
+public final class NameCount {
+    /**
+     * Orden de los resultados: mayor frecuencia primero y, en los empates, el
+     * nombre menor en orden de String.
+     */
+    static final Comparator<NameCount> BY_COUNT_DESCENDING =
+            Comparator.comparingLong(NameCount::getCount).reversed()
+                    .thenComparing(NameCount::getName);
+
+    /**
+     * Nombre.
+     */
+    private final String name;
+    /**
+     * Frecuencia, exacta o estimada por exceso.
+     */
+    private final long count;
+    /**
+     * Cota de cuánto puede exceder count a la frecuencia real.
+     */
+    private final long error;
+
+    /**
+     * Constructor.
+     *
+     * @param setName  Nombre
+     * @param setCount Frecuencia, exacta o estimada por exceso
+     * @param setError Cota de cuánto puede exceder count a la frecuencia real
+     */
+    public NameCount(final String setName, final long setCount, final long setError) {
+        this.name = setName;
+        this.count = setCount;
+        this.error = setError;
+    }
+
+    /**
+     * Recupera el nombre.
+     *
+     * @return El nombre
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Recupera la frecuencia.
+     *
+     * @return La frecuencia, exacta o estimada por exceso
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Recupera la cota del error.
+     *
+     * @return Cuánto puede exceder getCount() a la frecuencia real
+     */
+    public long getError() {
+        return error;
+    }
+
+    /**
+     * Indica si la frecuencia es exacta.
+     *
+     * @return verdadero si el error es 0
+     */
+    public boolean isExact() {
+        return error == 0;
+    }
+
+    @Override
+    public String toString() {
+        return error == 0 ? name + "=" + count : name + "=" + count + "±" + error;
+    }
+}
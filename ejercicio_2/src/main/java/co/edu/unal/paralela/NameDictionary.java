@@ -0,0 +1,107 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario que asigna a cada nombre distinto un identificador entero
+ * consecutivo (0, 1, 2, ...) en orden de primera aparición.
+ *
+ * Permite guardar columnas de nombres como int[] y contar nombres con
+ * histogramas de enteros en lugar de mapas de String. Es seguro para hilos:
+ * la búsqueda de un nombre ya conocido no toma candados ni crea objetos, y
+ * sólo el alta de un nombre nuevo se sincroniza.
+ */
+public final class NameDictionary {
+    /**
+     * Capacidad inicial de la tabla de nombres.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Identificador de cada nombre conocido.
+     */
+    private final ConcurrentHashMap<String, Integer> ids =
+            new ConcurrentHashMap<String, Integer>();
+    /**
+     * Nombre de cada identificador; sólo las primeras size posiciones son
+     * válidas. Al crecer se reemplaza por una copia más grande.
+     */
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+    /**
+     * Número de nombres distintos registrados.
+     */
+    private volatile int size;
+
+    /**
+     * Recupera el identificador de un nombre, registrándolo si es nuevo.
+     *
+     * @param name Nombre a buscar
+     * @return El identificador del nombre
+     */
+    public int idOf(final String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        return add(name);
+    }
+
+    /**
+     * Recupera el identificador de un nombre sin registrarlo.
+     *
+     * @param name Nombre a buscar
+     * @return El identificador del nombre, o -1 si no está registrado
+     */
+    public int lookup(final String name) {
+        final Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Recupera el nombre de un identificador.
+     *
+     * @param id Identificador entre 0 y size() - 1
+     * @return El nombre
+     */
+    public String name(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Identificador " + id + " fuera de [0, " + size + ")");
+        }
+        return names[id];
+    }
+
+    /**
+     * Número de nombres distintos registrados.
+     *
+     * @return El número de nombres
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Registra un nombre nuevo. Se sincroniza para que dos hilos que
+     * encuentran el mismo nombre a la vez obtengan el mismo identificador.
+     *
+     * @param name Nombre a registrar
+     * @return El identificador del nombre
+     */
+    private synchronized int add(final String name) {
+        final Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final int id = size;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, id * 2);
+        }
+        names[id] = name;
+        // @audit-info La escritura volatile de size publica el nombre antes
+        // de que el identificador sea visible en ids.
+        size = id + 1;
+        ids.put(name, id);
+        return id;
+    }
+}
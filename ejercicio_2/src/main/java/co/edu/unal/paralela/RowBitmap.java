@@ -0,0 +1,213 @@
+package co.edu.unal.paralela;
+
+import java.util.stream.IntStream;
+
+/**
+ * Conjunto de filas de una tabla representado como un mapa de bits: el bit
+ * (row % 64) de la palabra row / 64 indica si la fila pertenece al conjunto.
+ *
+ * Las operaciones recorren las palabras en paralelo; cada palabra del
+ * resultado la escribe un único hilo. Los bits de filas mayores o iguales a
+ * size() siempre están en cero.
+ */
+public final class RowBitmap {
+    /**
+     * Palabras del mapa de bits.
+     */
+    private final long[] words;
+    /**
+     * Número de filas que cubre el mapa.
+     */
+    private final int size;
+
+    /**
+     * Constructor. Usa las palabras dadas sin copiarlas.
+     *
+     * @param setWords Palabras del mapa de bits, exactamente wordCount(setSize)
+     * @param setSize  Número de filas que cubre el mapa
+     */
+    RowBitmap(final long[] setWords, final int setSize) {
+        if (setWords.length != wordCount(setSize)) {
+            throw new IllegalArgumentException("Se esperaban " + wordCount(setSize)
+                    + " palabras para " + setSize + " filas, hay " + setWords.length);
+        }
+        this.words = setWords;
+        this.size = setSize;
+    }
+
+    /**
+     * Crea un mapa vacío.
+     *
+     * @param size Número de filas que cubre el mapa
+     * @return El mapa vacío
+     */
+    static RowBitmap empty(final int size) {
+        return new RowBitmap(new long[wordCount(size)], size);
+    }
+
+    /**
+     * Número de palabras necesarias para cubrir un número de filas.
+     *
+     * @param size Número de filas
+     * @return El número de palabras
+     */
+    static int wordCount(final int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Número de filas que cubre el mapa.
+     *
+     * @return El número de filas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Revisa si una fila pertenece al conjunto.
+     *
+     * @param row Fila a revisar
+     * @return verdadero si la fila está en el conjunto
+     */
+    public boolean get(final int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Agrega una fila al conjunto. No es seguro llamarlo desde varios hilos
+     * sobre filas de la misma palabra.
+     *
+     * @param row Fila a agregar
+     */
+    void set(final int row) {
+        words[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Palabras del mapa, sin copiar.
+     *
+     * @return Las palabras
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * Calcula en paralelo el número de filas del conjunto (popcount).
+     *
+     * @return El número de filas
+     */
+    public int cardinality() {
+        return IntStream.range(0, words.length).parallel()
+                .map(w -> Long.bitCount(words[w]))
+                .sum();
+    }
+
+    /**
+     * Intersección con otro conjunto.
+     *
+     * @param other Conjunto de la misma tabla
+     * @return Las filas que están en ambos
+     */
+    public RowBitmap and(final RowBitmap other) {
+        checkSameSize(other);
+        final long[] result = new long[words.length];
+        IntStream.range(0, words.length).parallel()
+                .forEach(w -> result[w] = words[w] & other.words[w]);
+        return new RowBitmap(result, size);
+    }
+
+    /**
+     * Unión con otro conjunto.
+     *
+     * @param other Conjunto de la misma tabla
+     * @return Las filas que están en alguno
+     */
+    public RowBitmap or(final RowBitmap other) {
+        checkSameSize(other);
+        final long[] result = new long[words.length];
+        IntStream.range(0, words.length).parallel()
+                .forEach(w -> result[w] = words[w] | other.words[w]);
+        return new RowBitmap(result, size);
+    }
+
+    /**
+     * Diferencia con otro conjunto.
+     *
+     * @param other Conjunto de la misma tabla
+     * @return Las filas de este conjunto que no están en el otro
+     */
+    public RowBitmap andNot(final RowBitmap other) {
+        checkSameSize(other);
+        final long[] result = new long[words.length];
+        IntStream.range(0, words.length).parallel()
+                .forEach(w -> result[w] = words[w] & ~other.words[w]);
+        return new RowBitmap(result, size);
+    }
+
+    /**
+     * Complemento del conjunto dentro de las filas de la tabla.
+     *
+     * @return Las filas que no están en este conjunto
+     */
+    public RowBitmap not() {
+        final long[] result = new long[words.length];
+        IntStream.range(0, words.length).parallel()
+                .forEach(w -> result[w] = ~words[w] & validMask(w));
+        return new RowBitmap(result, size);
+    }
+
+    /**
+     * Calcula en paralelo el número de filas que están en todos los conjuntos
+     * dados, sin construir la intersección: cada palabra se combina y se
+     * cuenta de una vez.
+     *
+     * @param bitmaps Conjuntos de la misma tabla, al menos uno
+     * @return El número de filas de la intersección
+     */
+    public static int intersectionCount(final RowBitmap... bitmaps) {
+        if (bitmaps.length == 0) {
+            throw new IllegalArgumentException("Se necesita al menos un conjunto");
+        }
+        for (RowBitmap bitmap : bitmaps) {
+            bitmaps[0].checkSameSize(bitmap);
+        }
+        return IntStream.range(0, bitmaps[0].words.length).parallel()
+                .map(w -> {
+                    long word = bitmaps[0].words[w];
+                    for (int b = 1; b < bitmaps.length && word != 0; b++) {
+                        word &= bitmaps[b].words[w];
+                    }
+                    return Long.bitCount(word);
+                })
+                .sum();
+    }
+
+    /**
+     * Máscara de las filas válidas de una palabra.
+     *
+     * @param w Índice de la palabra
+     * @return Los bits de filas menores a size(), 0 si la palabra empieza en
+     *         size() o después
+     */
+    long validMask(final int w) {
+        final long rowsInWord = size - (long) w * Long.SIZE;
+        if (rowsInWord <= 0) {
+            return 0L;
+        }
+        return rowsInWord >= Long.SIZE ? -1L : (1L << rowsInWord) - 1;
+    }
+
+    /**
+     * Verifica que otro conjunto cubra las mismas filas.
+     *
+     * @param other Conjunto a verificar
+     */
+    private void checkSameSize(final RowBitmap other) {
+        if (other.size != size || other.words.length != words.length) {
+            throw new IllegalArgumentException("Los conjuntos cubren " + size
+                    + " y " + other.size + " filas");
+        }
+    }
+}
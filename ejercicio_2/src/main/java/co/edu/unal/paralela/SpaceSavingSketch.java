@@ -0,0 +1,266 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen Space-Saving de los nombres más frecuentes de un flujo, con memoria
+ * acotada por el número de contadores sin importar cuántos nombres distintos
+ * haya.
+ *
+ * Con m contadores y N nombres vistos, cada frecuencia estimada excede a la
+ * real en a lo sumo N / m, y todo nombre que aparece más de N / m veces está
+ * en el resumen. Cuando el resumen está lleno y llega un nombre nuevo, éste
+ * reemplaza al contador mínimo y hereda su frecuencia como error.
+ *
+ * Dos resúmenes se combinan sumando los contadores; a un nombre que falta en
+ * un resumen lleno se le suma el mínimo de ese resumen, que acota su
+ * frecuencia allí, y luego se conservan los m mayores. Así cada hilo puede
+ * llevar su propio resumen y combinarlo al final. Un resumen no es seguro
+ * para varios hilos.
+ */
+public final class SpaceSavingSketch {
+    /**
+     * Número máximo de contadores.
+     */
+    private final int capacity;
+    /**
+     * Contador de cada nombre guardado.
+     */
+    private final Map<String, Integer> slots;
+    /**
+     * Nombre de cada contador.
+     */
+    private final String[] names;
+    /**
+     * Frecuencia estimada de cada contador.
+     */
+    private final long[] counts;
+    /**
+     * Error de cada contador.
+     */
+    private final long[] errors;
+    /**
+     * Montículo de contadores ordenado por frecuencia, con el mínimo en la
+     * raíz.
+     */
+    private final int[] heap;
+    /**
+     * Posición de cada contador en el montículo.
+     */
+    private final int[] heapIndex;
+    /**
+     * Número de contadores en uso.
+     */
+    private int size;
+    /**
+     * Suma de las frecuencias de todos los nombres vistos.
+     */
+    private long total;
+
+    /**
+     * Constructor.
+     *
+     * @param setCapacity Número máximo de contadores
+     */
+    public SpaceSavingSketch(final int setCapacity) {
+        if (setCapacity <= 0) {
+            throw new IllegalArgumentException("Capacidad inválida: " + setCapacity);
+        }
+        this.capacity = setCapacity;
+        this.slots = new HashMap<String, Integer>(2 * setCapacity);
+        this.names = new String[setCapacity];
+        this.counts = new long[setCapacity];
+        this.errors = new long[setCapacity];
+        this.heap = new int[setCapacity];
+        this.heapIndex = new int[setCapacity];
+    }
+
+    /**
+     * Número máximo de contadores.
+     *
+     * @return La capacidad del resumen
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Suma de las frecuencias de todos los nombres vistos.
+     *
+     * @return El total visto
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Cota del error de cualquier frecuencia estimada: el contador mínimo si
+     * el resumen está lleno, 0 si no.
+     *
+     * @return La cota del error
+     */
+    public long maxError() {
+        return size == capacity ? counts[heap[0]] : 0;
+    }
+
+    /**
+     * Cuenta una aparición de un nombre.
+     *
+     * @param name Nombre
+     */
+    public void offer(final String name) {
+        offer(name, 1);
+    }
+
+    /**
+     * Cuenta varias apariciones de un nombre.
+     *
+     * @param name  Nombre
+     * @param delta Número de apariciones, positivo
+     */
+    public void offer(final String name, final long delta) {
+        total += delta;
+        final Integer slot = slots.get(name);
+        if (slot != null) {
+            counts[slot] += delta;
+            siftDown(heapIndex[slot]);
+        } else if (size < capacity) {
+            final int s = size++;
+            names[s] = name;
+            counts[s] = delta;
+            errors[s] = 0;
+            slots.put(name, s);
+            heap[s] = s;
+            heapIndex[s] = s;
+            siftUp(s);
+        } else {
+            final int s = heap[0];
+            slots.remove(names[s]);
+            errors[s] = counts[s];
+            counts[s] += delta;
+            names[s] = name;
+            slots.put(name, s);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Combina en este resumen los nombres de otro, que no se modifica.
+     *
+     * @param other Resumen a combinar, de cualquier capacidad
+     */
+    public void merge(final SpaceSavingSketch other) {
+        final long myMin = maxError();
+        final long otherMin = other.maxError();
+        final List<NameCount> combined = new ArrayList<NameCount>(size + other.size);
+        for (int s = 0; s < size; s++) {
+            final Integer o = other.slots.get(names[s]);
+            combined.add(o == null
+                    ? new NameCount(names[s], counts[s] + otherMin, errors[s] + otherMin)
+                    : new NameCount(names[s], counts[s] + other.counts[o],
+                            errors[s] + other.errors[o]));
+        }
+        for (int o = 0; o < other.size; o++) {
+            if (!slots.containsKey(other.names[o])) {
+                combined.add(new NameCount(other.names[o], other.counts[o] + myMin,
+                        other.errors[o] + myMin));
+            }
+        }
+        combined.sort(NameCount.BY_COUNT_DESCENDING);
+
+        final long newTotal = total + other.total;
+        slots.clear();
+        size = 0;
+        for (int c = 0; c < Math.min(capacity, combined.size()); c++) {
+            final NameCount entry = combined.get(c);
+            names[c] = entry.getName();
+            counts[c] = entry.getCount();
+            errors[c] = entry.getError();
+            slots.put(entry.getName(), c);
+            size++;
+        }
+        // @audit-info Las frecuencias quedaron en orden descendente; se
+        // reconstruye el montículo de mínimos desde las hojas
+        for (int s = 0; s < size; s++) {
+            heap[s] = s;
+            heapIndex[s] = s;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        total = newTotal;
+    }
+
+    /**
+     * Los k nombres con mayor frecuencia estimada, de mayor a menor; los
+     * empates se resuelven a favor del nombre menor en orden de String.
+     *
+     * @param k Número máximo de resultados
+     * @return Los nombres con su frecuencia estimada y su error
+     */
+    public List<NameCount> topK(final int k) {
+        final List<NameCount> all = new ArrayList<NameCount>(size);
+        for (int s = 0; s < size; s++) {
+            all.add(new NameCount(names[s], counts[s], errors[s]));
+        }
+        all.sort(NameCount.BY_COUNT_DESCENDING);
+        return new ArrayList<NameCount>(all.subList(0, Math.max(0, Math.min(k, size))));
+    }
+
+    /**
+     * Sube un contador en el montículo mientras sea menor que su padre.
+     *
+     * @param position Posición en el montículo
+     */
+    private void siftUp(final int position) {
+        int i = position;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[heap[i]]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Baja un contador en el montículo mientras sea mayor que algún hijo.
+     *
+     * @param position Posición en el montículo
+     */
+    private void siftDown(final int position) {
+        int i = position;
+        while (true) {
+            final int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            final int right = left + 1;
+            final int child = right < size && counts[heap[right]] < counts[heap[left]]
+                    ? right : left;
+            if (counts[heap[i]] <= counts[heap[child]]) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Intercambia dos posiciones del montículo.
+     *
+     * @param a Primera posición
+     * @param b Segunda posición
+     */
+    private void swap(final int a, final int b) {
+        final int slotA = heap[a];
+        heap[a] = heap[b];
+        heap[b] = slotA;
+        heapIndex[heap[a]] = a;
+        heapIndex[heap[b]] = b;
+    }
+}
@@ -0,0 +1,137 @@
+package co.edu.unal.paralela;
+
+/**
+ * Agregación que calcula una StudentQuery sobre cada grupo de filas.
+ */
+public final class StudentAggregate {
+    /**
+     * Función de agregación.
+     */
+    enum Function {
+        /**
+         * Número de filas.
+         */
+        COUNT,
+        /**
+         * Suma de una columna.
+         */
+        SUM,
+        /**
+         * Promedio de una columna.
+         */
+        AVG,
+        /**
+         * Mínimo de una columna.
+         */
+        MIN,
+        /**
+         * Máximo de una columna.
+         */
+        MAX
+    }
+
+    /**
+     * Función de agregación.
+     */
+    private final Function function;
+    /**
+     * Columna agregada, o null para COUNT.
+     */
+    private final StudentColumn column;
+
+    /**
+     * Constructor.
+     *
+     * @param setFunction Función de agregación
+     * @param setColumn   Columna agregada
+     */
+    private StudentAggregate(final Function setFunction, final StudentColumn setColumn) {
+        this.function = setFunction;
+        this.column = setColumn;
+    }
+
+    /**
+     * Número de filas de cada grupo.
+     *
+     * @return La agregación
+     */
+    public static StudentAggregate count() {
+        return new StudentAggregate(Function.COUNT, null);
+    }
+
+    /**
+     * Suma de una columna en cada grupo.
+     *
+     * @param column Columna a sumar
+     * @return La agregación
+     */
+    public static StudentAggregate sum(final StudentColumn column) {
+        return new StudentAggregate(Function.SUM, requireColumn(column));
+    }
+
+    /**
+     * Promedio de una columna en cada grupo.
+     *
+     * @param column Columna a promediar
+     * @return La agregación
+     */
+    public static StudentAggregate avg(final StudentColumn column) {
+        return new StudentAggregate(Function.AVG, requireColumn(column));
+    }
+
+    /**
+     * Mínimo de una columna en cada grupo.
+     *
+     * @param column Columna
+     * @return La agregación
+     */
+    public static StudentAggregate min(final StudentColumn column) {
+        return new StudentAggregate(Function.MIN, requireColumn(column));
+    }
+
+    /**
+     * Máximo de una columna en cada grupo.
+     *
+     * @param column Columna
+     * @return La agregación
+     */
+    public static StudentAggregate max(final StudentColumn column) {
+        return new StudentAggregate(Function.MAX, requireColumn(column));
+    }
+
+    /**
+     * Función de agregación.
+     *
+     * @return La función
+     */
+    Function function() {
+        return function;
+    }
+
+    /**
+     * Columna agregada.
+     *
+     * @return La columna, o null para COUNT
+     */
+    StudentColumn column() {
+        return column;
+    }
+
+    /**
+     * Verifica que se haya indicado una columna.
+     *
+     * @param column Columna a verificar
+     * @return La misma columna
+     */
+    private static StudentColumn requireColumn(final StudentColumn column) {
+        if (column == null) {
+            throw new NullPointerException("column");
+        }
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return column == null ? function.toString() : function + "(" + column + ")";
+    }
+}
@@ -1,10 +1,16 @@
 package co.edu.unal.paralela;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.HashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.Arrays;
 
@@ -166,4 +172,422 @@ public final class StudentAnalytics {
                 .filter(student -> !student.checkIsCurrent() && student.getAge() > 20 && student.getGrade() < 65)
                 .count(); // @audit-info Retorna la cuenta de los elementos del stream
     }
+
+    /**
+     * Calcula en paralelo la edad promedio de los estudiantes registrados y
+     * activos sobre una tabla por columnas. Recorre el conjunto de bits de
+     * activos palabra por palabra y sólo lee la edad de las filas activas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Edad promedio de los estudiantes registrados, 0.0 si no hay
+     */
+    public double averageAgeOfEnrolledStudentsColumnar(final StudentTable table) {
+        final double[] ages = table.ageColumn();
+        final long[] current = table.currentBits();
+
+        // @audit-info acc[0] es la suma de edades y acc[1] el número de activos
+        final double[] acc = IntStream.range(0, current.length).parallel().collect(
+                () -> new double[2],
+                (partial, word) -> {
+                    long bits = current[word];
+                    partial[1] += Long.bitCount(bits);
+                    while (bits != 0) {
+                        partial[0] += ages[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                        bits &= bits - 1;
+                    }
+                },
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                });
+
+        return acc[1] == 0 ? 0.0 : acc[0] / acc[1];
+    }
+
+    /**
+     * Calcula en paralelo el nombre más común de los estudiantes que no
+     * están activos sobre una tabla por columnas. Cada hilo cuenta en su
+     * propio histograma indexado por identificador de nombre y los
+     * histogramas se suman al final. Los empates se resuelven a favor del
+     * nombre menor en orden de String.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsColumnar(
+            final StudentTable table) {
+        final int[] ids = table.firstNameIdColumn();
+        final long[] current = table.currentBits();
+        final int nNames = table.getFirstNames().size();
+
+        final IdHistogram counts = IntStream.range(0, table.size()).parallel().collect(
+                () -> new IdHistogram(nNames),
+                (histogram, row) -> {
+                    if ((current[row >>> 6] & (1L << row)) == 0) {
+                        histogram.add(ids[row]);
+                    }
+                },
+                IdHistogram::merge);
+
+        return nameOrEmpty(table.getFirstNames(), counts);
+    }
+
+    /**
+     * Calcula secuencialmente el nombre más común de los estudiantes que no
+     * están activos contando con un histograma de enteros indexado por el
+     * identificador de cada nombre en un diccionario nuevo, sin empaquetar
+     * contadores. Los empates se resuelven a favor del nombre menor en orden
+     * de String.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsDictionaryImperative(
+            final Student[] studentArray) {
+        return mostCommonFirstNameOfInactiveStudentsDictionaryImperative(
+                studentArray, new NameDictionary());
+    }
+
+    /**
+     * Igual que mostCommonFirstNameOfInactiveStudentsDictionaryImperative
+     * con un diccionario provisto por quien llama, que puede reutilizarse
+     * entre llamadas para no volver a registrar los nombres.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @param dictionary   Diccionario de nombres
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsDictionaryImperative(
+            final Student[] studentArray, final NameDictionary dictionary) {
+        final IdHistogram counts = new IdHistogram(dictionary.size());
+
+        for (Student s : studentArray) {
+            if (!s.checkIsCurrent()) {
+                counts.add(dictionary.idOf(s.getFirstName()));
+            }
+        }
+
+        return nameOrEmpty(dictionary, counts);
+    }
+
+    /**
+     * Calcula en paralelo el nombre más común de los estudiantes que no
+     * están activos. Cada hilo del stream cuenta en su propio histograma de
+     * enteros y los histogramas se suman al final, en lugar de combinar
+     * mapas HashMap con contadores Long. Da el mismo resultado que
+     * mostCommonFirstNameOfInactiveStudentsDictionaryImperative.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+            final Student[] studentArray) {
+        return mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+                studentArray, new NameDictionary());
+    }
+
+    /**
+     * Igual que mostCommonFirstNameOfInactiveStudentsDictionaryParallel con
+     * un diccionario provisto por quien llama.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @param dictionary   Diccionario de nombres
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+            final Student[] studentArray, final NameDictionary dictionary) {
+        final int nNames = dictionary.size();
+        final IdHistogram counts = Stream.of(studentArray).parallel().collect(
+                () -> new IdHistogram(nNames),
+                (histogram, student) -> {
+                    if (!student.checkIsCurrent()) {
+                        histogram.add(dictionary.idOf(student.getFirstName()));
+                    }
+                },
+                IdHistogram::merge);
+
+        return nameOrEmpty(dictionary, counts);
+    }
+
+    /**
+     * Nombre más frecuente de un histograma.
+     *
+     * @param dictionary Diccionario de los identificadores
+     * @param counts     Histograma de identificadores
+     * @return El nombre más frecuente, o "" si el histograma está vacío
+     */
+    private static String nameOrEmpty(final NameDictionary dictionary,
+            final IdHistogram counts) {
+        final int best = counts.mostCommon(dictionary);
+        return best < 0 ? "" : dictionary.name(best);
+    }
+
+    /**
+     * Calcula en paralelo el número de estudiantes inactivos mayores de 20
+     * años con nota menor a 65 sobre una tabla por columnas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int countNumberOfFailedStudentsOlderThan20Columnar(
+            final StudentTable table) {
+        final double[] ages = table.ageColumn();
+        final int[] grades = table.gradeColumn();
+        final long[] current = table.currentBits();
+
+        return (int) IntStream.range(0, table.size()).parallel()
+                .filter(row -> (current[row >>> 6] & (1L << row)) == 0
+                        && ages[row] > 20 && grades[row] < 65)
+                .count();
+    }
+
+    /**
+     * Calcula en paralelo las tres métricas (edad promedio de los activos,
+     * nombre más común de los inactivos y estudiantes que perdieron mayores de
+     * 20 años) recorriendo el arreglo una sola vez.
+     *
+     * @param studentArray Datos del estudiante para la clase.
+     * @return Las tres métricas
+     */
+    public StudentAnalyticsResult analyzeAll(final Student[] studentArray) {
+        return analyze(studentArray, EnumSet.allOf(StudentMetric.class));
+    }
+
+    /**
+     * Calcula en paralelo las métricas indicadas recorriendo el arreglo una
+     * sola vez: cada hilo del stream llena su propio acumulador y los
+     * acumuladores se combinan al final. El nombre más común resuelve los
+     * empates como mostCommonFirstNameOfInactiveStudentsDictionaryParallel.
+     *
+     * @param studentArray Datos del estudiante para la clase.
+     * @param metrics      Métricas a calcular
+     * @return Las métricas calculadas
+     */
+    public StudentAnalyticsResult analyze(final Student[] studentArray,
+            final Set<StudentMetric> metrics) {
+        final NameDictionary dictionary = new NameDictionary();
+        return Stream.of(studentArray).parallel().collect(
+                () -> new StudentMetricsAccumulator(metrics, dictionary),
+                StudentMetricsAccumulator::accept,
+                StudentMetricsAccumulator::merge)
+                .toResult(metrics);
+    }
+
+    /**
+     * Calcula el número de estudiantes inactivos mayores de 20 años con nota
+     * menor a 65 intersecando los índices de estado, edad y nota en lugar de
+     * recorrer todas las filas.
+     *
+     * @param index Índices de los datos de los estudiantes
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int countNumberOfFailedStudentsOlderThan20Indexed(final StudentIndex index) {
+        return index.countFailedStudentsOlderThan(20, 65);
+    }
+
+    /**
+     * Calcula la edad promedio de los estudiantes registrados y activos como
+     * una consulta declarativa sobre una tabla por columnas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Edad promedio de los estudiantes registrados, 0.0 si no hay
+     */
+    public double averageAgeOfEnrolledStudentsQuery(final StudentTable table) {
+        return StudentQuery.over(table)
+                .where(StudentFilter.isCurrent())
+                .execute(StudentAggregate.avg(StudentColumn.AGE))
+                .value();
+    }
+
+    /**
+     * Calcula el nombre más común de los estudiantes inactivos como una
+     * consulta declarativa sobre una tabla por columnas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsQuery(final StudentTable table) {
+        return StudentQuery.over(table)
+                .where(StudentFilter.isNotCurrent())
+                .groupByFirstName()
+                .execute(StudentAggregate.count())
+                .topKey();
+    }
+
+    /**
+     * Calcula el número de estudiantes inactivos mayores de 20 años con nota
+     * menor a 65 como una consulta declarativa sobre una tabla por columnas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int countNumberOfFailedStudentsOlderThan20Query(final StudentTable table) {
+        return (int) StudentQuery.over(table)
+                .where(StudentFilter.isNotCurrent(), StudentFilter.ageGreaterThan(20),
+                        StudentFilter.gradeLessThan(65))
+                .execute(StudentAggregate.count())
+                .value();
+    }
+
+    /**
+     * Calcula en paralelo la edad promedio de los estudiantes registrados y
+     * activos directamente sobre las columnas mapeadas de un archivo.
+     *
+     * @param file Columnas mapeadas de un archivo de estudiantes
+     * @return Edad promedio de los estudiantes registrados, 0.0 si no hay
+     */
+    public double averageAgeOfEnrolledStudentsMapped(final StudentColumnFile file) {
+        final DoubleBuffer ages = file.ageColumn();
+        final LongBuffer current = file.currentBits();
+
+        // @audit-info acc[0] es la suma de edades y acc[1] el número de activos
+        final double[] acc = IntStream.range(0, current.limit()).parallel().collect(
+                () -> new double[2],
+                (partial, word) -> {
+                    long bits = current.get(word);
+                    partial[1] += Long.bitCount(bits);
+                    while (bits != 0) {
+                        partial[0] += ages.get((word << 6) + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                },
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                });
+
+        return acc[1] == 0 ? 0.0 : acc[0] / acc[1];
+    }
+
+    /**
+     * Calcula en paralelo el nombre más común de los estudiantes inactivos
+     * directamente sobre las columnas mapeadas de un archivo. Los empates se
+     * resuelven a favor del nombre menor en orden de String.
+     *
+     * @param file Columnas mapeadas de un archivo de estudiantes
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudentsMapped(final StudentColumnFile file) {
+        final IntBuffer ids = file.firstNameIdColumn();
+        final LongBuffer current = file.currentBits();
+        final int nNames = file.getFirstNames().size();
+
+        final IdHistogram counts = IntStream.range(0, file.size()).parallel().collect(
+                () -> new IdHistogram(nNames),
+                (histogram, row) -> {
+                    if ((current.get(row >>> 6) & (1L << row)) == 0) {
+                        histogram.add(ids.get(row));
+                    }
+                },
+                IdHistogram::merge);
+
+        return nameOrEmpty(file.getFirstNames(), counts);
+    }
+
+    /**
+     * Calcula en paralelo el número de estudiantes inactivos mayores de 20
+     * años con nota menor a 65 directamente sobre las columnas mapeadas de un
+     * archivo.
+     *
+     * @param file Columnas mapeadas de un archivo de estudiantes
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int countNumberOfFailedStudentsOlderThan20Mapped(final StudentColumnFile file) {
+        final DoubleBuffer ages = file.ageColumn();
+        final IntBuffer grades = file.gradeColumn();
+        final LongBuffer current = file.currentBits();
+
+        return (int) IntStream.range(0, file.size()).parallel()
+                .filter(row -> (current.get(row >>> 6) & (1L << row)) == 0
+                        && ages.get(row) > 20 && grades.get(row) < 65)
+                .count();
+    }
+
+    /**
+     * Calcula en paralelo los k nombres más comunes de los estudiantes
+     * inactivos con su frecuencia exacta. Cada hilo cuenta en su propio
+     * histograma indexado por identificador de nombre, así que la memoria
+     * crece con el número de nombres distintos.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @param k            Número máximo de nombres
+     * @return Los nombres de mayor a menor frecuencia; los empates a favor del
+     *         nombre menor en orden de String
+     */
+    public List<NameCount> topFirstNamesOfInactiveStudents(final Student[] studentArray,
+            final int k) {
+        final NameDictionary dictionary = new NameDictionary();
+        final IdHistogram counts = Stream.of(studentArray).parallel().collect(
+                IdHistogram::new,
+                (histogram, student) -> {
+                    if (!student.checkIsCurrent()) {
+                        histogram.add(dictionary.idOf(student.getFirstName()));
+                    }
+                },
+                IdHistogram::merge);
+
+        return counts.topK(dictionary, k);
+    }
+
+    /**
+     * Calcula en paralelo los k nombres más comunes de los estudiantes
+     * inactivos con su frecuencia exacta sobre una tabla por columnas.
+     *
+     * @param table Datos de los estudiantes por columnas
+     * @param k     Número máximo de nombres
+     * @return Los nombres de mayor a menor frecuencia; los empates a favor del
+     *         nombre menor en orden de String
+     */
+    public List<NameCount> topFirstNamesOfInactiveStudentsColumnar(final StudentTable table,
+            final int k) {
+        final int[] ids = table.firstNameIdColumn();
+        final long[] current = table.currentBits();
+        final int nNames = table.getFirstNames().size();
+
+        final IdHistogram counts = IntStream.range(0, table.size()).parallel().collect(
+                () -> new IdHistogram(nNames),
+                (histogram, row) -> {
+                    if ((current[row >>> 6] & (1L << row)) == 0) {
+                        histogram.add(ids[row]);
+                    }
+                },
+                IdHistogram::merge);
+
+        return counts.topK(table.getFirstNames(), k);
+    }
+
+    /**
+     * Calcula en paralelo, de forma aproximada, los k nombres más comunes de
+     * los estudiantes inactivos. Cada hilo lleva un SpaceSavingSketch de
+     * counters contadores y los resúmenes se combinan al final, de modo que
+     * la memoria no depende del número de nombres distintos. Con N
+     * estudiantes inactivos, cada frecuencia excede a la real en a lo sumo
+     * N / counters.
+     *
+     * @param studentArray Datos de estudiantes para la clase.
+     * @param k            Número máximo de nombres
+     * @param counters     Contadores de cada resumen, al menos k
+     * @return Los nombres de mayor a menor frecuencia estimada, con su error
+     */
+    public List<NameCount> topFirstNamesOfInactiveStudentsApproximate(
+            final Student[] studentArray, final int k, final int counters) {
+        if (counters < k) {
+            throw new IllegalArgumentException("Se necesitan al menos " + k
+                    + " contadores, hay " + counters);
+        }
+        final SpaceSavingSketch sketch = Stream.of(studentArray).parallel().collect(
+                () -> new SpaceSavingSketch(counters),
+                (partial, student) -> {
+                    if (!student.checkIsCurrent()) {
+                        partial.offer(student.getFirstName());
+                    }
+                },
+                SpaceSavingSketch::merge);
+
+        return sketch.topK(k);
+    }
 }
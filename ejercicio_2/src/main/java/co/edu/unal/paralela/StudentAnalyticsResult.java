@@ -0,0 +1,113 @@
+package co.edu.unal.paralela;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Resultado de calcular varias métricas de estudiantes en una sola pasada.
+ * Consultar una métrica que no se pidió lanza IllegalStateException.
+ */
+public final class StudentAnalyticsResult {
+    /**
+     * Métricas calculadas.
+     */
+    private final Set<StudentMetric> metrics;
+    /**
+     * Edad promedio de los estudiantes registrados y activos.
+     */
+    private final double averageAgeOfEnrolledStudents;
+    /**
+     * Nombre más común de los estudiantes inactivos.
+     */
+    private final String mostCommonFirstNameOfInactiveStudents;
+    /**
+     * Número de estudiantes inactivos mayores de 20 años con nota menor a 65.
+     */
+    private final int numberOfFailedStudentsOlderThan20;
+
+    /**
+     * Constructor.
+     *
+     * @param setMetrics        Métricas calculadas
+     * @param setAverageAge     Edad promedio de los activos
+     * @param setMostCommonName Nombre más común de los inactivos
+     * @param setFailedCount    Número de estudiantes que perdieron
+     */
+    StudentAnalyticsResult(final Set<StudentMetric> setMetrics,
+            final double setAverageAge, final String setMostCommonName,
+            final int setFailedCount) {
+        this.metrics = Collections.unmodifiableSet(setMetrics.isEmpty()
+                ? EnumSet.noneOf(StudentMetric.class) : EnumSet.copyOf(setMetrics));
+        this.averageAgeOfEnrolledStudents = setAverageAge;
+        this.mostCommonFirstNameOfInactiveStudents = setMostCommonName;
+        this.numberOfFailedStudentsOlderThan20 = setFailedCount;
+    }
+
+    /**
+     * Recupera las métricas calculadas.
+     *
+     * @return Las métricas calculadas
+     */
+    public Set<StudentMetric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Recupera la edad promedio de los estudiantes registrados y activos.
+     *
+     * @return Edad promedio de los estudiantes registrados, 0.0 si no hay
+     */
+    public double getAverageAgeOfEnrolledStudents() {
+        require(StudentMetric.AVERAGE_ENROLLED_AGE);
+        return averageAgeOfEnrolledStudents;
+    }
+
+    /**
+     * Recupera el nombre más común de los estudiantes inactivos.
+     *
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String getMostCommonFirstNameOfInactiveStudents() {
+        require(StudentMetric.MOST_COMMON_INACTIVE_FIRST_NAME);
+        return mostCommonFirstNameOfInactiveStudents;
+    }
+
+    /**
+     * Recupera el número de estudiantes inactivos mayores de 20 años con nota
+     * menor a 65.
+     *
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int getNumberOfFailedStudentsOlderThan20() {
+        require(StudentMetric.FAILED_OLDER_THAN_20);
+        return numberOfFailedStudentsOlderThan20;
+    }
+
+    /**
+     * Verifica que una métrica se haya calculado.
+     *
+     * @param metric Métrica consultada
+     */
+    private void require(final StudentMetric metric) {
+        if (!metrics.contains(metric)) {
+            throw new IllegalStateException("La métrica " + metric + " no se calculó");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StudentAnalyticsResult{");
+        if (metrics.contains(StudentMetric.AVERAGE_ENROLLED_AGE)) {
+            sb.append(" edadPromedio=").append(averageAgeOfEnrolledStudents);
+        }
+        if (metrics.contains(StudentMetric.MOST_COMMON_INACTIVE_FIRST_NAME)) {
+            sb.append(" nombreMasComun=").append(mostCommonFirstNameOfInactiveStudents);
+        }
+        if (metrics.contains(StudentMetric.FAILED_OLDER_THAN_20)) {
+            sb.append(" perdidosMayores20=").append(numberOfFailedStudentsOlderThan20);
+        }
+        return sb.append(" }").toString();
+    }
+}
@@ -0,0 +1,276 @@
+package co.edu.unal.paralela;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Vista viva de las métricas de StudentAnalytics que se mantiene al día con
+ * eventos de alta, baja y actualización de estudiantes en lugar de recorrer
+ * todos los datos en cada consulta.
+ *
+ * Guarda la suma y el número de edades de los activos, el conteo de nombres
+ * de los inactivos junto con los nombres agrupados por conteo (para seguir el
+ * máximo aunque los conteos bajen) y el número de estudiantes que perdieron
+ * mayores de 20 años. Los eventos se aplican bajo un candado y cada uno
+ * publica las tres respuestas juntas en un StudentAnalyticsResult inmutable
+ * detrás de una sola referencia volatile, así que las consultas son lecturas
+ * de tiempo constante sin candado y snapshot() nunca mezcla respuestas de
+ * eventos distintos.
+ *
+ * Como Student no tiene identificador, quitar o reemplazar un estudiante
+ * significa quitar sus valores de los agregados: quien llama debe pasar los
+ * mismos datos que agregó.
+ */
+public final class StudentAnalyticsView {
+    /**
+     * Métricas que publica la vista.
+     */
+    private static final Set<StudentMetric> ALL_METRICS =
+            EnumSet.allOf(StudentMetric.class);
+
+    /**
+     * Diccionario de nombres de los inactivos.
+     */
+    private final NameDictionary dictionary = new NameDictionary();
+    /**
+     * Conteo de cada nombre entre los inactivos.
+     */
+    private final IdHistogram inactiveNames = new IdHistogram();
+    /**
+     * Nombres inactivos agrupados por su conteo; sólo hay entradas para los
+     * conteos positivos que tiene algún nombre, así que la última entrada es
+     * la del mayor conteo.
+     */
+    private final TreeMap<Long, TreeSet<String>> namesByCount =
+            new TreeMap<Long, TreeSet<String>>();
+    /**
+     * Suma de las edades de los activos.
+     */
+    private double enrolledAgeSum;
+    /**
+     * Número de activos.
+     */
+    private long enrolledCount;
+    /**
+     * Número de estudiantes que perdieron mayores de 20 años.
+     */
+    private long failedCount;
+
+    /**
+     * Respuestas publicadas; se reemplaza completo en cada evento.
+     */
+    private volatile StudentAnalyticsResult snapshot =
+            new StudentAnalyticsResult(ALL_METRICS, 0.0, "", 0);
+
+    /**
+     * Constructor. Crea una vista vacía.
+     */
+    public StudentAnalyticsView() {
+    }
+
+    /**
+     * Crea una vista con los estudiantes de un arreglo. Los agregados
+     * iniciales se calculan con una pasada paralela.
+     *
+     * @param studentArray Datos iniciales de los estudiantes
+     * @return La vista
+     */
+    public static StudentAnalyticsView of(final Student[] studentArray) {
+        final StudentAnalyticsView view = new StudentAnalyticsView();
+        view.addAll(studentArray);
+        return view;
+    }
+
+    /**
+     * Agrega un lote de estudiantes. Los agregados del lote se calculan en
+     * una sola pasada paralela, con un acumulador por hilo como en
+     * StudentAnalytics.analyzeAll, y luego se aplican bajo el candado.
+     *
+     * @param studentArray Estudiantes a agregar
+     */
+    public void addAll(final Student[] studentArray) {
+        final StudentMetricsAccumulator batch = Stream.of(studentArray).parallel().collect(
+                () -> new StudentMetricsAccumulator(ALL_METRICS, dictionary),
+                StudentMetricsAccumulator::accept,
+                StudentMetricsAccumulator::merge);
+
+        synchronized (this) {
+            enrolledAgeSum += batch.enrolledAgeSum();
+            enrolledCount += batch.enrolledCount();
+            failedCount += batch.failedCount();
+            final IdHistogram batchNames = batch.inactiveNames();
+            for (int id = 0; id < dictionary.size(); id++) {
+                final long delta = batchNames.count(id);
+                if (delta != 0) {
+                    changeNameCount(id, delta);
+                }
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Agrega un estudiante.
+     *
+     * @param student Estudiante a agregar
+     */
+    public synchronized void add(final Student student) {
+        apply(student, 1);
+        publish();
+    }
+
+    /**
+     * Quita un estudiante agregado antes. Si no hay un estudiante con esos
+     * datos la vista no cambia.
+     *
+     * @param student Datos del estudiante a quitar
+     * @throws IllegalStateException si no hay un estudiante que quitar
+     */
+    public synchronized void remove(final Student student) {
+        apply(student, -1);
+        publish();
+    }
+
+    /**
+     * Reemplaza los datos de un estudiante, por ejemplo al cambiar su estado
+     * o su nota. Las consultas nunca ven el estado intermedio.
+     *
+     * @param oldStudent Datos anteriores del estudiante
+     * @param newStudent Datos nuevos del estudiante
+     * @throws IllegalStateException si no hay un estudiante con los datos
+     *                               anteriores; la vista no cambia
+     */
+    public synchronized void update(final Student oldStudent, final Student newStudent) {
+        apply(oldStudent, -1);
+        apply(newStudent, 1);
+        publish();
+    }
+
+    /**
+     * Recupera las tres respuestas publicadas por el mismo evento.
+     *
+     * @return Las respuestas, con todas las métricas calculadas
+     */
+    public StudentAnalyticsResult snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Recupera la edad promedio de los estudiantes registrados y activos.
+     *
+     * @return Edad promedio de los estudiantes registrados, 0.0 si no hay
+     */
+    public double averageAgeOfEnrolledStudents() {
+        return snapshot.getAverageAgeOfEnrolledStudents();
+    }
+
+    /**
+     * Recupera el nombre más común de los estudiantes inactivos. Los empates
+     * se resuelven a favor del nombre menor en orden de String.
+     *
+     * @return Nombre más común de los estudiantes inactivos, "" si no hay
+     */
+    public String mostCommonFirstNameOfInactiveStudents() {
+        return snapshot.getMostCommonFirstNameOfInactiveStudents();
+    }
+
+    /**
+     * Recupera el número de estudiantes inactivos mayores de 20 años con nota
+     * menor a 65.
+     *
+     * @return Cantidad de calificaciones perdidas de estudiantes mayores de
+     *         20 años de edad
+     */
+    public int countNumberOfFailedStudentsOlderThan20() {
+        return snapshot.getNumberOfFailedStudentsOlderThan20();
+    }
+
+    /**
+     * Aplica un estudiante a los agregados con signo +1 (alta) o -1 (baja).
+     * Una baja se valida antes de modificar algo. Debe llamarse con el
+     * candado tomado.
+     *
+     * @param student Estudiante a aplicar
+     * @param sign    +1 para agregar, -1 para quitar
+     */
+    private void apply(final Student student, final int sign) {
+        if (student.checkIsCurrent()) {
+            if (sign < 0 && enrolledCount == 0) {
+                throw new IllegalStateException("No hay estudiantes activos para quitar");
+            }
+            enrolledAgeSum += sign * student.getAge();
+            enrolledCount += sign;
+            return;
+        }
+
+        // @audit-info Una baja busca el nombre sin registrarlo, para que un
+        // nombre desconocido no quede en el diccionario.
+        final int id = sign < 0 ? dictionary.lookup(student.getFirstName())
+                : dictionary.idOf(student.getFirstName());
+        final boolean failedStudent = isFailedOlderThan20(student);
+        if (sign < 0 && (id < 0 || inactiveNames.count(id) == 0
+                || (failedStudent && failedCount == 0))) {
+            throw new IllegalStateException("No hay estudiantes inactivos llamados "
+                    + student.getFirstName() + " para quitar");
+        }
+        changeNameCount(id, sign);
+        if (failedStudent) {
+            failedCount += sign;
+        }
+    }
+
+    /**
+     * Cambia el conteo de un nombre inactivo y lo mueve al grupo de su nuevo
+     * conteo. Debe llamarse con el candado tomado.
+     *
+     * @param id    Identificador del nombre
+     * @param delta Cambio del conteo
+     */
+    private void changeNameCount(final int id, final long delta) {
+        final String name = dictionary.name(id);
+        final long oldCount = inactiveNames.count(id);
+        final long newCount = oldCount + delta;
+        inactiveNames.add(id, delta);
+
+        if (oldCount > 0) {
+            final TreeSet<String> oldGroup = namesByCount.get(oldCount);
+            oldGroup.remove(name);
+            if (oldGroup.isEmpty()) {
+                namesByCount.remove(oldCount);
+            }
+        }
+        if (newCount > 0) {
+            TreeSet<String> newGroup = namesByCount.get(newCount);
+            if (newGroup == null) {
+                newGroup = new TreeSet<String>();
+                namesByCount.put(newCount, newGroup);
+            }
+            newGroup.add(name);
+        }
+    }
+
+    /**
+     * Publica las respuestas de las consultas. Debe llamarse con el candado
+     * tomado.
+     */
+    private void publish() {
+        snapshot = new StudentAnalyticsResult(ALL_METRICS,
+                enrolledCount == 0 ? 0.0 : enrolledAgeSum / enrolledCount,
+                namesByCount.isEmpty() ? "" : namesByCount.lastEntry().getValue().first(),
+                (int) failedCount);
+    }
+
+    /**
+     * Revisa si un estudiante está inactivo, es mayor de 20 años y tiene
+     * nota menor a 65.
+     *
+     * @param student Estudiante a revisar
+     * @return verdadero si el estudiante perdió y es mayor de 20 años
+     */
+    private static boolean isFailedOlderThan20(final Student student) {
+        return !student.checkIsCurrent() && student.getAge() > 20 && student.getGrade() < 65;
+    }
+}
@@ -0,0 +1,15 @@
+package co.edu.unal.paralela;
+
+/**
+ * Columnas numéricas de una StudentTable sobre las que se puede agregar.
+ */
+public enum StudentColumn {
+    /**
+     * Edad del estudiante.
+     */
+    AGE,
+    /**
+     * Nota del estudiante.
+     */
+    GRADE
+}
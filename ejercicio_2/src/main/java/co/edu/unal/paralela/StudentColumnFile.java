@@ -0,0 +1,571 @@
+package co.edu.unal.paralela;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Archivo binario por columnas con los datos de los estudiantes, y lector que
+ * lo mapea en memoria.
+ *
+ * El archivo empieza con un encabezado de HEADER_BYTES bytes (número mágico,
+ * versión, número de filas y posición de cada sección) seguido de siete
+ * secciones alineadas a 8 bytes: edades (double), notas (int), conjunto de
+ * bits de activos (long), identificadores de nombre y de apellido (int) y las
+ * tablas de nombres y de apellidos. Cada tabla de nombres guarda el número de
+ * nombres, la posición de cada uno y sus bytes en UTF-8, en el orden de sus
+ * identificadores. Todos los números están en little-endian.
+ *
+ * Abrir el archivo sólo mapea las secciones y decodifica las tablas de
+ * nombres; las columnas se leen directamente desde el mapeo, sin copiarlas
+ * al heap. Cada sección puede tener a lo sumo Integer.MAX_VALUE bytes.
+ */
+public final class StudentColumnFile {
+    /**
+     * Número mágico: "STUC" en ASCII.
+     */
+    public static final int MAGIC = 0x53545543;
+    /**
+     * Versión del formato que escribe y lee esta clase.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Tamaño del encabezado, en bytes.
+     */
+    static final int HEADER_BYTES = 80;
+    /**
+     * Número de secciones.
+     */
+    private static final int SECTIONS = 7;
+    /**
+     * Posición de la sección de edades en la tabla de secciones.
+     */
+    private static final int AGES = 0;
+    /**
+     * Posición de la sección de notas en la tabla de secciones.
+     */
+    private static final int GRADES = 1;
+    /**
+     * Posición de la sección de activos en la tabla de secciones.
+     */
+    private static final int CURRENT = 2;
+    /**
+     * Posición de la sección de identificadores de nombre.
+     */
+    private static final int FIRST_NAME_IDS = 3;
+    /**
+     * Posición de la sección de identificadores de apellido.
+     */
+    private static final int LAST_NAME_IDS = 4;
+    /**
+     * Posición de la tabla de nombres.
+     */
+    private static final int FIRST_NAMES = 5;
+    /**
+     * Posición de la tabla de apellidos.
+     */
+    private static final int LAST_NAMES = 6;
+    /**
+     * Número de elementos que copia cada tarea al escribir o copiar columnas.
+     */
+    private static final int BLOCK = 1 << 16;
+
+    /**
+     * Edad de cada estudiante.
+     */
+    private final DoubleBuffer ages;
+    /**
+     * Nota de cada estudiante.
+     */
+    private final IntBuffer grades;
+    /**
+     * Conjunto de bits de estudiantes activos.
+     */
+    private final LongBuffer current;
+    /**
+     * Identificador del nombre de cada estudiante.
+     */
+    private final IntBuffer firstNameIds;
+    /**
+     * Identificador del apellido de cada estudiante.
+     */
+    private final IntBuffer lastNameIds;
+    /**
+     * Diccionario de nombres.
+     */
+    private final NameDictionary firstNames;
+    /**
+     * Diccionario de apellidos.
+     */
+    private final NameDictionary lastNames;
+    /**
+     * Número de filas.
+     */
+    private final int size;
+
+    /**
+     * Constructor.
+     *
+     * @param setAges         Edad de cada estudiante
+     * @param setGrades       Nota de cada estudiante
+     * @param setCurrent      Conjunto de bits de estudiantes activos
+     * @param setFirstNameIds Identificador del nombre de cada estudiante
+     * @param setLastNameIds  Identificador del apellido de cada estudiante
+     * @param setFirstNames   Diccionario de nombres
+     * @param setLastNames    Diccionario de apellidos
+     * @param setSize         Número de filas
+     */
+    private StudentColumnFile(final DoubleBuffer setAges, final IntBuffer setGrades,
+            final LongBuffer setCurrent, final IntBuffer setFirstNameIds,
+            final IntBuffer setLastNameIds, final NameDictionary setFirstNames,
+            final NameDictionary setLastNames, final int setSize) {
+        this.ages = setAges;
+        this.grades = setGrades;
+        this.current = setCurrent;
+        this.firstNameIds = setFirstNameIds;
+        this.lastNameIds = setLastNameIds;
+        this.firstNames = setFirstNames;
+        this.lastNames = setLastNames;
+        this.size = setSize;
+    }
+
+    /**
+     * Escribe una tabla en un archivo, reemplazándolo si existe. Las columnas
+     * se copian en paralelo a secciones mapeadas del archivo; el encabezado se
+     * escribe al final, así que un archivo a medio escribir se rechaza al
+     * abrirlo.
+     *
+     * @param table Tabla a escribir
+     * @param file  Archivo de destino
+     * @throws IOException Si el archivo no se puede escribir
+     */
+    public static void write(final StudentTable table, final Path file) throws IOException {
+        final int n = table.size();
+        final int nWords = RowBitmap.wordCount(n);
+        final byte[][] firstNameBytes = encode(table.getFirstNames());
+        final byte[][] lastNameBytes = encode(table.getLastNames());
+
+        final long[] lengths = new long[SECTIONS];
+        lengths[AGES] = (long) n * Double.BYTES;
+        lengths[GRADES] = (long) n * Integer.BYTES;
+        lengths[CURRENT] = (long) nWords * Long.BYTES;
+        lengths[FIRST_NAME_IDS] = (long) n * Integer.BYTES;
+        lengths[LAST_NAME_IDS] = (long) n * Integer.BYTES;
+        lengths[FIRST_NAMES] = nameTableBytes(firstNameBytes);
+        lengths[LAST_NAMES] = nameTableBytes(lastNameBytes);
+        final long[] offsets = new long[SECTIONS + 1];
+        offsets[0] = HEADER_BYTES;
+        for (int s = 0; s < SECTIONS; s++) {
+            offsets[s + 1] = align(offsets[s] + lengths[s]);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final MappedByteBuffer[] sections = new MappedByteBuffer[SECTIONS];
+            for (int s = 0; s < SECTIONS; s++) {
+                sections[s] = map(channel, FileChannel.MapMode.READ_WRITE, offsets[s],
+                        offsets[s + 1] - offsets[s]);
+            }
+
+            final double[] ageColumn = table.ageColumn();
+            final int[] gradeColumn = table.gradeColumn();
+            final long[] currentBits = table.currentBits();
+            final int[] firstNameIdColumn = table.firstNameIdColumn();
+            final int[] lastNameIdColumn = table.lastNameIdColumn();
+            final DoubleBuffer ageOut = sections[AGES].asDoubleBuffer();
+            final IntBuffer gradeOut = sections[GRADES].asIntBuffer();
+            final LongBuffer currentOut = sections[CURRENT].asLongBuffer();
+            final IntBuffer firstNameIdOut = sections[FIRST_NAME_IDS].asIntBuffer();
+            final IntBuffer lastNameIdOut = sections[LAST_NAME_IDS].asIntBuffer();
+            IntStream.range(0, blocks(n)).parallel().forEach(block -> {
+                final int from = block * BLOCK;
+                final int length = Math.min(BLOCK, n - from);
+                ((DoubleBuffer) ageOut.duplicate().position(from)).put(ageColumn, from, length);
+                ((IntBuffer) gradeOut.duplicate().position(from)).put(gradeColumn, from, length);
+                ((IntBuffer) firstNameIdOut.duplicate().position(from))
+                        .put(firstNameIdColumn, from, length);
+                ((IntBuffer) lastNameIdOut.duplicate().position(from))
+                        .put(lastNameIdColumn, from, length);
+            });
+            currentOut.put(currentBits, 0, nWords);
+            writeNameTable(sections[FIRST_NAMES], firstNameBytes);
+            writeNameTable(sections[LAST_NAMES], lastNameBytes);
+            for (MappedByteBuffer section : sections) {
+                section.force();
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0);
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Abre un archivo escrito con write y mapea sus columnas.
+     *
+     * @param file Archivo a abrir
+     * @return Las columnas del archivo
+     * @throws IOException Si el archivo no se puede leer, no tiene el formato
+     *                     o es de una versión que no se conoce
+     */
+    public static StudentColumnFile open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // @audit-info Lee hasta llenar el encabezado o llegar al final
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(file + " no es un archivo de estudiantes por columnas");
+            }
+            final int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException(file + " tiene la versión " + version
+                        + "; sólo se conoce la versión " + VERSION);
+            }
+            final int n = header.getInt(8);
+            final long[] offsets = new long[SECTIONS + 1];
+            for (int s = 0; s <= SECTIONS; s++) {
+                offsets[s] = header.getLong(16 + s * Long.BYTES);
+            }
+
+            final long[] lengths = new long[SECTIONS];
+            lengths[AGES] = (long) n * Double.BYTES;
+            lengths[GRADES] = (long) n * Integer.BYTES;
+            lengths[CURRENT] = (long) RowBitmap.wordCount(Math.max(0, n)) * Long.BYTES;
+            lengths[FIRST_NAME_IDS] = (long) n * Integer.BYTES;
+            lengths[LAST_NAME_IDS] = (long) n * Integer.BYTES;
+            long previous = HEADER_BYTES;
+            for (int s = 0; s < SECTIONS; s++) {
+                if (s < FIRST_NAMES) {
+                    if (offsets[s + 1] - offsets[s] < lengths[s]) {
+                        throw new IOException(file + " tiene la sección " + s + " incompleta");
+                    }
+                } else {
+                    lengths[s] = offsets[s + 1] - offsets[s];
+                }
+                if (n < 0 || offsets[s] < previous || offsets[s + 1] < offsets[s]) {
+                    throw new IOException(file + " tiene un encabezado inválido");
+                }
+                previous = offsets[s + 1];
+            }
+            if (offsets[SECTIONS] > channel.size()) {
+                throw new IOException(file + " está truncado");
+            }
+
+            final MappedByteBuffer[] sections = new MappedByteBuffer[SECTIONS];
+            for (int s = 0; s < SECTIONS; s++) {
+                sections[s] = map(channel, FileChannel.MapMode.READ_ONLY, offsets[s], lengths[s]);
+            }
+            return new StudentColumnFile(sections[AGES].asDoubleBuffer(),
+                    sections[GRADES].asIntBuffer(), sections[CURRENT].asLongBuffer(),
+                    sections[FIRST_NAME_IDS].asIntBuffer(),
+                    sections[LAST_NAME_IDS].asIntBuffer(),
+                    readNameTable(sections[FIRST_NAMES], file),
+                    readNameTable(sections[LAST_NAMES], file), n);
+        }
+    }
+
+    /**
+     * Número de filas.
+     *
+     * @return El número de filas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Recupera la edad de una fila.
+     *
+     * @param row Fila
+     * @return La edad del estudiante
+     */
+    public double getAge(final int row) {
+        checkRow(row);
+        return ages.get(row);
+    }
+
+    /**
+     * Recupera la nota de una fila.
+     *
+     * @param row Fila
+     * @return La nota del estudiante
+     */
+    public int getGrade(final int row) {
+        checkRow(row);
+        return grades.get(row);
+    }
+
+    /**
+     * Indica si el estudiante de una fila está activo.
+     *
+     * @param row Fila
+     * @return verdadero si el estudiante está activo
+     */
+    public boolean isCurrent(final int row) {
+        checkRow(row);
+        return (current.get(row >>> 6) & (1L << row)) != 0;
+    }
+
+    /**
+     * Recupera el nombre de una fila.
+     *
+     * @param row Fila
+     * @return El nombre del estudiante
+     */
+    public String getFirstName(final int row) {
+        checkRow(row);
+        return firstNames.name(firstNameIds.get(row));
+    }
+
+    /**
+     * Recupera el apellido de una fila.
+     *
+     * @param row Fila
+     * @return El apellido del estudiante
+     */
+    public String getLastName(final int row) {
+        checkRow(row);
+        return lastNames.name(lastNameIds.get(row));
+    }
+
+    /**
+     * Recupera el diccionario de nombres.
+     *
+     * @return El diccionario de nombres
+     */
+    public NameDictionary getFirstNames() {
+        return firstNames;
+    }
+
+    /**
+     * Recupera el diccionario de apellidos.
+     *
+     * @return El diccionario de apellidos
+     */
+    public NameDictionary getLastNames() {
+        return lastNames;
+    }
+
+    /**
+     * Copia las columnas mapeadas a una tabla en el heap, en paralelo. La
+     * tabla comparte los diccionarios de este archivo.
+     *
+     * @return La tabla con las mismas filas
+     */
+    public StudentTable toTable() {
+        final double[] ageColumn = new double[size];
+        final int[] gradeColumn = new int[size];
+        final long[] currentBits = new long[RowBitmap.wordCount(size)];
+        final int[] firstNameIdColumn = new int[size];
+        final int[] lastNameIdColumn = new int[size];
+
+        IntStream.range(0, blocks(size)).parallel().forEach(block -> {
+            final int from = block * BLOCK;
+            final int length = Math.min(BLOCK, size - from);
+            ((DoubleBuffer) ages.duplicate().position(from)).get(ageColumn, from, length);
+            ((IntBuffer) grades.duplicate().position(from)).get(gradeColumn, from, length);
+            ((IntBuffer) firstNameIds.duplicate().position(from))
+                    .get(firstNameIdColumn, from, length);
+            ((IntBuffer) lastNameIds.duplicate().position(from))
+                    .get(lastNameIdColumn, from, length);
+        });
+        current.duplicate().get(currentBits);
+
+        return new StudentTable(ageColumn, gradeColumn, currentBits, firstNameIdColumn,
+                lastNameIdColumn, firstNames, lastNames, size);
+    }
+
+    /**
+     * Columna de edades mapeada. Sólo se debe leer con get absoluto.
+     *
+     * @return La columna de edades
+     */
+    DoubleBuffer ageColumn() {
+        return ages;
+    }
+
+    /**
+     * Columna de notas mapeada. Sólo se debe leer con get absoluto.
+     *
+     * @return La columna de notas
+     */
+    IntBuffer gradeColumn() {
+        return grades;
+    }
+
+    /**
+     * Conjunto de bits de activos mapeado. Sólo se debe leer con get
+     * absoluto.
+     *
+     * @return El conjunto de bits de activos
+     */
+    LongBuffer currentBits() {
+        return current;
+    }
+
+    /**
+     * Columna de identificadores de nombre mapeada. Sólo se debe leer con get
+     * absoluto.
+     *
+     * @return La columna de identificadores de nombre
+     */
+    IntBuffer firstNameIdColumn() {
+        return firstNameIds;
+    }
+
+    /**
+     * Verifica que una fila exista.
+     *
+     * @param row Fila
+     */
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Fila " + row + " fuera de [0, " + size + ")");
+        }
+    }
+
+    /**
+     * Mapea una sección del archivo en little-endian.
+     *
+     * @param channel Canal del archivo
+     * @param mode    Modo del mapeo
+     * @param offset  Posición de la sección
+     * @param length  Longitud de la sección
+     * @return La sección mapeada
+     * @throws IOException Si la sección es muy grande o no se puede mapear
+     */
+    private static MappedByteBuffer map(final FileChannel channel,
+            final FileChannel.MapMode mode, final long offset, final long length)
+            throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Sección de " + length + " bytes; el máximo es "
+                    + Integer.MAX_VALUE);
+        }
+        final MappedByteBuffer section = channel.map(mode, offset, length);
+        section.order(ByteOrder.LITTLE_ENDIAN);
+        return section;
+    }
+
+    /**
+     * Número de bloques de BLOCK elementos que cubren n elementos.
+     *
+     * @param n Número de elementos
+     * @return El número de bloques
+     */
+    private static int blocks(final int n) {
+        return (int) (((long) n + BLOCK - 1) / BLOCK);
+    }
+
+    /**
+     * Redondea una posición al siguiente múltiplo de 8.
+     *
+     * @param offset Posición
+     * @return La posición alineada
+     */
+    private static long align(final long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Codifica en UTF-8 los nombres de un diccionario, en el orden de sus
+     * identificadores.
+     *
+     * @param dictionary Diccionario
+     * @return Los bytes de cada nombre
+     */
+    private static byte[][] encode(final NameDictionary dictionary) {
+        final byte[][] bytes = new byte[dictionary.size()][];
+        for (int id = 0; id < bytes.length; id++) {
+            bytes[id] = dictionary.name(id).getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    /**
+     * Tamaño de una tabla de nombres: el número de nombres, count + 1
+     * posiciones y los bytes de los nombres.
+     *
+     * @param names Bytes de cada nombre
+     * @return El tamaño de la tabla en bytes
+     */
+    private static long nameTableBytes(final byte[][] names) {
+        long bytes = Integer.BYTES * (2L + names.length);
+        for (byte[] name : names) {
+            bytes += name.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Escribe una tabla de nombres.
+     *
+     * @param out   Sección de destino
+     * @param names Bytes de cada nombre
+     */
+    private static void writeNameTable(final ByteBuffer out, final byte[][] names) {
+        out.putInt(names.length);
+        int position = 0;
+        out.putInt(position);
+        for (byte[] name : names) {
+            position += name.length;
+            out.putInt(position);
+        }
+        for (byte[] name : names) {
+            out.put(name);
+        }
+    }
+
+    /**
+     * Lee una tabla de nombres en un diccionario nuevo, de modo que cada
+     * nombre conserve su identificador.
+     *
+     * @param in   Sección de origen
+     * @param file Archivo, para los errores
+     * @return El diccionario
+     * @throws IOException Si la tabla está mal formada
+     */
+    private static NameDictionary readNameTable(final ByteBuffer in, final Path file)
+            throws IOException {
+        final NameDictionary dictionary = new NameDictionary();
+        final int count = in.remaining() < Integer.BYTES ? -1 : in.getInt(0);
+        final long dataStart = Integer.BYTES * (2L + count);
+        if (count < 0 || dataStart > in.limit()) {
+            throw new IOException(file + " tiene una tabla de nombres inválida");
+        }
+        int previous = 0;
+        for (int id = 0; id < count; id++) {
+            final int end = in.getInt(Integer.BYTES * (2 + id));
+            if (end < previous || dataStart + end > in.limit()) {
+                throw new IOException(file + " tiene una tabla de nombres inválida");
+            }
+            final byte[] name = new byte[end - previous];
+            ((ByteBuffer) in.duplicate().position((int) dataStart + previous)).get(name);
+            if (dictionary.idOf(new String(name, StandardCharsets.UTF_8)) != id) {
+                throw new IOException(file + " tiene nombres repetidos");
+            }
+            previous = end;
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,684 @@
+package co.edu.unal.paralela;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Cargador paralelo de archivos delimitados de estudiantes, con una fila por
+ * línea en el orden nombre, apellido, edad, nota y estado (true/false o
+ * 1/0).
+ *
+ * El archivo se parte en secciones que terminan en un fin de línea, cada
+ * sección se mapea en memoria y las secciones se leen en paralelo. Los campos
+ * numéricos se interpretan directamente desde los bytes mapeados, sin crear
+ * un String por campo; los nombres se buscan en una tabla local de cada
+ * sección que compara bytes, de modo que sólo se crea un String la primera
+ * vez que la sección ve cada nombre distinto.
+ *
+ * Además de construir una StudentTable o un Student[], el cargador tiene un
+ * modo streaming que entrega cada fila a un StudentRowSink por sección y
+ * combina los destinos al final, sin guardar las filas.
+ */
+public final class StudentCsvLoader {
+    /**
+     * Tamaño mínimo de una sección, en bytes.
+     */
+    static final int MIN_CHUNK_BYTES = 64 * 1024;
+    /**
+     * Tamaño máximo de una sección, en bytes.
+     */
+    static final int MAX_CHUNK_BYTES = 16 * 1024 * 1024;
+    /**
+     * Mayor entero que un double representa exactamente junto con todos los
+     * menores: 2^53.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /**
+     * Potencias de 10 exactas en double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    /**
+     * Separador de campos.
+     */
+    private final byte delimiter;
+    /**
+     * Si la primera línea del archivo es un encabezado.
+     */
+    private final boolean hasHeader;
+
+    /**
+     * Constructor. Usa comas como separador y no espera encabezado.
+     */
+    public StudentCsvLoader() {
+        this(',', false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param setDelimiter Separador de campos, un carácter ASCII
+     * @param setHasHeader Si la primera línea del archivo es un encabezado
+     */
+    public StudentCsvLoader(final char setDelimiter, final boolean setHasHeader) {
+        if (setDelimiter >= 128 || setDelimiter == '\n' || setDelimiter == '\r') {
+            throw new IllegalArgumentException("Separador inválido: " + setDelimiter);
+        }
+        this.delimiter = (byte) setDelimiter;
+        this.hasHeader = setHasHeader;
+    }
+
+    /**
+     * Carga un archivo en una tabla por columnas.
+     *
+     * @param file Archivo a cargar
+     * @return La tabla, con las filas en el orden del archivo
+     * @throws IOException Si el archivo no se puede leer o tiene una línea mal
+     *                     formada
+     */
+    public StudentTable loadTable(final Path file) throws IOException {
+        final NameDictionary firstNames = new NameDictionary();
+        final NameDictionary lastNames = new NameDictionary();
+        final List<ColumnSink> chunks = parseChunks(file, firstNames, lastNames,
+                ColumnSink::new);
+
+        final int[] starts = new int[chunks.size() + 1];
+        for (int c = 0; c < chunks.size(); c++) {
+            final long next = (long) starts[c] + chunks.get(c).size;
+            if (next > Integer.MAX_VALUE) {
+                throw new IOException(file + " tiene más de " + Integer.MAX_VALUE + " filas");
+            }
+            starts[c + 1] = (int) next;
+        }
+        final int size = starts[chunks.size()];
+        final double[] ages = new double[size];
+        final int[] grades = new int[size];
+        final int[] firstNameIds = new int[size];
+        final int[] lastNameIds = new int[size];
+        final boolean[] flags = new boolean[size];
+
+        IntStream.range(0, chunks.size()).parallel().forEach(c -> {
+            final ColumnSink chunk = chunks.get(c);
+            System.arraycopy(chunk.ages, 0, ages, starts[c], chunk.size);
+            System.arraycopy(chunk.grades, 0, grades, starts[c], chunk.size);
+            System.arraycopy(chunk.firstNameIds, 0, firstNameIds, starts[c], chunk.size);
+            System.arraycopy(chunk.lastNameIds, 0, lastNameIds, starts[c], chunk.size);
+            System.arraycopy(chunk.current, 0, flags, starts[c], chunk.size);
+        });
+        final long[] current = new long[RowBitmap.wordCount(size)];
+        IntStream.range(0, current.length).parallel().forEach(w -> {
+            final int to = Math.min(size, (w + 1) * Long.SIZE);
+            long bits = 0;
+            for (int row = w * Long.SIZE; row < to; row++) {
+                if (flags[row]) {
+                    bits |= 1L << row;
+                }
+            }
+            current[w] = bits;
+        });
+
+        return new StudentTable(ages, grades, current, firstNameIds, lastNameIds,
+                firstNames, lastNames, size);
+    }
+
+    /**
+     * Carga un archivo en un arreglo de estudiantes. Los estudiantes con el
+     * mismo nombre comparten la misma instancia de String.
+     *
+     * @param file Archivo a cargar
+     * @return Los estudiantes, en el orden del archivo
+     * @throws IOException Si el archivo no se puede leer o tiene una línea mal
+     *                     formada
+     */
+    public Student[] loadStudents(final Path file) throws IOException {
+        final StudentTable table = loadTable(file);
+        final Student[] students = new Student[table.size()];
+        IntStream.range(0, students.length).parallel()
+                .forEach(row -> students[row] = table.toStudent(row));
+        return students;
+    }
+
+    /**
+     * Lee un archivo en modo streaming: cada sección entrega sus filas a un
+     * destino propio creado con newSink y al final los destinos se combinan
+     * en el orden de las secciones con merge(primero, siguiente). Las filas no
+     * se guardan en ningún lado.
+     *
+     * @param <A>        Tipo del destino
+     * @param file       Archivo a leer
+     * @param firstNames Diccionario donde se registran los nombres
+     * @param lastNames  Diccionario donde se registran los apellidos
+     * @param newSink    Crea un destino vacío
+     * @param merge      Combina en el primer destino las filas del segundo
+     * @return El destino con todas las filas combinadas
+     * @throws IOException Si el archivo no se puede leer o tiene una línea mal
+     *                     formada
+     */
+    public <A extends StudentRowSink> A stream(final Path file,
+            final NameDictionary firstNames, final NameDictionary lastNames,
+            final Supplier<A> newSink, final BiConsumer<A, A> merge) throws IOException {
+        final List<A> chunks = parseChunks(file, firstNames, lastNames, newSink);
+        final A result = chunks.get(0);
+        for (int c = 1; c < chunks.size(); c++) {
+            merge.accept(result, chunks.get(c));
+        }
+        return result;
+    }
+
+    /**
+     * Lee todas las secciones en paralelo.
+     *
+     * @param <A>        Tipo del destino
+     * @param file       Archivo a leer
+     * @param firstNames Diccionario de nombres
+     * @param lastNames  Diccionario de apellidos
+     * @param newSink    Crea un destino vacío por sección
+     * @return El destino de cada sección, en orden; al menos uno
+     * @throws IOException Si el archivo no se puede leer o tiene una línea mal
+     *                     formada
+     */
+    private <A extends StudentRowSink> List<A> parseChunks(final Path file,
+            final NameDictionary firstNames, final NameDictionary lastNames,
+            final Supplier<A> newSink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = splitPoints(channel, channel.size(),
+                    Runtime.getRuntime().availableProcessors());
+            try {
+                return IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(c -> {
+                            final A sink = newSink.get();
+                            try {
+                                final MappedByteBuffer buffer = channel.map(
+                                        FileChannel.MapMode.READ_ONLY, bounds[c],
+                                        bounds[c + 1] - bounds[c]);
+                                new ChunkParser(buffer, bounds[c], firstNames, lastNames)
+                                        .parse(sink, c == 0 && hasHeader);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return sink;
+                        })
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Calcula los límites de las secciones: posiciones nominales del mismo
+     * tamaño, cada una movida hasta justo después del siguiente fin de línea.
+     *
+     * @param channel     Canal del archivo
+     * @param size        Tamaño del archivo
+     * @param parallelism Número de hilos esperado
+     * @return Los límites, empezando en 0 y terminando en size; al menos dos
+     * @throws IOException Si el archivo no se puede leer
+     */
+    static long[] splitPoints(final FileChannel channel, final long size,
+            final int parallelism) throws IOException {
+        final long chunkBytes = Math.max(MIN_CHUNK_BYTES,
+                Math.min(MAX_CHUNK_BYTES, size / (4L * parallelism)));
+        final int nChunks = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+        final long[] bounds = new long[nChunks + 1];
+        final ByteBuffer window = ByteBuffer.allocate(4096);
+
+        for (int c = 1; c < nChunks; c++) {
+            long pos = Math.max(bounds[c - 1], (long) c * chunkBytes - 1);
+            long bound = size;
+            search:
+            while (pos < size) {
+                window.clear();
+                final int read = channel.read(window, pos);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') {
+                        bound = pos + i + 1;
+                        break search;
+                    }
+                }
+                pos += read;
+            }
+            bounds[c] = bound;
+        }
+        bounds[nChunks] = size;
+        return bounds;
+    }
+
+    /**
+     * Lector de una sección mapeada.
+     */
+    private final class ChunkParser {
+        /**
+         * Bytes de la sección.
+         */
+        private final ByteBuffer buffer;
+        /**
+         * Posición de la sección en el archivo, para los mensajes de error.
+         */
+        private final long baseOffset;
+        /**
+         * Nombres vistos por esta sección.
+         */
+        private final NameCache firstNames;
+        /**
+         * Apellidos vistos por esta sección.
+         */
+        private final NameCache lastNames;
+        /**
+         * Posición de cada separador de la línea actual.
+         */
+        private final int[] delimiters = new int[4];
+
+        /**
+         * Constructor.
+         *
+         * @param setBuffer     Bytes de la sección
+         * @param setBaseOffset Posición de la sección en el archivo
+         * @param firstNameDict Diccionario de nombres
+         * @param lastNameDict  Diccionario de apellidos
+         */
+        ChunkParser(final ByteBuffer setBuffer, final long setBaseOffset,
+                final NameDictionary firstNameDict, final NameDictionary lastNameDict) {
+            this.buffer = setBuffer;
+            this.baseOffset = setBaseOffset;
+            this.firstNames = new NameCache(firstNameDict);
+            this.lastNames = new NameCache(lastNameDict);
+        }
+
+        /**
+         * Lee todas las líneas de la sección.
+         *
+         * @param sink       Destino de las filas
+         * @param skipHeader Si se salta la primera línea
+         * @throws IOException Si una línea está mal formada
+         */
+        void parse(final StudentRowSink sink, final boolean skipHeader) throws IOException {
+            final int limit = buffer.limit();
+            int lineStart = 0;
+            boolean skip = skipHeader;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                int nDelimiters = 0;
+                boolean extra = false;
+                while (lineEnd < limit) {
+                    final byte b = buffer.get(lineEnd);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (b == delimiter) {
+                        if (nDelimiters < delimiters.length) {
+                            delimiters[nDelimiters] = lineEnd;
+                        } else {
+                            extra = true;
+                        }
+                        nDelimiters++;
+                    }
+                    lineEnd++;
+                }
+                final int next = lineEnd + 1;
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+
+                if (skip) {
+                    skip = false;
+                } else if (lineEnd > lineStart) {
+                    if (nDelimiters != delimiters.length || extra) {
+                        throw malformed(lineStart, "se esperaban 5 campos");
+                    }
+                    sink.accept(
+                            firstNames.idOf(buffer, lineStart, delimiters[0]),
+                            lastNames.idOf(buffer, delimiters[0] + 1, delimiters[1]),
+                            parseDouble(delimiters[1] + 1, delimiters[2], lineStart),
+                            parseInt(delimiters[2] + 1, delimiters[3], lineStart),
+                            parseBoolean(delimiters[3] + 1, lineEnd, lineStart));
+                }
+                lineStart = next;
+            }
+        }
+
+        /**
+         * Interpreta un entero decimal.
+         *
+         * @param from      Inicio inclusivo del campo
+         * @param to        Fin exclusivo del campo
+         * @param lineStart Inicio de la línea, para los errores
+         * @return El entero
+         * @throws IOException Si el campo no es un entero
+         */
+        private int parseInt(final int from, final int to, final int lineStart)
+                throws IOException {
+            int i = from;
+            final boolean negative = i < to && buffer.get(i) == '-';
+            if (negative || (i < to && buffer.get(i) == '+')) {
+                i++;
+            }
+            if (i == to) {
+                throw malformed(lineStart, "nota vacía");
+            }
+            long value = 0;
+            for (; i < to; i++) {
+                final int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                    throw malformed(lineStart, "nota inválida");
+                }
+                value = value * 10 + digit;
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+                throw malformed(lineStart, "nota fuera de rango");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Interpreta un decimal. Los números sin exponente cuya mantisa es
+         * exacta en double y con a lo sumo 22 decimales se calculan con una
+         * sola división, que da el double correctamente redondeado; el resto
+         * se delega a Double.parseDouble.
+         *
+         * @param from      Inicio inclusivo del campo
+         * @param to        Fin exclusivo del campo
+         * @param lineStart Inicio de la línea, para los errores
+         * @return El decimal
+         * @throws IOException Si el campo no es un decimal
+         */
+        private double parseDouble(final int from, final int to, final int lineStart)
+                throws IOException {
+            int i = from;
+            final boolean negative = i < to && buffer.get(i) == '-';
+            if (negative || (i < to && buffer.get(i) == '+')) {
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int decimals = -1;
+            boolean fast = true;
+            for (; i < to && fast; i++) {
+                final byte b = buffer.get(i);
+                if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                    fast = mantissa <= MAX_EXACT_MANTISSA;
+                } else {
+                    fast = false;
+                }
+            }
+            if (fast && digits > 0 && decimals < POWERS_OF_TEN.length) {
+                final double value = decimals <= 0 ? mantissa
+                        : mantissa / POWERS_OF_TEN[decimals];
+                return negative ? -value : value;
+            }
+
+            final byte[] bytes = new byte[to - from];
+            for (int k = 0; k < bytes.length; k++) {
+                bytes[k] = buffer.get(from + k);
+            }
+            try {
+                return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw malformed(lineStart, "edad inválida");
+            }
+        }
+
+        /**
+         * Interpreta un estado: true, false, 1 o 0, sin distinguir mayúsculas.
+         *
+         * @param from      Inicio inclusivo del campo
+         * @param to        Fin exclusivo del campo
+         * @param lineStart Inicio de la línea, para los errores
+         * @return El estado
+         * @throws IOException Si el campo no es un estado
+         */
+        private boolean parseBoolean(final int from, final int to, final int lineStart)
+                throws IOException {
+            if (to - from == 1) {
+                final byte b = buffer.get(from);
+                if (b == '1' || b == '0') {
+                    return b == '1';
+                }
+            } else if (matches(from, to, "true")) {
+                return true;
+            } else if (matches(from, to, "false")) {
+                return false;
+            }
+            throw malformed(lineStart, "estado inválido");
+        }
+
+        /**
+         * Compara un campo con una palabra ASCII en minúsculas, sin distinguir
+         * mayúsculas.
+         *
+         * @param from Inicio inclusivo del campo
+         * @param to   Fin exclusivo del campo
+         * @param word Palabra en minúsculas
+         * @return verdadero si el campo es la palabra
+         */
+        private boolean matches(final int from, final int to, final String word) {
+            if (to - from != word.length()) {
+                return false;
+            }
+            for (int k = 0; k < word.length(); k++) {
+                if ((buffer.get(from + k) | 0x20) != word.charAt(k)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Crea el error de una línea mal formada.
+         *
+         * @param lineStart Inicio de la línea en la sección
+         * @param reason    Motivo
+         * @return El error
+         */
+        private IOException malformed(final int lineStart, final String reason) {
+            return new IOException("Línea mal formada en el byte "
+                    + (baseOffset + lineStart) + ": " + reason);
+        }
+    }
+
+    /**
+     * Tabla local de una sección que asocia los bytes de un nombre con su
+     * identificador en un NameDictionary, con direccionamiento abierto.
+     */
+    static final class NameCache {
+        /**
+         * Diccionario global.
+         */
+        private final NameDictionary dictionary;
+        /**
+         * Bytes de cada nombre guardado, o null en las posiciones libres.
+         */
+        private byte[][] keys = new byte[16][];
+        /**
+         * Identificador de cada nombre guardado.
+         */
+        private int[] ids = new int[16];
+        /**
+         * Número de nombres guardados.
+         */
+        private int count;
+
+        /**
+         * Constructor.
+         *
+         * @param setDictionary Diccionario global
+         */
+        NameCache(final NameDictionary setDictionary) {
+            this.dictionary = setDictionary;
+        }
+
+        /**
+         * Busca el identificador del nombre buffer[from, to).
+         *
+         * @param buffer Bytes de la sección
+         * @param from   Inicio inclusivo del nombre
+         * @param to     Fin exclusivo del nombre
+         * @return El identificador del nombre
+         */
+        int idOf(final ByteBuffer buffer, final int from, final int to) {
+            final int mask = keys.length - 1;
+            int slot = hash(buffer, from, to) & mask;
+            while (keys[slot] != null) {
+                if (equalBytes(keys[slot], buffer, from, to)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            final byte[] key = new byte[to - from];
+            for (int k = 0; k < key.length; k++) {
+                key[k] = buffer.get(from + k);
+            }
+            final int id = dictionary.idOf(new String(key, StandardCharsets.UTF_8));
+            keys[slot] = key;
+            ids[slot] = id;
+            if (++count * 2 > keys.length) {
+                grow();
+            }
+            return id;
+        }
+
+        /**
+         * Duplica la capacidad de la tabla.
+         */
+        private void grow() {
+            final byte[][] oldKeys = keys;
+            final int[] oldIds = ids;
+            keys = new byte[oldKeys.length * 2][];
+            ids = new int[oldKeys.length * 2];
+            final int mask = keys.length - 1;
+            for (int s = 0; s < oldKeys.length; s++) {
+                if (oldKeys[s] != null) {
+                    int slot = hash(ByteBuffer.wrap(oldKeys[s]), 0, oldKeys[s].length) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[s];
+                    ids[slot] = oldIds[s];
+                }
+            }
+        }
+
+        /**
+         * Número de nombres guardados.
+         *
+         * @return El número de nombres distintos vistos por la sección
+         */
+        int size() {
+            return count;
+        }
+
+        /**
+         * Hash disperso de buffer[from, to), el mismo al buscar y al crecer.
+         *
+         * @param buffer Bytes
+         * @param from   Inicio inclusivo
+         * @param to     Fin exclusivo
+         * @return El hash
+         */
+        static int hash(final ByteBuffer buffer, final int from, final int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Compara un nombre guardado con buffer[from, to).
+         *
+         * @param key    Nombre guardado
+         * @param buffer Bytes de la sección
+         * @param from   Inicio inclusivo
+         * @param to     Fin exclusivo
+         * @return verdadero si son iguales
+         */
+        private static boolean equalBytes(final byte[] key, final ByteBuffer buffer,
+                final int from, final int to) {
+            if (key.length != to - from) {
+                return false;
+            }
+            for (int k = 0; k < key.length; k++) {
+                if (key[k] != buffer.get(from + k)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Destino que guarda las filas de una sección en columnas que crecen.
+     */
+    private static final class ColumnSink implements StudentRowSink {
+        /**
+         * Edades.
+         */
+        private double[] ages = new double[1024];
+        /**
+         * Notas.
+         */
+        private int[] grades = new int[1024];
+        /**
+         * Identificadores de nombre.
+         */
+        private int[] firstNameIds = new int[1024];
+        /**
+         * Identificadores de apellido.
+         */
+        private int[] lastNameIds = new int[1024];
+        /**
+         * Estados.
+         */
+        private boolean[] current = new boolean[1024];
+        /**
+         * Número de filas.
+         */
+        private int size;
+
+        @Override
+        public void accept(final int firstNameId, final int lastNameId,
+                final double age, final int grade, final boolean isCurrent) {
+            if (size == ages.length) {
+                final int capacity = size * 2;
+                ages = Arrays.copyOf(ages, capacity);
+                grades = Arrays.copyOf(grades, capacity);
+                firstNameIds = Arrays.copyOf(firstNameIds, capacity);
+                lastNameIds = Arrays.copyOf(lastNameIds, capacity);
+                current = Arrays.copyOf(current, capacity);
+            }
+            ages[size] = age;
+            grades[size] = grade;
+            firstNameIds[size] = firstNameId;
+            lastNameIds[size] = lastNameId;
+            current[size] = isCurrent;
+            size++;
+        }
+    }
+}
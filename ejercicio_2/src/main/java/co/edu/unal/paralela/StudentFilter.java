@@ -0,0 +1,271 @@
+package co.edu.unal.paralela;
+
+/**
+ * Predicado sobre una fila de StudentTable para usar en StudentQuery. Los
+ * predicados de una consulta se combinan con AND.
+ */
+public final class StudentFilter {
+    /**
+     * Atributo que revisa el predicado.
+     */
+    enum Target {
+        /**
+         * Estado (activo o no).
+         */
+        STATUS,
+        /**
+         * Edad.
+         */
+        AGE,
+        /**
+         * Nota.
+         */
+        GRADE,
+        /**
+         * Nombre.
+         */
+        FIRST_NAME,
+        /**
+         * Apellido.
+         */
+        LAST_NAME
+    }
+
+    /**
+     * Comparación del predicado.
+     */
+    enum Op {
+        /**
+         * Menor que.
+         */
+        LT,
+        /**
+         * Menor o igual que.
+         */
+        LE,
+        /**
+         * Mayor que.
+         */
+        GT,
+        /**
+         * Mayor o igual que.
+         */
+        GE,
+        /**
+         * Igual a.
+         */
+        EQ
+    }
+
+    /**
+     * Atributo que revisa el predicado.
+     */
+    private final Target target;
+    /**
+     * Comparación del predicado.
+     */
+    private final Op op;
+    /**
+     * Valor numérico, o 1/0 para el estado.
+     */
+    private final double value;
+    /**
+     * Nombre buscado, para los predicados de nombre.
+     */
+    private final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param setTarget Atributo que revisa el predicado
+     * @param setOp     Comparación del predicado
+     * @param setValue  Valor numérico
+     * @param setName   Nombre buscado
+     */
+    private StudentFilter(final Target setTarget, final Op setOp,
+            final double setValue, final String setName) {
+        this.target = setTarget;
+        this.op = setOp;
+        this.value = setValue;
+        this.name = setName;
+    }
+
+    /**
+     * Estudiantes registrados y activos.
+     *
+     * @return El predicado
+     */
+    public static StudentFilter isCurrent() {
+        return new StudentFilter(Target.STATUS, Op.EQ, 1, null);
+    }
+
+    /**
+     * Estudiantes que no están activos.
+     *
+     * @return El predicado
+     */
+    public static StudentFilter isNotCurrent() {
+        return new StudentFilter(Target.STATUS, Op.EQ, 0, null);
+    }
+
+    /**
+     * Estudiantes con edad estrictamente mayor a un umbral.
+     *
+     * @param age Umbral de edad
+     * @return El predicado
+     */
+    public static StudentFilter ageGreaterThan(final double age) {
+        return new StudentFilter(Target.AGE, Op.GT, age, null);
+    }
+
+    /**
+     * Estudiantes con edad mayor o igual a un umbral.
+     *
+     * @param age Umbral de edad
+     * @return El predicado
+     */
+    public static StudentFilter ageAtLeast(final double age) {
+        return new StudentFilter(Target.AGE, Op.GE, age, null);
+    }
+
+    /**
+     * Estudiantes con edad estrictamente menor a un umbral.
+     *
+     * @param age Umbral de edad
+     * @return El predicado
+     */
+    public static StudentFilter ageLessThan(final double age) {
+        return new StudentFilter(Target.AGE, Op.LT, age, null);
+    }
+
+    /**
+     * Estudiantes con edad menor o igual a un umbral.
+     *
+     * @param age Umbral de edad
+     * @return El predicado
+     */
+    public static StudentFilter ageAtMost(final double age) {
+        return new StudentFilter(Target.AGE, Op.LE, age, null);
+    }
+
+    /**
+     * Estudiantes con una edad dada.
+     *
+     * @param age Edad buscada
+     * @return El predicado
+     */
+    public static StudentFilter ageIs(final double age) {
+        return new StudentFilter(Target.AGE, Op.EQ, age, null);
+    }
+
+    /**
+     * Estudiantes con nota estrictamente mayor a un umbral.
+     *
+     * @param grade Umbral de nota
+     * @return El predicado
+     */
+    public static StudentFilter gradeGreaterThan(final int grade) {
+        return new StudentFilter(Target.GRADE, Op.GT, grade, null);
+    }
+
+    /**
+     * Estudiantes con nota mayor o igual a un umbral.
+     *
+     * @param grade Umbral de nota
+     * @return El predicado
+     */
+    public static StudentFilter gradeAtLeast(final int grade) {
+        return new StudentFilter(Target.GRADE, Op.GE, grade, null);
+    }
+
+    /**
+     * Estudiantes con nota estrictamente menor a un umbral.
+     *
+     * @param grade Umbral de nota
+     * @return El predicado
+     */
+    public static StudentFilter gradeLessThan(final int grade) {
+        return new StudentFilter(Target.GRADE, Op.LT, grade, null);
+    }
+
+    /**
+     * Estudiantes con nota menor o igual a un umbral.
+     *
+     * @param grade Umbral de nota
+     * @return El predicado
+     */
+    public static StudentFilter gradeAtMost(final int grade) {
+        return new StudentFilter(Target.GRADE, Op.LE, grade, null);
+    }
+
+    /**
+     * Estudiantes con una nota dada.
+     *
+     * @param grade Nota buscada
+     * @return El predicado
+     */
+    public static StudentFilter gradeIs(final int grade) {
+        return new StudentFilter(Target.GRADE, Op.EQ, grade, null);
+    }
+
+    /**
+     * Estudiantes con un nombre dado.
+     *
+     * @param firstName Nombre buscado
+     * @return El predicado
+     */
+    public static StudentFilter firstNameIs(final String firstName) {
+        return new StudentFilter(Target.FIRST_NAME, Op.EQ, 0, firstName);
+    }
+
+    /**
+     * Estudiantes con un apellido dado.
+     *
+     * @param lastName Apellido buscado
+     * @return El predicado
+     */
+    public static StudentFilter lastNameIs(final String lastName) {
+        return new StudentFilter(Target.LAST_NAME, Op.EQ, 0, lastName);
+    }
+
+    /**
+     * Atributo que revisa el predicado.
+     *
+     * @return El atributo
+     */
+    Target target() {
+        return target;
+    }
+
+    /**
+     * Comparación del predicado.
+     *
+     * @return La comparación
+     */
+    Op op() {
+        return op;
+    }
+
+    /**
+     * Valor numérico del predicado.
+     *
+     * @return El valor
+     */
+    double value() {
+        return value;
+    }
+
+    /**
+     * Nombre buscado por el predicado.
+     *
+     * @return El nombre
+     */
+    String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return target + " " + op + " " + (name != null ? name : String.valueOf(value));
+    }
+}
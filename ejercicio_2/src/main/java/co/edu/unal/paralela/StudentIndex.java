@@ -0,0 +1,325 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Índices secundarios sobre una StudentTable para responder predicados de
+ * rango y conjunciones sin recorrer todas las filas.
+ *
+ * Se construyen una vez, en paralelo:
+ * <ul>
+ * <li>un mapa de bits de estudiantes activos (el de la tabla);</li>
+ * <li>un índice de rango de edades: AGE_BUCKETS intervalos del mismo ancho
+ * entre la edad mínima y la máxima, con un mapa de bits por intervalo y una
+ * permutación de las filas agrupadas por intervalo;</li>
+ * <li>un índice de rango de notas: GRADE_BUCKETS intervalos enteros del
+ * mismo ancho entre la nota mínima y la máxima, con un mapa de bits por
+ * intervalo.</li>
+ * </ul>
+ * Un predicado de rango une los mapas de los intervalos que cumplen por
+ * completo y sólo revisa fila por fila el intervalo del borde. Las
+ * conjunciones se resuelven intersecando mapas y contando bits en paralelo.
+ */
+public final class StudentIndex {
+    /**
+     * Número de intervalos del índice de edades.
+     */
+    static final int AGE_BUCKETS = 64;
+    /**
+     * Número de intervalos del índice de notas.
+     */
+    static final int GRADE_BUCKETS = 16;
+
+    /**
+     * Tabla indexada.
+     */
+    private final StudentTable table;
+    /**
+     * Número de filas indexadas.
+     */
+    private final int size;
+    /**
+     * Estudiantes activos.
+     */
+    private final RowBitmap current;
+    /**
+     * Edad mínima de la tabla.
+     */
+    private final double minAge;
+    /**
+     * Ancho de cada intervalo de edades.
+     */
+    private final double ageBucketWidth;
+    /**
+     * Filas de cada intervalo de edades.
+     */
+    private final RowBitmap[] ageBuckets;
+    /**
+     * Filas agrupadas por intervalo de edades, en orden de fila dentro de
+     * cada intervalo.
+     */
+    private final int[] rowsByAgeBucket;
+    /**
+     * Posición en rowsByAgeBucket donde inicia cada intervalo; tiene un
+     * elemento extra al final.
+     */
+    private final int[] ageBucketStarts;
+    /**
+     * Nota mínima de la tabla.
+     */
+    private final int minGrade;
+    /**
+     * Ancho de cada intervalo de notas.
+     */
+    private final long gradeBucketWidth;
+    /**
+     * Filas de cada intervalo de notas.
+     */
+    private final RowBitmap[] gradeBuckets;
+
+    /**
+     * Constructor. Construye los índices en paralelo.
+     *
+     * @param setTable Tabla a indexar; no debe cambiar mientras se use el
+     *                 índice
+     */
+    private StudentIndex(final StudentTable setTable) {
+        this.table = setTable;
+        this.size = setTable.size();
+        // @audit-info currentBits() tiene tantas palabras como la capacidad de
+        // la tabla; el índice sólo cubre las filas ocupadas
+        this.current = new RowBitmap(Arrays.copyOf(setTable.currentBits(),
+                RowBitmap.wordCount(size)), size);
+
+        final double[] ages = setTable.ageColumn();
+        final int[] grades = setTable.gradeColumn();
+        this.minAge = IntStream.range(0, size).parallel()
+                .mapToDouble(row -> ages[row]).min().orElse(0.0);
+        final double maxAge = IntStream.range(0, size).parallel()
+                .mapToDouble(row -> ages[row]).max().orElse(0.0);
+        final double width = (maxAge - minAge) / AGE_BUCKETS;
+        this.ageBucketWidth = width > 0 ? width : 1.0;
+        this.minGrade = IntStream.range(0, size).parallel()
+                .map(row -> grades[row]).min().orElse(0);
+        final int maxGrade = IntStream.range(0, size).parallel()
+                .map(row -> grades[row]).max().orElse(0);
+        // @audit-info En long porque maxGrade - minGrade puede desbordar un
+        // int; GRADE_BUCKETS intervalos de este ancho cubren todo el rango
+        final long gradeRange = (long) maxGrade - minGrade + 1;
+        this.gradeBucketWidth = (gradeRange + GRADE_BUCKETS - 1) / GRADE_BUCKETS;
+
+        this.ageBuckets = newBitmaps(AGE_BUCKETS);
+        this.gradeBuckets = newBitmaps(GRADE_BUCKETS);
+        // @audit-info Cada hilo llena las mismas palabras en todos los
+        // intervalos, así que ninguna palabra se escribe desde dos hilos.
+        IntStream.range(0, RowBitmap.wordCount(size)).parallel().forEach(w -> {
+            final int to = Math.min(size, (w + 1) * Long.SIZE);
+            for (int row = w * Long.SIZE; row < to; row++) {
+                ageBuckets[ageBucket(ages[row])].set(row);
+                gradeBuckets[gradeBucket(grades[row])].set(row);
+            }
+        });
+
+        this.ageBucketStarts = new int[AGE_BUCKETS + 1];
+        for (int b = 0; b < AGE_BUCKETS; b++) {
+            ageBucketStarts[b + 1] = ageBucketStarts[b] + ageBuckets[b].cardinality();
+        }
+        this.rowsByAgeBucket = new int[size];
+        IntStream.range(0, AGE_BUCKETS).parallel().forEach(b -> {
+            final long[] words = ageBuckets[b].words();
+            int next = ageBucketStarts[b];
+            for (int w = 0; w < words.length; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    rowsByAgeBucket[next++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+        });
+    }
+
+    /**
+     * Construye los índices de una tabla en paralelo.
+     *
+     * @param table Tabla a indexar; no debe cambiar mientras se use el índice
+     * @return Los índices
+     */
+    public static StudentIndex build(final StudentTable table) {
+        return new StudentIndex(table);
+    }
+
+    /**
+     * Número de filas indexadas.
+     *
+     * @return El número de filas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Estudiantes registrados y activos.
+     *
+     * @return Las filas de los activos
+     */
+    public RowBitmap current() {
+        return current;
+    }
+
+    /**
+     * Estudiantes que no están activos.
+     *
+     * @return Las filas de los inactivos
+     */
+    public RowBitmap inactive() {
+        return current.not();
+    }
+
+    /**
+     * Estudiantes con edad estrictamente mayor a un umbral.
+     *
+     * @param threshold Umbral de edad
+     * @return Las filas que cumplen el predicado
+     */
+    public RowBitmap ageGreaterThan(final double threshold) {
+        if (threshold < minAge) {
+            return RowBitmap.empty(size).not();
+        }
+        final double[] ages = table.ageColumn();
+        final int boundary = ageBucket(threshold);
+        final RowBitmap result = unionOfBuckets(ageBuckets, boundary + 1, AGE_BUCKETS);
+
+        // @audit-info Sólo las filas del intervalo del borde se revisan una
+        // por una; son contiguas en la permutación agrupada por intervalo.
+        for (int i = ageBucketStarts[boundary]; i < ageBucketStarts[boundary + 1]; i++) {
+            final int row = rowsByAgeBucket[i];
+            if (ages[row] > threshold) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estudiantes con edad menor o igual a un umbral.
+     *
+     * @param threshold Umbral de edad
+     * @return Las filas que cumplen el predicado
+     */
+    public RowBitmap ageAtMost(final double threshold) {
+        return ageGreaterThan(threshold).not();
+    }
+
+    /**
+     * Estudiantes con nota estrictamente menor a un umbral.
+     *
+     * @param threshold Umbral de nota
+     * @return Las filas que cumplen el predicado
+     */
+    public RowBitmap gradeLessThan(final int threshold) {
+        if (threshold <= minGrade) {
+            return RowBitmap.empty(size);
+        }
+        final int[] grades = table.gradeColumn();
+        final int boundary = gradeBucket(threshold);
+        final RowBitmap result = unionOfBuckets(gradeBuckets, 0, boundary);
+
+        final long[] boundaryWords = gradeBuckets[boundary].words();
+        final long[] words = result.words();
+        IntStream.range(0, words.length).parallel().forEach(w -> {
+            long bits = boundaryWords[w];
+            while (bits != 0) {
+                final int bit = Long.numberOfTrailingZeros(bits);
+                if (grades[(w << 6) + bit] < threshold) {
+                    words[w] |= 1L << bit;
+                }
+                bits &= bits - 1;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Estudiantes con nota mayor o igual a un umbral.
+     *
+     * @param threshold Umbral de nota
+     * @return Las filas que cumplen el predicado
+     */
+    public RowBitmap gradeAtLeast(final int threshold) {
+        return gradeLessThan(threshold).not();
+    }
+
+    /**
+     * Cuenta los estudiantes inactivos con edad mayor a ageThreshold y nota
+     * menor a gradeThreshold intersecando los índices.
+     *
+     * @param ageThreshold   Umbral de edad
+     * @param gradeThreshold Umbral de nota
+     * @return El número de estudiantes que cumplen los tres predicados
+     */
+    public int countFailedStudentsOlderThan(final double ageThreshold,
+            final int gradeThreshold) {
+        return RowBitmap.intersectionCount(inactive(), ageGreaterThan(ageThreshold),
+                gradeLessThan(gradeThreshold));
+    }
+
+    /**
+     * Intervalo de edades de una edad, limitado a [0, AGE_BUCKETS).
+     *
+     * @param age Edad
+     * @return El intervalo
+     */
+    private int ageBucket(final double age) {
+        final double bucket = Math.floor((age - minAge) / ageBucketWidth);
+        return (int) Math.max(0, Math.min(AGE_BUCKETS - 1, bucket));
+    }
+
+    /**
+     * Intervalo de notas de una nota, limitado a [0, GRADE_BUCKETS).
+     *
+     * @param grade Nota
+     * @return El intervalo
+     */
+    private int gradeBucket(final int grade) {
+        final long bucket = ((long) grade - minGrade) / gradeBucketWidth;
+        return (int) Math.max(0, Math.min(GRADE_BUCKETS - 1, bucket));
+    }
+
+    /**
+     * Crea mapas de bits vacíos.
+     *
+     * @param count Número de mapas
+     * @return Los mapas
+     */
+    private RowBitmap[] newBitmaps(final int count) {
+        final RowBitmap[] bitmaps = new RowBitmap[count];
+        for (int b = 0; b < count; b++) {
+            bitmaps[b] = RowBitmap.empty(size);
+        }
+        return bitmaps;
+    }
+
+    /**
+     * Une en paralelo los mapas de un rango de intervalos.
+     *
+     * @param buckets Mapas de los intervalos
+     * @param from    Primer intervalo inclusivo
+     * @param to      Último intervalo exclusivo
+     * @return Las filas de los intervalos
+     */
+    private RowBitmap unionOfBuckets(final RowBitmap[] buckets, final int from,
+            final int to) {
+        final long[] result = new long[RowBitmap.wordCount(size)];
+        if (from < to) {
+            IntStream.range(0, result.length).parallel().forEach(w -> {
+                long word = 0;
+                for (int b = from; b < to; b++) {
+                    word |= buckets[b].words()[w];
+                }
+                result[w] = word;
+            });
+        }
+        return new RowBitmap(result, size);
+    }
+}
@@ -0,0 +1,19 @@
+package co.edu.unal.paralela;
+
+/**
+ * Métricas que StudentAnalytics puede calcular juntas en una sola pasada.
+ */
+public enum StudentMetric {
+    /**
+     * Edad promedio de los estudiantes registrados y activos.
+     */
+    AVERAGE_ENROLLED_AGE,
+    /**
+     * Nombre más común de los estudiantes que no están activos.
+     */
+    MOST_COMMON_INACTIVE_FIRST_NAME,
+    /**
+     * Número de estudiantes inactivos mayores de 20 años con nota menor a 65.
+     */
+    FAILED_OLDER_THAN_20
+}
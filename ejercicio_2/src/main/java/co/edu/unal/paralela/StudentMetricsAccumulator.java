@@ -0,0 +1,146 @@
+package co.edu.unal.paralela;
+
+import java.util.Set;
+
+/**
+ * Acumulador parcial de un conjunto de métricas de estudiantes. Cada hilo de
+ * la pasada fusionada llena el suyo y los acumuladores se combinan al final;
+ * sólo se actualizan los campos de las métricas pedidas.
+ */
+final class StudentMetricsAccumulator {
+    /**
+     * Si se calcula la edad promedio de los activos.
+     */
+    private final boolean averageAge;
+    /**
+     * Si se calcula el nombre más común de los inactivos.
+     */
+    private final boolean mostCommonName;
+    /**
+     * Si se cuentan los estudiantes que perdieron mayores de 20 años.
+     */
+    private final boolean failedOlderThan20;
+    /**
+     * Diccionario compartido de nombres.
+     */
+    private final NameDictionary dictionary;
+    /**
+     * Suma de las edades de los activos.
+     */
+    private double enrolledAgeSum;
+    /**
+     * Número de activos.
+     */
+    private long enrolledCount;
+    /**
+     * Conteo de nombres de los inactivos, o null si no se pidió.
+     */
+    private final IdHistogram inactiveNames;
+    /**
+     * Número de estudiantes que perdieron mayores de 20 años.
+     */
+    private long failedCount;
+
+    /**
+     * Constructor.
+     *
+     * @param metrics       Métricas a calcular
+     * @param setDictionary Diccionario compartido de nombres
+     */
+    StudentMetricsAccumulator(final Set<StudentMetric> metrics,
+            final NameDictionary setDictionary) {
+        this.averageAge = metrics.contains(StudentMetric.AVERAGE_ENROLLED_AGE);
+        this.mostCommonName = metrics.contains(StudentMetric.MOST_COMMON_INACTIVE_FIRST_NAME);
+        this.failedOlderThan20 = metrics.contains(StudentMetric.FAILED_OLDER_THAN_20);
+        this.dictionary = setDictionary;
+        this.inactiveNames = mostCommonName ? new IdHistogram(setDictionary.size()) : null;
+    }
+
+    /**
+     * Agrega un estudiante a las métricas pedidas.
+     *
+     * @param student Estudiante a agregar
+     */
+    void accept(final Student student) {
+        if (student.checkIsCurrent()) {
+            if (averageAge) {
+                enrolledAgeSum += student.getAge();
+                enrolledCount++;
+            }
+            return;
+        }
+        if (mostCommonName) {
+            inactiveNames.add(dictionary.idOf(student.getFirstName()));
+        }
+        if (failedOlderThan20 && student.getAge() > 20 && student.getGrade() < 65) {
+            failedCount++;
+        }
+    }
+
+    /**
+     * Combina con este acumulador los valores de otro.
+     *
+     * @param other Acumulador a combinar
+     */
+    void merge(final StudentMetricsAccumulator other) {
+        enrolledAgeSum += other.enrolledAgeSum;
+        enrolledCount += other.enrolledCount;
+        if (mostCommonName) {
+            inactiveNames.merge(other.inactiveNames);
+        }
+        failedCount += other.failedCount;
+    }
+
+    /**
+     * Suma de las edades de los activos acumulada.
+     *
+     * @return La suma de las edades
+     */
+    double enrolledAgeSum() {
+        return enrolledAgeSum;
+    }
+
+    /**
+     * Número de activos acumulado.
+     *
+     * @return El número de activos
+     */
+    long enrolledCount() {
+        return enrolledCount;
+    }
+
+    /**
+     * Conteo acumulado de nombres de los inactivos.
+     *
+     * @return El histograma, o null si no se pidió el nombre más común
+     */
+    IdHistogram inactiveNames() {
+        return inactiveNames;
+    }
+
+    /**
+     * Número acumulado de estudiantes que perdieron mayores de 20 años.
+     *
+     * @return El número de estudiantes
+     */
+    long failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Construye el resultado a partir de los valores acumulados.
+     *
+     * @param metrics Métricas calculadas
+     * @return El resultado
+     */
+    StudentAnalyticsResult toResult(final Set<StudentMetric> metrics) {
+        String name = null;
+        if (mostCommonName) {
+            final int best = inactiveNames.mostCommon(dictionary);
+            name = best < 0 ? "" : dictionary.name(best);
+        }
+        return new StudentAnalyticsResult(metrics,
+                enrolledCount == 0 ? 0.0 : enrolledAgeSum / enrolledCount,
+                name, (int) failedCount);
+    }
+}
@@ -0,0 +1,491 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Consulta declarativa sobre una StudentTable: filtros (where), agrupación
+ * opcional por nombre o apellido y una agregación (count, sum, avg, min o max
+ * sobre la edad o la nota).
+ *
+ * Al ejecutarse, los filtros se planean antes de recorrer los datos: los de
+ * estado se vuelven una máscara sobre el conjunto de bits de activos, de modo
+ * que palabras enteras de filas descartadas se saltan; los de edad y nota se
+ * pliegan en un solo intervalo por columna y los de nombre en un
+ * identificador del diccionario (un nombre inexistente o un filtro
+ * contradictorio da un resultado vacío sin recorrer nada). El recorrido es
+ * paralelo por palabras del conjunto de bits y cada hilo acumula en arreglos
+ * primitivos por grupo que se combinan al final.
+ *
+ * Las consultas son inmutables: where y groupBy devuelven una consulta nueva.
+ */
+public final class StudentQuery {
+    /**
+     * Agrupación de la consulta.
+     */
+    private enum GroupBy {
+        /**
+         * Sin agrupación.
+         */
+        NONE,
+        /**
+         * Por nombre.
+         */
+        FIRST_NAME,
+        /**
+         * Por apellido.
+         */
+        LAST_NAME
+    }
+
+    /**
+     * Tabla consultada.
+     */
+    private final StudentTable table;
+    /**
+     * Filtros de la consulta, combinados con AND.
+     */
+    private final List<StudentFilter> filters;
+    /**
+     * Agrupación de la consulta.
+     */
+    private final GroupBy groupBy;
+
+    /**
+     * Constructor.
+     *
+     * @param setTable   Tabla consultada
+     * @param setFilters Filtros de la consulta
+     * @param setGroupBy Agrupación de la consulta
+     */
+    private StudentQuery(final StudentTable setTable,
+            final List<StudentFilter> setFilters, final GroupBy setGroupBy) {
+        this.table = setTable;
+        this.filters = setFilters;
+        this.groupBy = setGroupBy;
+    }
+
+    /**
+     * Crea una consulta sin filtros ni agrupación sobre una tabla.
+     *
+     * @param table Tabla a consultar
+     * @return La consulta
+     */
+    public static StudentQuery over(final StudentTable table) {
+        return new StudentQuery(table, Collections.<StudentFilter>emptyList(), GroupBy.NONE);
+    }
+
+    /**
+     * Agrega filtros a la consulta.
+     *
+     * @param moreFilters Filtros a agregar
+     * @return Una consulta nueva con los filtros agregados
+     */
+    public StudentQuery where(final StudentFilter... moreFilters) {
+        final List<StudentFilter> all = new ArrayList<StudentFilter>(filters);
+        all.addAll(Arrays.asList(moreFilters));
+        return new StudentQuery(table, Collections.unmodifiableList(all), groupBy);
+    }
+
+    /**
+     * Agrupa la consulta por nombre.
+     *
+     * @return Una consulta nueva agrupada por nombre
+     */
+    public StudentQuery groupByFirstName() {
+        return new StudentQuery(table, filters, GroupBy.FIRST_NAME);
+    }
+
+    /**
+     * Agrupa la consulta por apellido.
+     *
+     * @return Una consulta nueva agrupada por apellido
+     */
+    public StudentQuery groupByLastName() {
+        return new StudentQuery(table, filters, GroupBy.LAST_NAME);
+    }
+
+    /**
+     * Ejecuta la consulta en paralelo. El promedio de un grupo vacío es 0.0
+     * y su mínimo y máximo son NaN.
+     *
+     * @param aggregate Agregación a calcular
+     * @return El resultado
+     */
+    public StudentQueryResult execute(final StudentAggregate aggregate) {
+        final Plan plan = new Plan(table, filters);
+        final NameDictionary dictionary = groupBy == GroupBy.FIRST_NAME
+                ? table.getFirstNames() : table.getLastNames();
+        final int nGroups = groupBy == GroupBy.NONE ? 1 : dictionary.size();
+        final int[] groupIds = groupBy == GroupBy.FIRST_NAME ? table.firstNameIdColumn()
+                : groupBy == GroupBy.LAST_NAME ? table.lastNameIdColumn() : null;
+        final StudentAggregate.Function function = aggregate.function();
+
+        final Partial total;
+        if (plan.empty) {
+            total = new Partial(nGroups, function);
+        } else {
+            final double[] ages = table.ageColumn();
+            final int[] grades = table.gradeColumn();
+            final long[] current = table.currentBits();
+            final int size = table.size();
+            final boolean ageValues = aggregate.column() == StudentColumn.AGE;
+
+            total = IntStream.range(0, RowBitmap.wordCount(size)).parallel().collect(
+                    () -> new Partial(nGroups, function),
+                    (partial, w) -> {
+                        final int rowsInWord = size - w * Long.SIZE;
+                        long bits = rowsInWord >= Long.SIZE ? -1L : (1L << rowsInWord) - 1;
+                        if (plan.status == Plan.CURRENT) {
+                            bits &= current[w];
+                        } else if (plan.status == Plan.INACTIVE) {
+                            bits &= ~current[w];
+                        }
+                        while (bits != 0) {
+                            final int row = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            if (plan.accepts(row, ages, grades)) {
+                                final int group = groupIds == null ? 0 : groupIds[row];
+                                partial.add(group, ageValues ? ages[row] : grades[row]);
+                            }
+                        }
+                    },
+                    Partial::merge);
+        }
+        return total.toResult(groupBy == GroupBy.NONE ? null : dictionary);
+    }
+
+    /**
+     * Filtros planeados: estado como máscara, edad y nota como intervalos y
+     * nombres como identificadores.
+     */
+    private static final class Plan {
+        /**
+         * Cualquier estado.
+         */
+        static final int ANY = 0;
+        /**
+         * Sólo activos.
+         */
+        static final int CURRENT = 1;
+        /**
+         * Sólo inactivos.
+         */
+        static final int INACTIVE = 2;
+
+        /**
+         * Estado requerido: ANY, CURRENT o INACTIVE.
+         */
+        private int status = ANY;
+        /**
+         * Si ninguna fila puede cumplir los filtros.
+         */
+        private boolean empty;
+        /**
+         * Si hay filtros de edad.
+         */
+        private boolean hasAge;
+        /**
+         * Cota inferior de la edad.
+         */
+        private double ageLo = Double.NEGATIVE_INFINITY;
+        /**
+         * Si la cota inferior de la edad es inclusiva.
+         */
+        private boolean ageLoInclusive = true;
+        /**
+         * Cota superior de la edad.
+         */
+        private double ageHi = Double.POSITIVE_INFINITY;
+        /**
+         * Si la cota superior de la edad es inclusiva.
+         */
+        private boolean ageHiInclusive = true;
+        /**
+         * Si hay filtros de nota.
+         */
+        private boolean hasGrade;
+        /**
+         * Nota mínima inclusiva.
+         */
+        private long gradeLo = Long.MIN_VALUE;
+        /**
+         * Nota máxima inclusiva.
+         */
+        private long gradeHi = Long.MAX_VALUE;
+        /**
+         * Identificador de nombre requerido, o -1.
+         */
+        private int firstNameId = -1;
+        /**
+         * Identificador de apellido requerido, o -1.
+         */
+        private int lastNameId = -1;
+        /**
+         * Columna de identificadores de nombre.
+         */
+        private final int[] firstNameIds;
+        /**
+         * Columna de identificadores de apellido.
+         */
+        private final int[] lastNameIds;
+
+        /**
+         * Constructor. Pliega los filtros.
+         *
+         * @param table   Tabla consultada
+         * @param filters Filtros de la consulta
+         */
+        Plan(final StudentTable table, final List<StudentFilter> filters) {
+            this.firstNameIds = table.firstNameIdColumn();
+            this.lastNameIds = table.lastNameIdColumn();
+            for (StudentFilter filter : filters) {
+                switch (filter.target()) {
+                    case STATUS:
+                        final int required = filter.value() != 0 ? CURRENT : INACTIVE;
+                        empty |= status != ANY && status != required;
+                        status = required;
+                        break;
+                    case AGE:
+                        hasAge = true;
+                        foldAge(filter.op(), filter.value());
+                        break;
+                    case GRADE:
+                        hasGrade = true;
+                        foldGrade(filter.op(), (long) filter.value());
+                        break;
+                    case FIRST_NAME:
+                        firstNameId = foldName(firstNameId,
+                                table.getFirstNames().lookup(filter.name()));
+                        break;
+                    default:
+                        lastNameId = foldName(lastNameId,
+                                table.getLastNames().lookup(filter.name()));
+                        break;
+                }
+            }
+            empty |= gradeLo > gradeHi || ageLo > ageHi
+                    || (ageLo == ageHi && !(ageLoInclusive && ageHiInclusive));
+        }
+
+        /**
+         * Estrecha el intervalo de edades.
+         *
+         * @param op    Comparación
+         * @param value Umbral
+         */
+        private void foldAge(final StudentFilter.Op op, final double value) {
+            if (op == StudentFilter.Op.EQ) {
+                // @audit-info Igual a es la intersección de >= y <=
+                foldAge(StudentFilter.Op.GE, value);
+                foldAge(StudentFilter.Op.LE, value);
+            } else if (op == StudentFilter.Op.GT || op == StudentFilter.Op.GE) {
+                if (value > ageLo || (value == ageLo && op == StudentFilter.Op.GT)) {
+                    ageLo = value;
+                    ageLoInclusive = op == StudentFilter.Op.GE;
+                }
+            } else {
+                if (value < ageHi || (value == ageHi && op == StudentFilter.Op.LT)) {
+                    ageHi = value;
+                    ageHiInclusive = op == StudentFilter.Op.LE;
+                }
+            }
+        }
+
+        /**
+         * Estrecha el intervalo de notas.
+         *
+         * @param op    Comparación
+         * @param value Umbral
+         */
+        private void foldGrade(final StudentFilter.Op op, final long value) {
+            switch (op) {
+                case GT:
+                    gradeLo = Math.max(gradeLo, value + 1);
+                    break;
+                case GE:
+                    gradeLo = Math.max(gradeLo, value);
+                    break;
+                case LT:
+                    gradeHi = Math.min(gradeHi, value - 1);
+                    break;
+                case LE:
+                    gradeHi = Math.min(gradeHi, value);
+                    break;
+                default:
+                    gradeLo = Math.max(gradeLo, value);
+                    gradeHi = Math.min(gradeHi, value);
+                    break;
+            }
+        }
+
+        /**
+         * Combina un filtro de nombre con los anteriores.
+         *
+         * @param current Identificador requerido hasta ahora, o -1
+         * @param id      Identificador del nombre del filtro, o -1 si no existe
+         * @return El identificador requerido
+         */
+        private int foldName(final int current, final int id) {
+            empty |= id < 0 || (current >= 0 && current != id);
+            return id;
+        }
+
+        /**
+         * Revisa los filtros que no se resolvieron con la máscara de estado.
+         *
+         * @param row    Fila a revisar
+         * @param ages   Columna de edades
+         * @param grades Columna de notas
+         * @return verdadero si la fila cumple los filtros
+         */
+        boolean accepts(final int row, final double[] ages, final int[] grades) {
+            if (hasGrade && (grades[row] < gradeLo || grades[row] > gradeHi)) {
+                return false;
+            }
+            if (hasAge) {
+                final double age = ages[row];
+                if (age < ageLo || (age == ageLo && !ageLoInclusive)
+                        || age > ageHi || (age == ageHi && !ageHiInclusive)) {
+                    return false;
+                }
+            }
+            return (firstNameId < 0 || firstNameIds[row] == firstNameId)
+                    && (lastNameId < 0 || lastNameIds[row] == lastNameId);
+        }
+    }
+
+    /**
+     * Agregado parcial de un hilo: arreglos primitivos indexados por grupo.
+     */
+    private static final class Partial {
+        /**
+         * Función de agregación.
+         */
+        private final StudentAggregate.Function function;
+        /**
+         * Filas de cada grupo.
+         */
+        private final long[] counts;
+        /**
+         * Suma, mínimo o máximo de cada grupo, o null para COUNT.
+         */
+        private final double[] values;
+
+        /**
+         * Constructor.
+         *
+         * @param nGroups     Número de grupos
+         * @param setFunction Función de agregación
+         */
+        Partial(final int nGroups, final StudentAggregate.Function setFunction) {
+            this.function = setFunction;
+            this.counts = new long[nGroups];
+            if (setFunction == StudentAggregate.Function.COUNT) {
+                this.values = null;
+            } else {
+                this.values = new double[nGroups];
+                if (setFunction == StudentAggregate.Function.MIN) {
+                    Arrays.fill(values, Double.POSITIVE_INFINITY);
+                } else if (setFunction == StudentAggregate.Function.MAX) {
+                    Arrays.fill(values, Double.NEGATIVE_INFINITY);
+                }
+            }
+        }
+
+        /**
+         * Agrega una fila a un grupo.
+         *
+         * @param group Grupo de la fila
+         * @param value Valor de la columna agregada
+         */
+        void add(final int group, final double value) {
+            counts[group]++;
+            switch (function) {
+                case COUNT:
+                    break;
+                case MIN:
+                    values[group] = Math.min(values[group], value);
+                    break;
+                case MAX:
+                    values[group] = Math.max(values[group], value);
+                    break;
+                default:
+                    values[group] += value;
+                    break;
+            }
+        }
+
+        /**
+         * Combina con este agregado los valores de otro.
+         *
+         * @param other Agregado a combinar
+         */
+        void merge(final Partial other) {
+            for (int g = 0; g < counts.length; g++) {
+                counts[g] += other.counts[g];
+                if (values != null) {
+                    if (function == StudentAggregate.Function.MIN) {
+                        values[g] = Math.min(values[g], other.values[g]);
+                    } else if (function == StudentAggregate.Function.MAX) {
+                        values[g] = Math.max(values[g], other.values[g]);
+                    } else {
+                        values[g] += other.values[g];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Construye el resultado.
+         *
+         * @param dictionary Diccionario de las claves, o null si no se agrupa
+         * @return El resultado
+         */
+        StudentQueryResult toResult(final NameDictionary dictionary) {
+            int nResults = 0;
+            for (int g = 0; g < counts.length; g++) {
+                if (dictionary == null || counts[g] > 0) {
+                    nResults++;
+                }
+            }
+            final String[] keys = new String[nResults];
+            final double[] results = new double[nResults];
+            final long[] resultCounts = new long[nResults];
+            int next = 0;
+            for (int g = 0; g < counts.length; g++) {
+                if (dictionary != null && counts[g] == 0) {
+                    continue;
+                }
+                keys[next] = dictionary == null ? null : dictionary.name(g);
+                resultCounts[next] = counts[g];
+                results[next] = finish(g);
+                next++;
+            }
+            return new StudentQueryResult(keys, results, resultCounts, dictionary != null);
+        }
+
+        /**
+         * Valor final de un grupo.
+         *
+         * @param g Grupo
+         * @return El valor agregado
+         */
+        private double finish(final int g) {
+            switch (function) {
+                case COUNT:
+                    return counts[g];
+                case AVG:
+                    return counts[g] == 0 ? 0.0 : values[g] / counts[g];
+                case MIN:
+                case MAX:
+                    return counts[g] == 0 ? Double.NaN : values[g];
+                default:
+                    return values[g];
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package co.edu.unal.paralela;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado de una StudentQuery: un valor agregado por grupo. Una consulta
+ * sin agrupación tiene un único grupo sin clave; una agrupada sólo tiene los
+ * grupos con al menos una fila.
+ */
+public final class StudentQueryResult {
+    /**
+     * Clave de cada grupo, o null si la consulta no agrupa.
+     */
+    private final String[] keys;
+    /**
+     * Valor agregado de cada grupo.
+     */
+    private final double[] values;
+    /**
+     * Número de filas de cada grupo.
+     */
+    private final long[] counts;
+    /**
+     * Si la consulta agrupa.
+     */
+    private final boolean grouped;
+
+    /**
+     * Constructor.
+     *
+     * @param setKeys    Clave de cada grupo
+     * @param setValues  Valor agregado de cada grupo
+     * @param setCounts  Número de filas de cada grupo
+     * @param setGrouped Si la consulta agrupa
+     */
+    StudentQueryResult(final String[] setKeys, final double[] setValues,
+            final long[] setCounts, final boolean setGrouped) {
+        this.keys = setKeys;
+        this.values = setValues;
+        this.counts = setCounts;
+        this.grouped = setGrouped;
+    }
+
+    /**
+     * Número de grupos.
+     *
+     * @return El número de grupos
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Clave de un grupo.
+     *
+     * @param group Índice del grupo
+     * @return La clave, o null si la consulta no agrupa
+     */
+    public String getKey(final int group) {
+        return keys[group];
+    }
+
+    /**
+     * Valor agregado de un grupo.
+     *
+     * @param group Índice del grupo
+     * @return El valor
+     */
+    public double getValue(final int group) {
+        return values[group];
+    }
+
+    /**
+     * Número de filas de un grupo.
+     *
+     * @param group Índice del grupo
+     * @return El número de filas
+     */
+    public long getCount(final int group) {
+        return counts[group];
+    }
+
+    /**
+     * Valor de una consulta sin agrupación.
+     *
+     * @return El valor agregado
+     */
+    public double value() {
+        if (grouped) {
+            throw new IllegalStateException("La consulta está agrupada");
+        }
+        return values[0];
+    }
+
+    /**
+     * Clave del grupo con mayor valor. Los empates se resuelven a favor de
+     * la clave menor en orden de String.
+     *
+     * @return La clave, o "" si no hay grupos
+     */
+    public String topKey() {
+        if (!grouped) {
+            throw new IllegalStateException("La consulta no está agrupada");
+        }
+        int best = -1;
+        for (int g = 0; g < keys.length; g++) {
+            if (best < 0 || values[g] > values[best]
+                    || (values[g] == values[best] && keys[g].compareTo(keys[best]) < 0)) {
+                best = g;
+            }
+        }
+        return best < 0 ? "" : keys[best];
+    }
+
+    /**
+     * Valores agregados por clave.
+     *
+     * @return Un mapa de clave a valor, en el orden de los grupos
+     */
+    public Map<String, Double> toMap() {
+        final Map<String, Double> map = new LinkedHashMap<String, Double>();
+        for (int g = 0; g < keys.length; g++) {
+            map.put(keys[g], values[g]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return grouped ? toMap().toString() : String.valueOf(values[0]);
+    }
+}
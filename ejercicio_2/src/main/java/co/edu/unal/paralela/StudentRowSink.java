@@ -0,0 +1,20 @@
+package co.edu.unal.paralela;
+
+/**
+ * Destino de las filas que lee StudentCsvLoader en modo streaming. Los
+ * nombres llegan como identificadores de los diccionarios del cargador, así
+ * que recibir una fila no crea objetos.
+ */
+@FunctionalInterface
+public interface StudentRowSink {
+    /**
+     * Recibe una fila.
+     *
+     * @param firstNameId Identificador del nombre
+     * @param lastNameId  Identificador del apellido
+     * @param age         Edad del estudiante
+     * @param grade       Nota del estudiante
+     * @param isCurrent   El estudiante está registrado?
+     */
+    void accept(int firstNameId, int lastNameId, double age, int grade, boolean isCurrent);
+}
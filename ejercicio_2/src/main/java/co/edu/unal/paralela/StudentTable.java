@@ -0,0 +1,336 @@
+package co.edu.unal.paralela;
+
+import java.util.stream.IntStream;
+
+/**
+ * Datos de estudiantes guardados por columnas de tipos primitivos.
+ *
+ * En lugar de un arreglo de objetos Student (un puntero y un objeto por
+ * estudiante) cada atributo vive en su propio arreglo: la edad en un
+ * double[], la nota en un int[], el estado en un conjunto de bits y los
+ * nombres como identificadores int de un NameDictionary. Un recorrido que sólo
+ * mira la edad y la nota lee memoria contigua y no sigue punteros.
+ */
+public final class StudentTable {
+    /**
+     * Edad de cada estudiante.
+     */
+    private final double[] ages;
+    /**
+     * Nota de cada estudiante.
+     */
+    private final int[] grades;
+    /**
+     * Conjunto de bits con los estudiantes activos: el bit (row % 64) de la
+     * palabra row / 64. Los bits de filas inexistentes siempre están en cero.
+     */
+    private final long[] current;
+    /**
+     * Identificador del nombre de cada estudiante en firstNames.
+     */
+    private final int[] firstNameIds;
+    /**
+     * Identificador del apellido de cada estudiante en lastNames.
+     */
+    private final int[] lastNameIds;
+    /**
+     * Diccionario de nombres.
+     */
+    private final NameDictionary firstNames;
+    /**
+     * Diccionario de apellidos.
+     */
+    private final NameDictionary lastNames;
+    /**
+     * Número de filas ocupadas.
+     */
+    private int size;
+
+    /**
+     * Constructor. Crea una tabla vacía que admite hasta capacity filas.
+     *
+     * @param capacity Número máximo de estudiantes
+     */
+    public StudentTable(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacity);
+        }
+        this.ages = new double[capacity];
+        this.grades = new int[capacity];
+        this.current = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+        this.firstNameIds = new int[capacity];
+        this.lastNameIds = new int[capacity];
+        this.firstNames = new NameDictionary();
+        this.lastNames = new NameDictionary();
+    }
+
+    /**
+     * Constructor. Crea una tabla llena con columnas ya construidas, sin
+     * copiarlas. Los bits de current de filas mayores o iguales a size deben
+     * estar en cero.
+     *
+     * @param setAges         Edad de cada estudiante
+     * @param setGrades       Nota de cada estudiante
+     * @param setCurrent      Conjunto de bits de estudiantes activos
+     * @param setFirstNameIds Identificador del nombre de cada estudiante
+     * @param setLastNameIds  Identificador del apellido de cada estudiante
+     * @param setFirstNames   Diccionario de nombres
+     * @param setLastNames    Diccionario de apellidos
+     * @param setSize         Número de filas ocupadas
+     */
+    StudentTable(final double[] setAges, final int[] setGrades,
+            final long[] setCurrent, final int[] setFirstNameIds,
+            final int[] setLastNameIds, final NameDictionary setFirstNames,
+            final NameDictionary setLastNames, final int setSize) {
+        this.ages = setAges;
+        this.grades = setGrades;
+        this.current = setCurrent;
+        this.firstNameIds = setFirstNameIds;
+        this.lastNameIds = setLastNameIds;
+        this.firstNames = setFirstNames;
+        this.lastNames = setLastNames;
+        this.size = setSize;
+    }
+
+    /**
+     * Crea una tabla con los estudiantes de un arreglo, en el mismo orden.
+     * Las columnas numéricas y el estado se llenan en paralelo; los nombres
+     * se codifican en orden para que los identificadores sigan el orden de
+     * primera aparición.
+     *
+     * @param students Datos de los estudiantes
+     * @return La tabla
+     */
+    public static StudentTable fromStudents(final Student[] students) {
+        final StudentTable table = new StudentTable(students.length);
+        final int n = students.length;
+
+        IntStream.range(0, n).parallel().forEach(row -> {
+            table.ages[row] = students[row].getAge();
+            table.grades[row] = students[row].getGrade();
+        });
+        // @audit-info Cada palabra del conjunto de bits la escribe un único
+        // hilo, así que no hay escrituras concurrentes sobre un mismo long.
+        IntStream.range(0, table.current.length).parallel().forEach(word -> {
+            final int from = word * Long.SIZE;
+            final int to = Math.min(n, from + Long.SIZE);
+            long bits = 0;
+            for (int row = from; row < to; row++) {
+                if (students[row].checkIsCurrent()) {
+                    bits |= 1L << row;
+                }
+            }
+            table.current[word] = bits;
+        });
+        for (int row = 0; row < n; row++) {
+            table.firstNameIds[row] = table.firstNames.idOf(students[row].getFirstName());
+            table.lastNameIds[row] = table.lastNames.idOf(students[row].getLastName());
+        }
+        table.size = n;
+        return table;
+    }
+
+    /**
+     * Agrega un estudiante al final de la tabla.
+     *
+     * @param firstName Nombres del estudiante
+     * @param lastName  Apellido del estudiante
+     * @param age       Edad del estudiante
+     * @param grade     Nota del estudiante en el curso
+     * @param isCurrent El estudiante está registrado?
+     * @return La fila asignada al estudiante
+     */
+    public int add(final String firstName, final String lastName,
+            final double age, final int grade, final boolean isCurrent) {
+        if (size == ages.length) {
+            throw new IllegalStateException(
+                    "La tabla está llena: " + ages.length + " filas");
+        }
+        final int row = size;
+        ages[row] = age;
+        grades[row] = grade;
+        if (isCurrent) {
+            current[row >>> 6] |= 1L << row;
+        }
+        firstNameIds[row] = firstNames.idOf(firstName);
+        lastNameIds[row] = lastNames.idOf(lastName);
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Número de estudiantes en la tabla.
+     *
+     * @return El número de filas ocupadas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Número máximo de estudiantes que admite la tabla.
+     *
+     * @return La capacidad
+     */
+    public int capacity() {
+        return ages.length;
+    }
+
+    /**
+     * Recupera la edad de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return Edad del estudiante
+     */
+    public double getAge(final int row) {
+        return ages[checkRow(row)];
+    }
+
+    /**
+     * Recupera la nota de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return Nota del estudiante
+     */
+    public int getGrade(final int row) {
+        return grades[checkRow(row)];
+    }
+
+    /**
+     * Revisa si un estudiante está activo.
+     *
+     * @param row Fila del estudiante
+     * @return verdadero si el estudiante está registrado en la actualidad
+     */
+    public boolean isCurrent(final int row) {
+        return (current[checkRow(row) >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Recupera los nombres de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return Los nombres del estudiante
+     */
+    public String getFirstName(final int row) {
+        return firstNames.name(firstNameIds[checkRow(row)]);
+    }
+
+    /**
+     * Recupera los apellidos de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return Los apellidos del estudiante
+     */
+    public String getLastName(final int row) {
+        return lastNames.name(lastNameIds[checkRow(row)]);
+    }
+
+    /**
+     * Recupera el identificador del nombre de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return El identificador en getFirstNames()
+     */
+    public int getFirstNameId(final int row) {
+        return firstNameIds[checkRow(row)];
+    }
+
+    /**
+     * Recupera el identificador del apellido de un estudiante.
+     *
+     * @param row Fila del estudiante
+     * @return El identificador en getLastNames()
+     */
+    public int getLastNameId(final int row) {
+        return lastNameIds[checkRow(row)];
+    }
+
+    /**
+     * Recupera el diccionario de nombres.
+     *
+     * @return El diccionario de nombres
+     */
+    public NameDictionary getFirstNames() {
+        return firstNames;
+    }
+
+    /**
+     * Recupera el diccionario de apellidos.
+     *
+     * @return El diccionario de apellidos
+     */
+    public NameDictionary getLastNames() {
+        return lastNames;
+    }
+
+    /**
+     * Reconstruye el objeto Student de una fila.
+     *
+     * @param row Fila del estudiante
+     * @return El estudiante
+     */
+    public Student toStudent(final int row) {
+        return new Student(getFirstName(row), getLastName(row), getAge(row),
+                getGrade(row), isCurrent(row));
+    }
+
+    /**
+     * Columna de edades, sin copiar; sólo las primeras size() son válidas.
+     *
+     * @return La columna de edades
+     */
+    double[] ageColumn() {
+        return ages;
+    }
+
+    /**
+     * Columna de notas, sin copiar; sólo las primeras size() son válidas.
+     *
+     * @return La columna de notas
+     */
+    int[] gradeColumn() {
+        return grades;
+    }
+
+    /**
+     * Conjunto de bits de estudiantes activos, sin copiar.
+     *
+     * @return Las palabras del conjunto de bits
+     */
+    long[] currentBits() {
+        return current;
+    }
+
+    /**
+     * Columna de identificadores de nombre, sin copiar.
+     *
+     * @return La columna de identificadores de nombre
+     */
+    int[] firstNameIdColumn() {
+        return firstNameIds;
+    }
+
+    /**
+     * Columna de identificadores de apellido, sin copiar.
+     *
+     * @return La columna de identificadores de apellido
+     */
+    int[] lastNameIdColumn() {
+        return lastNameIds;
+    }
+
+    /**
+     * Verifica que una fila esté ocupada.
+     *
+     * @param row Fila a verificar
+     * @return La misma fila
+     */
+    private int checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Fila " + row + " fuera de [0, " + size + ")");
+        }
+        return row;
+    }
+}
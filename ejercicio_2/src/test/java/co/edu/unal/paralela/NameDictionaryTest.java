@@ -0,0 +1,125 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import junit.framework.TestCase;
+
+public class NameDictionaryTest extends TestCase {
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    /*
+     * Prueba que hilos concurrentes obtienen el mismo identificador para el
+     * mismo nombre y que los identificadores son consecutivos.
+     */
+    public void testConcurrentRegistration() {
+        final NameDictionary dictionary = new NameDictionary();
+        IntStream.range(0, 100_000).parallel()
+                .forEach(i -> dictionary.idOf("nombre" + (i % 1_000)));
+
+        assertEquals(1_000, dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            assertEquals(id, dictionary.lookup(dictionary.name(id)));
+        }
+        assertEquals(-1, dictionary.lookup("ausente"));
+        assertEquals(1_000, dictionary.size());
+    }
+
+    /*
+     * Prueba que los empates se resuelven igual en ambas versiones, sin
+     * importar el orden de aparición.
+     */
+    public void testTiesAreDeterministic() {
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final Student[] students = {
+            new Student("Zoe", "Gil", 30, 50, false),
+            new Student("Ana", "Gil", 30, 50, false),
+            new Student("Luis", "Gil", 30, 50, true),
+        };
+        assertEquals("Ana", analytics.mostCommonFirstNameOfInactiveStudentsDictionaryImperative(students));
+        assertEquals("Ana", analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(students));
+        assertEquals("", analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(new Student[0]));
+    }
+
+    /*
+     * Prueba que las versiones con diccionario concuerdan con las originales,
+     * también al reutilizar un diccionario que ya tiene nombres ajenos a los
+     * datos.
+     */
+    public void testDictionaryMostCommonName() {
+        final Student[] students = generateStudentData(200_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final String ref = analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+
+        final NameDictionary dictionary = new NameDictionary();
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsDictionaryImperative(students));
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(students));
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+                students, dictionary));
+        assertEquals(firstNames.length, dictionary.size());
+
+        // @audit-info Nombres registrados antes que no aparecen entre los
+        // inactivos no deben ganar, aunque tengan identificadores menores
+        final NameDictionary reused = new NameDictionary();
+        reused.idOf("Aaron");
+        final Student[] onlyCurrentAaron = {
+            new Student("Aaron", "Gil", 30, 50, true),
+            new Student("Max", "Gil", 30, 50, false),
+        };
+        assertEquals("Max", analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+                onlyCurrentAaron, reused));
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsDictionaryParallel(
+                students, reused));
+    }
+
+    /*
+     * Prueba que el diccionario crece más allá de su capacidad inicial sin
+     * perder nombres mientras otros hilos los leen, y que name() rechaza
+     * identificadores fuera de rango.
+     */
+    public void testGrowthWhileReading() {
+        final NameDictionary dictionary = new NameDictionary();
+        final int n = 10_000;
+        IntStream.range(0, n).parallel().forEach(i -> {
+            final int id = dictionary.idOf("nombre" + i);
+            assertEquals("nombre" + i, dictionary.name(id));
+            assertNotNull(dictionary.name(dictionary.size() - 1));
+        });
+        assertEquals(n, dictionary.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals("nombre" + i, dictionary.name(dictionary.lookup("nombre" + i)));
+        }
+        try {
+            dictionary.name(n);
+            fail("Se esperaba IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // esperado
+        }
+        try {
+            dictionary.name(-1);
+            fail("Se esperaba IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // esperado
+        }
+    }
+}
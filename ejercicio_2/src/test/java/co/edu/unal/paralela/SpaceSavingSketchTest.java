@@ -0,0 +1,214 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class SpaceSavingSketchTest extends TestCase {
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    /*
+     * Genera estudiantes con nombres de frecuencia aproximadamente Zipf sobre
+     * nNames nombres distintos.
+     */
+    private Student[] generateStudentData(final int nStudents, final int nNames) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+        final double[] cumulative = new double[nNames];
+        double total = 0;
+        for (int i = 0; i < nNames; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            int rank = java.util.Arrays.binarySearch(cumulative, r.nextDouble() * total);
+            rank = rank < 0 ? -rank - 1 : rank;
+            final String firstName = "Name" + Math.min(rank, nNames - 1);
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    private static Map<String, Long> exactCounts(final Student[] students) {
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        for (Student s : students) {
+            if (!s.checkIsCurrent()) {
+                counts.merge(s.getFirstName(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /*
+     * Prueba que los modos exactos devuelven los k nombres más comunes en
+     * orden, con empates a favor del nombre menor.
+     */
+    public void testExactTopK() {
+        final Student[] students = generateStudentData(300_000, 5_000);
+        final Map<String, Long> counts = exactCounts(students);
+        final List<NameCount> expected = new ArrayList<NameCount>();
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            expected.add(new NameCount(e.getKey(), e.getValue(), 0));
+        }
+        expected.sort(NameCount.BY_COUNT_DESCENDING);
+
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final List<NameCount> top = analytics.topFirstNamesOfInactiveStudents(students, 50);
+        final List<NameCount> topColumnar = analytics.topFirstNamesOfInactiveStudentsColumnar(
+                StudentTable.fromStudents(students), 50);
+        assertEquals(50, top.size());
+        assertEquals(50, topColumnar.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected.get(i).getName(), top.get(i).getName());
+            assertEquals(expected.get(i).getCount(), top.get(i).getCount());
+            assertTrue(top.get(i).isExact());
+            assertEquals(expected.get(i).getName(), topColumnar.get(i).getName());
+            assertEquals(expected.get(i).getCount(), topColumnar.get(i).getCount());
+        }
+        assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsImperative(students),
+                top.get(0).getName());
+        assertEquals(counts.size(),
+                analytics.topFirstNamesOfInactiveStudents(students, 1_000_000).size());
+    }
+
+    /*
+     * Prueba las garantías del modo aproximado con muchos más nombres que
+     * contadores: cada estimación excede a la real en a lo sumo N / m y
+     * los nombres con más de N / m apariciones están en el resultado.
+     */
+    public void testApproximateBounds() {
+        final Student[] students = generateStudentData(1_000_000, 200_000);
+        final Map<String, Long> counts = exactCounts(students);
+        long n = 0;
+        for (long c : counts.values()) {
+            n += c;
+        }
+        final int counters = 1_000;
+        final long bound = n / counters;
+
+        final List<NameCount> top = new StudentAnalytics()
+                .topFirstNamesOfInactiveStudentsApproximate(students, 100, counters);
+        assertEquals(100, top.size());
+        for (NameCount estimate : top) {
+            final long actual = counts.getOrDefault(estimate.getName(), 0L);
+            assertTrue(estimate.toString(), estimate.getCount() >= actual);
+            assertTrue(estimate.toString(), estimate.getCount() - estimate.getError() <= actual);
+            assertTrue(estimate.toString(), estimate.getCount() - actual <= bound);
+        }
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            if (e.getValue() > bound + top.get(top.size() - 1).getCount()) {
+                boolean found = false;
+                for (NameCount estimate : top) {
+                    found |= estimate.getName().equals(e.getKey());
+                }
+                assertTrue(e.getKey(), found);
+            }
+        }
+        assertEquals("Name0", top.get(0).getName());
+    }
+
+    /*
+     * Prueba que un resumen con más contadores que nombres es exacto y que la
+     * combinación de resúmenes conserva el total y las cotas.
+     */
+    public void testOfferAndMerge() {
+        final SpaceSavingSketch exact = new SpaceSavingSketch(10);
+        for (String name : new String[] {"a", "b", "a", "c", "a", "b"}) {
+            exact.offer(name);
+        }
+        exact.offer("d", 4);
+        final List<NameCount> top = exact.topK(3);
+        assertEquals("d=4", top.get(0).toString());
+        assertEquals("a=3", top.get(1).toString());
+        assertEquals("b=2", top.get(2).toString());
+        assertEquals(0, exact.maxError());
+        assertEquals(10, exact.total());
+
+        final Random r = new Random(7);
+        final SpaceSavingSketch left = new SpaceSavingSketch(20);
+        final SpaceSavingSketch right = new SpaceSavingSketch(20);
+        final Map<String, Long> counts = new HashMap<String, Long>();
+        for (int i = 0; i < 100_000; i++) {
+            final String name = "n" + (r.nextInt(4) == 0 ? r.nextInt(5_000) : r.nextInt(10));
+            (i % 2 == 0 ? left : right).offer(name);
+            counts.merge(name, 1L, Long::sum);
+        }
+        left.merge(right);
+        assertEquals(100_000, left.total());
+        for (NameCount estimate : left.topK(20)) {
+            final long actual = counts.getOrDefault(estimate.getName(), 0L);
+            assertTrue(estimate.toString(), estimate.getCount() >= actual);
+            assertTrue(estimate.toString(), estimate.getCount() - actual <= 100_000 / 20 * 2);
+        }
+        assertEquals(10, left.topK(10).stream().filter(c -> c.getName().length() == 2).count());
+
+        try {
+            new StudentAnalytics().topFirstNamesOfInactiveStudentsApproximate(new Student[0], 5, 4);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+
+    /*
+     * Prueba los casos límite: k = 0, k mayor que los contadores, un resumen
+     * de un solo contador, combinar con un resumen vacío y capacidades
+     * inválidas.
+     */
+    public void testEdgeCases() {
+        final SpaceSavingSketch empty = new SpaceSavingSketch(3);
+        assertTrue(empty.topK(5).isEmpty());
+        assertEquals(0, empty.maxError());
+
+        final SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        for (String name : new String[] {"a", "b", "a"}) {
+            sketch.offer(name);
+        }
+        assertTrue(sketch.topK(0).isEmpty());
+        assertEquals(2, sketch.topK(10).size());
+        assertEquals(0, sketch.maxError());
+
+        // @audit-info Con un solo contador cada nombre nuevo reemplaza al
+        // anterior y hereda su conteo como error
+        final SpaceSavingSketch single = new SpaceSavingSketch(1);
+        single.offer("a", 5);
+        single.offer("b");
+        single.offer("c", 2);
+        assertEquals(1, single.topK(3).size());
+        final NameCount last = single.topK(1).get(0);
+        assertEquals("c", last.getName());
+        assertEquals(8, last.getCount());
+        assertEquals(6, last.getError());
+        assertEquals(8, single.total());
+        assertEquals(8, single.maxError());
+
+        sketch.merge(empty);
+        assertEquals(3, sketch.total());
+        assertEquals("a=2", sketch.topK(1).get(0).toString());
+        empty.merge(sketch);
+        assertEquals(3, empty.total());
+        assertEquals(sketch.topK(3).toString(), empty.topK(3).toString());
+
+        for (int capacity : new int[] {0, -1}) {
+            try {
+                new SpaceSavingSketch(capacity);
+                fail("Se esperaba IllegalArgumentException");
+            } catch (IllegalArgumentException expected) {
+                // esperado
+            }
+        }
+    }
+}
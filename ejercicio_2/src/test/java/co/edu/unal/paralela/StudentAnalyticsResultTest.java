@@ -0,0 +1,150 @@
+package co.edu.unal.paralela;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StudentAnalyticsResultTest extends TestCase {
+    final static int REPEATS = 10;
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    /*
+     * Prueba que la pasada fusionada concuerda con los métodos individuales.
+     */
+    public void testAnalyzeAll() {
+        final Student[] students = generateStudentData(200_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        final StudentAnalyticsResult result = analytics.analyzeAll(students);
+        assertEquals(EnumSet.allOf(StudentMetric.class), result.getMetrics());
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                result.getAverageAgeOfEnrolledStudents(), 1E-5);
+        assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsImperative(students),
+                result.getMostCommonFirstNameOfInactiveStudents());
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                result.getNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Mide la pasada fusionada frente a llamar las tres consultas paralelas
+     * una por una. Sólo informa los tiempos; no exige un speedup.
+     */
+    public void testAnalyzeAllPerf() {
+        final Student[] students = generateStudentData(2_000_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        analytics.analyzeAll(students);
+        analytics.averageAgeOfEnrolledStudentsParallelStream(students);
+
+        final long startSeparate = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.averageAgeOfEnrolledStudentsParallelStream(students);
+            analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(students);
+            analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students);
+        }
+        final long endSeparate = System.currentTimeMillis();
+
+        final long startFused = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.analyzeAll(students);
+        }
+        final long endFused = System.currentTimeMillis();
+
+        System.out.println("analyzeAll - Pasada fusionada. Separadas: "
+                + (endSeparate - startSeparate) + " ms, fusionada: "
+                + (endFused - startFused) + " ms. Speedup: "
+                + (double) (endSeparate - startSeparate) / (double) (endFused - startFused));
+    }
+
+    /*
+     * Prueba los bordes de los predicados (edad 20 y nota 65 no cuentan) y
+     * que los empates de nombres se resuelven por orden de String.
+     */
+    public void testBoundariesAndTies() {
+        final Student[] students = {
+            new Student("Zoe", "Gil", 20.0, 10, false),
+            new Student("Zoe", "Gil", 21.0, 65, false),
+            new Student("Ana", "Gil", 21.0, 64, false),
+            new Student("Ana", "Ruiz", 19.0, 10, false),
+            new Student("Ana", "Gil", 80.0, 10, true),
+            new Student("Luis", "Gil", 40.0, 10, true),
+        };
+        final StudentAnalyticsResult result = new StudentAnalytics().analyzeAll(students);
+        assertEquals(60.0, result.getAverageAgeOfEnrolledStudents(), 1E-12);
+        assertEquals("Ana", result.getMostCommonFirstNameOfInactiveStudents());
+        assertEquals(1, result.getNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Prueba que sólo se pueden consultar las métricas pedidas.
+     */
+    public void testSubsetOfMetrics() {
+        final Student[] students = generateStudentData(10_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        final StudentAnalyticsResult result = analytics.analyze(students,
+                EnumSet.of(StudentMetric.FAILED_OLDER_THAN_20));
+        assertEquals(EnumSet.of(StudentMetric.FAILED_OLDER_THAN_20), result.getMetrics());
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                result.getNumberOfFailedStudentsOlderThan20());
+        try {
+            result.getAverageAgeOfEnrolledStudents();
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+
+        for (StudentMetric metric : StudentMetric.values()) {
+            final StudentAnalyticsResult single = analytics.analyze(students,
+                    EnumSet.of(metric));
+            assertEquals(metric == StudentMetric.AVERAGE_ENROLLED_AGE,
+                    succeeds(() -> single.getAverageAgeOfEnrolledStudents()));
+            assertEquals(metric == StudentMetric.MOST_COMMON_INACTIVE_FIRST_NAME,
+                    succeeds(() -> single.getMostCommonFirstNameOfInactiveStudents()));
+            assertEquals(metric == StudentMetric.FAILED_OLDER_THAN_20,
+                    succeeds(() -> single.getNumberOfFailedStudentsOlderThan20()));
+        }
+
+        final StudentAnalyticsResult none = analytics.analyze(students,
+                EnumSet.noneOf(StudentMetric.class));
+        assertTrue(none.getMetrics().isEmpty());
+        assertEquals("StudentAnalyticsResult{ }", none.toString());
+
+        final StudentAnalyticsResult empty = analytics.analyzeAll(new Student[0]);
+        assertEquals(0.0, empty.getAverageAgeOfEnrolledStudents());
+        assertEquals("", empty.getMostCommonFirstNameOfInactiveStudents());
+        assertEquals(0, empty.getNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Ejecuta una consulta y dice si terminó sin IllegalStateException.
+     */
+    private static boolean succeeds(final Runnable query) {
+        try {
+            query.run();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package co.edu.unal.paralela;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+public class StudentAnalyticsViewTest extends TestCase {
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student randomStudent(final Random r) {
+        return new Student(firstNames[r.nextInt(firstNames.length)],
+                lastNames[r.nextInt(lastNames.length)], r.nextDouble() * 100.0,
+                1 + r.nextInt(100), r.nextInt(10) < 3);
+    }
+
+    private void assertMatches(final List<Student> students, final StudentAnalyticsView view) {
+        final StudentAnalyticsResult expected = new StudentAnalytics()
+                .analyzeAll(students.toArray(new Student[students.size()]));
+        assertEquals(expected.getAverageAgeOfEnrolledStudents(),
+                view.averageAgeOfEnrolledStudents(), 1E-6);
+        assertEquals(expected.getMostCommonFirstNameOfInactiveStudents(),
+                view.mostCommonFirstNameOfInactiveStudents());
+        assertEquals(expected.getNumberOfFailedStudentsOlderThan20(),
+                view.countNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Prueba que la vista concuerda con recalcular todo después de una
+     * secuencia aleatoria de altas, bajas y actualizaciones.
+     */
+    public void testEventsMatchRecomputation() {
+        final Random r = new Random(123);
+        final List<Student> students = new ArrayList<Student>();
+        for (int i = 0; i < 50_000; i++) {
+            students.add(randomStudent(r));
+        }
+        final StudentAnalyticsView view = StudentAnalyticsView.of(
+                students.toArray(new Student[students.size()]));
+        assertMatches(students, view);
+
+        for (int event = 0; event < 20_000; event++) {
+            final int kind = r.nextInt(3);
+            if (kind == 0 || students.isEmpty()) {
+                final Student s = randomStudent(r);
+                students.add(s);
+                view.add(s);
+            } else if (kind == 1) {
+                view.remove(students.remove(r.nextInt(students.size())));
+            } else {
+                final int i = r.nextInt(students.size());
+                final Student old = students.get(i);
+                final Student updated = new Student(old.getFirstName(), old.getLastName(),
+                        old.getAge(), 1 + r.nextInt(100), !old.checkIsCurrent());
+                students.set(i, updated);
+                view.update(old, updated);
+            }
+            if (event % 5_000 == 0) {
+                assertMatches(students, view);
+            }
+        }
+        assertMatches(students, view);
+    }
+
+    /*
+     * Prueba que el máximo baja cuando el nombre más común pierde
+     * estudiantes y que una baja inexistente se rechaza.
+     */
+    public void testMaxTrackerFollowsDecrements() {
+        final StudentAnalyticsView view = new StudentAnalyticsView();
+        final Student max1 = new Student("Max", "Zhang", 30, 50, false);
+        final Student max2 = new Student("Max", "Smith", 30, 50, false);
+        final Student john = new Student("John", "Imam", 30, 50, false);
+        view.add(max1);
+        view.add(max2);
+        view.add(john);
+        assertEquals("Max", view.mostCommonFirstNameOfInactiveStudents());
+        view.remove(max1);
+        assertEquals("John", view.mostCommonFirstNameOfInactiveStudents());
+        view.remove(max2);
+        view.remove(john);
+        assertEquals("", view.mostCommonFirstNameOfInactiveStudents());
+        try {
+            view.remove(john);
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+    }
+
+    /*
+     * Prueba que una baja inválida se rechaza sin modificar la vista y que
+     * addAll concuerda con agregar los estudiantes uno por uno.
+     */
+    public void testInvalidRemoveLeavesViewUnchanged() {
+        final Random r = new Random(7);
+        final Student[] students = new Student[10_000];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = randomStudent(r);
+        }
+        final StudentAnalyticsView view = StudentAnalyticsView.of(students);
+        final StudentAnalyticsView oneByOne = new StudentAnalyticsView();
+        for (Student s : students) {
+            oneByOne.add(s);
+        }
+        assertEquals(oneByOne.averageAgeOfEnrolledStudents(),
+                view.averageAgeOfEnrolledStudents(), 1E-6);
+        assertEquals(oneByOne.mostCommonFirstNameOfInactiveStudents(),
+                view.mostCommonFirstNameOfInactiveStudents());
+        assertEquals(oneByOne.countNumberOfFailedStudentsOlderThan20(),
+                view.countNumberOfFailedStudentsOlderThan20());
+
+        final StudentAnalyticsResult before = view.snapshot();
+        final Student unknown = new Student("Nadie", "Zhang", 30, 10, false);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                view.remove(unknown);
+                fail("Se esperaba IllegalStateException");
+            } catch (IllegalStateException expected) {
+                // esperado
+            }
+            try {
+                view.update(unknown, students[0]);
+                fail("Se esperaba IllegalStateException");
+            } catch (IllegalStateException expected) {
+                // esperado
+            }
+            assertSame(before, view.snapshot());
+        }
+
+        final StudentAnalyticsView empty = new StudentAnalyticsView();
+        empty.add(new Student("Max", "Imam", 30, 90, false));
+        try {
+            empty.remove(new Student("Max", "Imam", 30, 10, false));
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+        assertEquals("Max", empty.mostCommonFirstNameOfInactiveStudents());
+        assertEquals(0, empty.countNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Prueba que escritores concurrentes no pierden eventos y que cada
+     * snapshot leído durante las escrituras es coherente consigo mismo.
+     */
+    public void testConcurrentWriters() throws Exception {
+        final StudentAnalyticsView view = new StudentAnalyticsView();
+        final List<Student> all = new ArrayList<Student>();
+        final List<List<Student>> perThread = new ArrayList<List<Student>>();
+        for (int t = 0; t < 4; t++) {
+            final Random r = new Random(t);
+            final List<Student> mine = new ArrayList<Student>();
+            for (int i = 0; i < 10_000; i++) {
+                mine.add(randomStudent(r));
+            }
+            perThread.add(mine);
+            all.addAll(mine);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (List<Student> mine : perThread) {
+                futures.add(executor.submit(() -> {
+                    for (Student s : mine) {
+                        view.add(s);
+                        final StudentAnalyticsResult snapshot = view.snapshot();
+                        assertTrue(snapshot.getAverageAgeOfEnrolledStudents() >= 0.0);
+                        assertTrue(snapshot.getNumberOfFailedStudentsOlderThan20() == 0
+                                || !snapshot.getMostCommonFirstNameOfInactiveStudents().isEmpty());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertMatches(all, view);
+    }
+}
@@ -0,0 +1,234 @@
+package co.edu.unal.paralela;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StudentColumnFileTest extends TestCase {
+    final static int REPEATS = 5;
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max", "José"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    private Path tempFile() throws IOException {
+        final Path file = Files.createTempFile("students", ".cols");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private Path csvFile(final Student[] students) throws IOException {
+        final Path csv = Files.createTempFile("students", ".csv");
+        csv.toFile().deleteOnExit();
+        final StringBuilder text = new StringBuilder();
+        for (Student s : students) {
+            text.append(s.getFirstName()).append(',').append(s.getLastName()).append(',')
+                    .append(s.getAge()).append(',').append(s.getGrade()).append(',')
+                    .append(s.checkIsCurrent()).append('\n');
+        }
+        Files.write(csv, text.toString().getBytes("UTF-8"));
+        return csv;
+    }
+
+    /*
+     * Prueba que las filas, los diccionarios y la copia al heap coinciden con
+     * la tabla escrita.
+     */
+    public void testRoundTrip() throws IOException {
+        final Student[] students = generateStudentData(200_003);
+        final Path file = tempFile();
+        StudentColumnFile.write(StudentTable.fromStudents(students), file);
+
+        final StudentColumnFile mapped = StudentColumnFile.open(file);
+        final StudentTable copy = mapped.toTable();
+        assertEquals(students.length, mapped.size());
+        assertEquals(students.length, copy.size());
+        for (int s = 0; s < students.length; s++) {
+            assertEquals(students[s].getFirstName(), mapped.getFirstName(s));
+            assertEquals(students[s].getLastName(), mapped.getLastName(s));
+            assertEquals(students[s].getAge(), mapped.getAge(s));
+            assertEquals(students[s].getGrade(), mapped.getGrade(s));
+            assertEquals(students[s].checkIsCurrent(), mapped.isCurrent(s));
+            assertEquals(students[s].getFirstName(), copy.getFirstName(s));
+            assertEquals(students[s].getAge(), copy.getAge(s));
+            assertEquals(students[s].checkIsCurrent(), copy.isCurrent(s));
+        }
+        assertEquals(firstNames.length, mapped.getFirstNames().size());
+        assertEquals(lastNames.length, mapped.getLastNames().size());
+    }
+
+    /*
+     * Prueba que las consultas sobre las columnas mapeadas concuerdan con las
+     * de referencia.
+     */
+    public void testMappedAnalytics() throws IOException {
+        final Student[] students = generateStudentData(500_000);
+        final Path file = tempFile();
+        StudentColumnFile.write(StudentTable.fromStudents(students), file);
+        final StudentColumnFile mapped = StudentColumnFile.open(file);
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                analytics.averageAgeOfEnrolledStudentsMapped(mapped), 1E-9);
+        assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsImperative(students),
+                analytics.mostCommonFirstNameOfInactiveStudentsMapped(mapped));
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20Mapped(mapped));
+    }
+
+    /*
+     * Prueba una tabla vacía.
+     */
+    public void testEmptyTable() throws IOException {
+        final Path file = tempFile();
+        StudentColumnFile.write(new StudentTable(10), file);
+        final StudentColumnFile mapped = StudentColumnFile.open(file);
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        assertEquals(0, mapped.size());
+        assertEquals(0, mapped.toTable().size());
+        assertEquals(0.0, analytics.averageAgeOfEnrolledStudentsMapped(mapped));
+        assertEquals("", analytics.mostCommonFirstNameOfInactiveStudentsMapped(mapped));
+        assertEquals(0, analytics.countNumberOfFailedStudentsOlderThan20Mapped(mapped));
+    }
+
+    /*
+     * Prueba que se rechazan los archivos ajenos, de otra versión o truncados.
+     */
+    public void testRejectsInvalidFiles() throws IOException {
+        final Path file = tempFile();
+        Files.write(file, "firstName,lastName,age,grade,isCurrent\n".getBytes("UTF-8"));
+        assertOpenFails(file);
+
+        StudentColumnFile.write(StudentTable.fromStudents(generateStudentData(1_000)), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            final ByteBuffer version = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            version.putInt(0, StudentColumnFile.VERSION + 1);
+            channel.write(version, 4);
+        }
+        assertOpenFails(file);
+
+        StudentColumnFile.write(StudentTable.fromStudents(generateStudentData(1_000)), file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+        assertOpenFails(file);
+    }
+
+    private void assertOpenFails(final Path file) {
+        try {
+            StudentColumnFile.open(file);
+            fail("Se esperaba IOException");
+        } catch (IOException expected) {
+            // esperado
+        }
+    }
+
+    /*
+     * Prueba que un CSV cargado y escrito por columnas responde igual que la
+     * tabla cargada, con tamaños que no son múltiplo de 64 y reemplazando un
+     * archivo anterior más grande.
+     */
+    public void testCsvToColumns() throws IOException {
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final Path columns = tempFile();
+        StudentColumnFile.write(StudentTable.fromStudents(generateStudentData(10_000)), columns);
+
+        for (int n : new int[] {1, 63, 65, 4_097}) {
+            final StudentTable loaded = new StudentCsvLoader().loadTable(
+                    csvFile(generateStudentData(n)));
+            StudentColumnFile.write(loaded, columns);
+            final StudentColumnFile mapped = StudentColumnFile.open(columns);
+
+            assertEquals(n, mapped.size());
+            assertEquals(analytics.averageAgeOfEnrolledStudentsColumnar(loaded),
+                    analytics.averageAgeOfEnrolledStudentsMapped(mapped), 1E-9);
+            assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsColumnar(loaded),
+                    analytics.mostCommonFirstNameOfInactiveStudentsMapped(mapped));
+            assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Columnar(loaded),
+                    analytics.countNumberOfFailedStudentsOlderThan20Mapped(mapped));
+            for (int row = 0; row < n; row++) {
+                assertEquals(loaded.isCurrent(row), mapped.isCurrent(row));
+                assertEquals(loaded.getFirstName(row), mapped.getFirstName(row));
+            }
+        }
+    }
+
+    /*
+     * Mide el arranque más una consulta leyendo un CSV frente a abrir el
+     * archivo por columnas. Sólo informa los tiempos; no exige un speedup.
+     */
+    public void testStartupPerf() throws IOException {
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final Path csv = csvFile(generateStudentData(1_000_000));
+        final Path columns = tempFile();
+        StudentColumnFile.write(new StudentCsvLoader().loadTable(csv), columns);
+        analytics.countNumberOfFailedStudentsOlderThan20Mapped(StudentColumnFile.open(columns));
+
+        final long startCsv = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.countNumberOfFailedStudentsOlderThan20Columnar(
+                    new StudentCsvLoader().loadTable(csv));
+        }
+        final long csvTime = System.currentTimeMillis() - startCsv;
+
+        final long startMapped = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.countNumberOfFailedStudentsOlderThan20Mapped(
+                    StudentColumnFile.open(columns));
+        }
+        final long mappedTime = System.currentTimeMillis() - startMapped;
+
+        System.out.println("StudentColumnFile - Arranque y consulta. CSV: " + csvTime
+                + " ms, columnas: " + mappedTime + " ms. Speedup: "
+                + (double) csvTime / (double) Math.max(1, mappedTime));
+    }
+
+    /*
+     * Prueba que sólo se escriben las filas ocupadas de una tabla con
+     * capacidad mayor que su tamaño.
+     */
+    public void testPartiallyFilledTable() throws IOException {
+        final Student[] students = generateStudentData(130);
+        final StudentTable table = new StudentTable(1_000);
+        for (Student s : students) {
+            table.add(s.getFirstName(), s.getLastName(), s.getAge(), s.getGrade(),
+                    s.checkIsCurrent());
+        }
+        final Path file = tempFile();
+        StudentColumnFile.write(table, file);
+        final StudentColumnFile mapped = StudentColumnFile.open(file);
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        assertEquals(students.length, mapped.size());
+        assertEquals(students.length, mapped.toTable().size());
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20Mapped(mapped));
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                analytics.averageAgeOfEnrolledStudentsMapped(mapped), 1E-9);
+    }
+}
@@ -0,0 +1,256 @@
+package co.edu.unal.paralela;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class StudentCsvLoaderTest extends TestCase {
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max", "José"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    /*
+     * Escribe los estudiantes en un archivo temporal. Las edades pares se
+     * escriben con dos decimales y las impares con todos sus dígitos, para
+     * cubrir los dos caminos de lectura de decimales.
+     */
+    private Path writeCsv(final Student[] students, final String header, final String newline)
+            throws IOException {
+        final Path file = Files.createTempFile("students", ".csv");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (header != null) {
+                out.write(header + newline);
+            }
+            for (int s = 0; s < students.length; s++) {
+                final Student student = students[s];
+                final String age = s % 2 == 0
+                        ? String.format(Locale.ROOT, "%.2f", student.getAge())
+                        : Double.toString(student.getAge());
+                out.write(student.getFirstName() + "," + student.getLastName() + "," + age + ","
+                        + student.getGrade() + "," + (s % 3 == 0 ? (student.checkIsCurrent() ? "1" : "0")
+                        : Boolean.toString(student.checkIsCurrent())) + newline);
+            }
+        }
+        return file;
+    }
+
+    private static double writtenAge(final Student[] students, final int s) {
+        return s % 2 == 0
+                ? Double.parseDouble(String.format(Locale.ROOT, "%.2f", students[s].getAge()))
+                : students[s].getAge();
+    }
+
+    /*
+     * Lectura de referencia: línea por línea con split y Double.parseDouble.
+     */
+    private static List<Student> naiveLoad(final Path file) throws IOException {
+        final List<Student> students = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String[] fields = line.split(",");
+                students.add(new Student(fields[0], fields[1], Double.parseDouble(fields[2]),
+                        Integer.parseInt(fields[3]),
+                        fields[4].equals("1") || Boolean.parseBoolean(fields[4])));
+            }
+        }
+        return students;
+    }
+
+    /*
+     * Prueba que la tabla cargada tiene exactamente las filas escritas, con
+     * los decimales iguales bit a bit a Double.parseDouble.
+     */
+    public void testLoadTableRoundTrip() throws IOException {
+        final Student[] students = generateStudentData(300_007);
+        final Path file = writeCsv(students, null, "\n");
+
+        final StudentTable table = new StudentCsvLoader().loadTable(file);
+        assertEquals(students.length, table.size());
+        for (int s = 0; s < students.length; s++) {
+            assertEquals(students[s].getFirstName(), table.getFirstName(s));
+            assertEquals(students[s].getLastName(), table.getLastName(s));
+            assertEquals(Double.doubleToLongBits(writtenAge(students, s)),
+                    Double.doubleToLongBits(table.getAge(s)));
+            assertEquals(students[s].getGrade(), table.getGrade(s));
+            assertEquals(students[s].checkIsCurrent(), table.isCurrent(s));
+        }
+    }
+
+    /*
+     * Prueba el encabezado, los fines de línea \r\n, las líneas vacías y otro
+     * separador.
+     */
+    public void testHeaderCrLfAndDelimiter() throws IOException {
+        final Path file = Files.createTempFile("students", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, ("nombre;apellido;edad;nota;activo\r\n"
+                + "Ana;Pérez;20.5;3;TRUE\r\n"
+                + "\r\n"
+                + "Luis;Gómez;1e1;-4;false\r\n"
+                + "Ana;Gómez;19;5;0").getBytes(StandardCharsets.UTF_8));
+
+        final Student[] students = new StudentCsvLoader(';', true).loadStudents(file);
+        assertEquals(3, students.length);
+        assertEquals("Ana", students[0].getFirstName());
+        assertEquals("Pérez", students[0].getLastName());
+        assertEquals(20.5, students[0].getAge());
+        assertTrue(students[0].checkIsCurrent());
+        assertEquals(10.0, students[1].getAge());
+        assertEquals(-4, students[1].getGrade());
+        assertFalse(students[1].checkIsCurrent());
+        assertSame(students[0].getFirstName(), students[2].getFirstName());
+        assertEquals(19.0, students[2].getAge());
+    }
+
+    /*
+     * Prueba que una línea mal formada se reporta con su posición en bytes.
+     */
+    public void testMalformedLine() throws IOException {
+        final Path file = Files.createTempFile("students", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, "Ana,Pérez,20,3,true\nLuis,Gómez,x,4,false\n"
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            new StudentCsvLoader().loadTable(file);
+            fail("Se esperaba IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("byte 21"));
+        }
+    }
+
+    /*
+     * Prueba que los límites de las secciones caen siempre después de un fin
+     * de línea, aun en archivos de varias secciones.
+     */
+    public void testSplitPointsFollowNewlines() throws IOException {
+        final Path file = writeCsv(generateStudentData(100_000), null, "\n");
+        final byte[] bytes = Files.readAllBytes(file);
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file)) {
+            final long[] bounds = StudentCsvLoader.splitPoints(channel, bytes.length, 4);
+            assertTrue(bounds.length > 2);
+            assertEquals(0, bounds[0]);
+            assertEquals(bytes.length, bounds[bounds.length - 1]);
+            for (int c = 1; c < bounds.length - 1; c++) {
+                assertTrue(bounds[c] > bounds[c - 1]);
+                assertEquals('\n', bytes[(int) bounds[c] - 1]);
+            }
+        }
+    }
+
+    /*
+     * Prueba el modo streaming con un destino que cuenta los estudiantes
+     * reprobados mayores de 20 años sin guardar las filas.
+     */
+    public void testStreamingAggregation() throws IOException {
+        final Student[] students = generateStudentData(200_000);
+        final Path file = writeCsv(students, null, "\n");
+
+        final class FailedCounter implements StudentRowSink {
+            int count;
+
+            @Override
+            public void accept(final int firstNameId, final int lastNameId, final double age,
+                    final int grade, final boolean isCurrent) {
+                if (!isCurrent && age > 20 && grade < 65) {
+                    count++;
+                }
+            }
+        }
+
+        final NameDictionary first = new NameDictionary();
+        final NameDictionary last = new NameDictionary();
+        final FailedCounter counter = new StudentCsvLoader().stream(file, first, last,
+                FailedCounter::new, (a, b) -> a.count += b.count);
+
+        int expected = 0;
+        for (int s = 0; s < students.length; s++) {
+            if (!students[s].checkIsCurrent() && writtenAge(students, s) > 20
+                    && students[s].getGrade() < 65) {
+                expected++;
+            }
+        }
+        assertEquals(expected, counter.count);
+        assertEquals(firstNames.length, first.size());
+        assertEquals(lastNames.length, last.size());
+    }
+
+    /*
+     * Prueba que la tabla local de nombres sigue encontrando los nombres ya
+     * vistos después de crecer, sin repetirlos.
+     */
+    public void testNameCacheGrowth() {
+        final NameDictionary dictionary = new NameDictionary();
+        final StudentCsvLoader.NameCache cache = new StudentCsvLoader.NameCache(dictionary);
+        final int nNames = 1_000;
+        for (int pass = 0; pass < 3; pass++) {
+            for (int n = 0; n < nNames; n++) {
+                final byte[] name = ("Nombre" + n).getBytes(StandardCharsets.UTF_8);
+                assertEquals(n, cache.idOf(ByteBuffer.wrap(name), 0, name.length));
+            }
+            assertEquals(nNames, cache.size());
+        }
+        assertEquals(nNames, dictionary.size());
+    }
+
+    /*
+     * Compara el cargador con una lectura línea por línea en un archivo de
+     * varias secciones con muchos nombres distintos en cada una.
+     */
+    public void testMatchesNaiveReaderWithManyNames() throws IOException {
+        final Student[] students = generateStudentData(200_000);
+        final Random r = new Random(99);
+        for (int s = 0; s < students.length; s++) {
+            students[s] = new Student("N" + r.nextInt(5_000), students[s].getLastName(),
+                    students[s].getAge(), students[s].getGrade(), students[s].checkIsCurrent());
+        }
+        final Path file = writeCsv(students, null, "\n");
+
+        final List<Student> expected = naiveLoad(file);
+        final StudentTable table = new StudentCsvLoader().loadTable(file);
+        assertEquals(expected.size(), table.size());
+        for (int s = 0; s < expected.size(); s++) {
+            assertEquals(expected.get(s).getFirstName(), table.getFirstName(s));
+            assertEquals(expected.get(s).getLastName(), table.getLastName(s));
+            assertEquals(expected.get(s).getAge(), table.getAge(s));
+            assertEquals(expected.get(s).getGrade(), table.getGrade(s));
+            assertEquals(expected.get(s).checkIsCurrent(), table.isCurrent(s));
+        }
+        final Set<String> distinct = new HashSet<String>();
+        for (Student s : students) {
+            distinct.add(s.getFirstName());
+        }
+        assertEquals(distinct.size(), table.getFirstNames().size());
+    }
+}
@@ -0,0 +1,132 @@
+package co.edu.unal.paralela;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StudentIndexTest extends TestCase {
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    private int scanCount(final Student[] students, final double age, final int grade) {
+        int count = 0;
+        for (Student s : students) {
+            if (!s.checkIsCurrent() && s.getAge() > age && s.getGrade() < grade) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * Prueba predicados de rango con distintos umbrales, incluidos umbrales
+     * fuera del rango de los datos.
+     */
+    public void testRangePredicates() {
+        final Student[] students = generateStudentData(100_003);
+        final StudentIndex index = StudentIndex.build(StudentTable.fromStudents(students));
+
+        for (double age : new double[] {-5, 0, 20, 20.5, 63.7, 99.99, 150}) {
+            for (int grade : new int[] {0, 1, 2, 50, 65, 100, 101, 500}) {
+                assertEquals("edad " + age + " nota " + grade, scanCount(students, age, grade),
+                        index.countFailedStudentsOlderThan(age, grade));
+            }
+        }
+
+        final RowBitmap young = index.ageAtMost(30);
+        final RowBitmap good = index.gradeAtLeast(80);
+        int expected = 0;
+        for (int row = 0; row < students.length; row++) {
+            final boolean match = students[row].getAge() <= 30 && students[row].getGrade() >= 80;
+            assertEquals(match, young.and(good).get(row));
+            expected += match ? 1 : 0;
+        }
+        assertEquals(expected, young.and(good).cardinality());
+        assertEquals(students.length, young.or(young.not()).cardinality());
+        assertEquals(0, young.andNot(young).cardinality());
+    }
+
+    /*
+     * Prueba que notas atípicas, incluso en los extremos de int, no cambian
+     * el número de intervalos ni los resultados.
+     */
+    public void testOutlierGrades() {
+        final Student[] students = generateStudentData(10_000);
+        students[17] = new Student("Max", "Imam", 40.0, 1_000_000, false);
+        students[4_321] = new Student("John", "Smith", 55.0, Integer.MAX_VALUE, false);
+        students[9_000] = new Student("Vivek", "Zhang", 70.0, Integer.MIN_VALUE, false);
+        final StudentIndex index = StudentIndex.build(StudentTable.fromStudents(students));
+
+        for (int grade : new int[] {Integer.MIN_VALUE, 0, 65, 1_000_000, 1_000_001,
+                Integer.MAX_VALUE}) {
+            assertEquals("nota " + grade, scanCount(students, 20, grade),
+                    index.countFailedStudentsOlderThan(20, grade));
+            int below = 0;
+            for (Student s : students) {
+                below += s.getGrade() < grade ? 1 : 0;
+            }
+            assertEquals("nota " + grade, below, index.gradeLessThan(grade).cardinality());
+        }
+    }
+
+    /*
+     * Prueba que la versión con índices concuerda con la original.
+     */
+    public void testIndexedFailedCount() {
+        final Student[] students = generateStudentData(200_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentIndex index = StudentIndex.build(StudentTable.fromStudents(students));
+
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20Indexed(index));
+    }
+
+    /*
+     * Prueba índices sobre tablas con menos filas que capacidad, incluido un
+     * tamaño que no llena la última palabra y una tabla vacía.
+     */
+    public void testPartiallyFilledTable() {
+        final Student[] students = generateStudentData(130);
+        for (int filled : new int[] {0, 10, 64, 130}) {
+            final StudentTable table = new StudentTable(1_000);
+            for (int s = 0; s < filled; s++) {
+                table.add(students[s].getFirstName(), students[s].getLastName(),
+                        students[s].getAge(), students[s].getGrade(),
+                        students[s].checkIsCurrent());
+            }
+            final Student[] added = Arrays.copyOf(students, filled);
+            final StudentIndex index = StudentIndex.build(table);
+
+            int inactive = 0;
+            for (Student s : added) {
+                inactive += s.checkIsCurrent() ? 0 : 1;
+            }
+            assertEquals(inactive, index.inactive().cardinality());
+            assertEquals(filled - inactive, index.current().cardinality());
+            assertEquals(filled, index.current().not().size());
+            assertEquals(scanCount(added, 20, 60), index.countFailedStudentsOlderThan(20, 60));
+            assertEquals(scanCount(added, 20, 65), RowBitmap.intersectionCount(
+                    index.inactive(), index.ageGreaterThan(20), index.gradeLessThan(65)));
+        }
+    }
+}
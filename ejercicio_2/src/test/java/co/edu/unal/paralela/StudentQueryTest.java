@@ -0,0 +1,218 @@
+package co.edu.unal.paralela;
+
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StudentQueryTest extends TestCase {
+    final static int REPEATS = 10;
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    /*
+     * Prueba agrupaciones y agregaciones contra un recorrido directo.
+     */
+    public void testGroupedAggregates() {
+        final Student[] students = generateStudentData(100_003);
+        final StudentTable table = StudentTable.fromStudents(students);
+
+        final Map<String, Double> avgGrade = StudentQuery.over(table)
+                .where(StudentFilter.ageAtLeast(18), StudentFilter.ageLessThan(40))
+                .groupByLastName()
+                .execute(StudentAggregate.avg(StudentColumn.GRADE))
+                .toMap();
+        assertEquals(lastNames.length, avgGrade.size());
+        for (String lastName : lastNames) {
+            double sum = 0;
+            int count = 0;
+            for (Student s : students) {
+                if (s.getLastName().equals(lastName) && s.getAge() >= 18 && s.getAge() < 40) {
+                    sum += s.getGrade();
+                    count++;
+                }
+            }
+            assertEquals(sum / count, avgGrade.get(lastName), 1E-9);
+        }
+
+        double minAge = Double.POSITIVE_INFINITY;
+        double maxAge = Double.NEGATIVE_INFINITY;
+        for (Student s : students) {
+            if (s.getFirstName().equals("Max") && s.checkIsCurrent() && s.getGrade() >= 90) {
+                minAge = Math.min(minAge, s.getAge());
+                maxAge = Math.max(maxAge, s.getAge());
+            }
+        }
+        final StudentQuery maxes = StudentQuery.over(table).where(StudentFilter.firstNameIs("Max"),
+                StudentFilter.isCurrent(), StudentFilter.gradeAtLeast(90));
+        assertEquals(minAge, maxes.execute(StudentAggregate.min(StudentColumn.AGE)).value());
+        assertEquals(maxAge, maxes.execute(StudentAggregate.max(StudentColumn.AGE)).value());
+    }
+
+    /*
+     * Prueba que los filtros contradictorios o con nombres inexistentes dan
+     * resultados vacíos.
+     */
+    public void testEmptyPlans() {
+        final StudentTable table = StudentTable.fromStudents(generateStudentData(1_000));
+
+        assertEquals(0.0, StudentQuery.over(table)
+                .where(StudentFilter.isCurrent(), StudentFilter.isNotCurrent())
+                .execute(StudentAggregate.count()).value());
+        assertEquals(0.0, StudentQuery.over(table)
+                .where(StudentFilter.gradeGreaterThan(50), StudentFilter.gradeAtMost(50))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(0, StudentQuery.over(table)
+                .where(StudentFilter.firstNameIs("Nadie"))
+                .groupByFirstName()
+                .execute(StudentAggregate.count()).size());
+        assertTrue(Double.isNaN(StudentQuery.over(table)
+                .where(StudentFilter.ageGreaterThan(1_000))
+                .execute(StudentAggregate.max(StudentColumn.GRADE)).value()));
+    }
+
+    /*
+     * Prueba que las tres consultas existentes expresadas como consultas
+     * concuerdan con las originales.
+     */
+    public void testExistingMethodsAsQueries() {
+        final Student[] students = generateStudentData(200_001);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentTable table = StudentTable.fromStudents(students);
+
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                analytics.averageAgeOfEnrolledStudentsQuery(table), 1E-5);
+        assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsImperative(students),
+                analytics.mostCommonFirstNameOfInactiveStudentsQuery(table));
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20Query(table));
+    }
+
+    /*
+     * Mide las tres consultas declarativas frente a los streams paralelos.
+     * Sólo informa los tiempos; no exige un speedup.
+     */
+    public void testExistingMethodsAsQueriesPerf() {
+        final Student[] students = generateStudentData(2_000_000);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentTable table = StudentTable.fromStudents(students);
+        analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students);
+        analytics.countNumberOfFailedStudentsOlderThan20Query(table);
+
+        final long startStreams = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.averageAgeOfEnrolledStudentsParallelStream(students);
+            analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(students);
+            analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students);
+        }
+        final long endStreams = System.currentTimeMillis();
+
+        final long startQueries = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.averageAgeOfEnrolledStudentsQuery(table);
+            analytics.mostCommonFirstNameOfInactiveStudentsQuery(table);
+            analytics.countNumberOfFailedStudentsOlderThan20Query(table);
+        }
+        final long endQueries = System.currentTimeMillis();
+
+        System.out.println("StudentQuery - Consultas declarativas. Streams: "
+                + (endStreams - startStreams) + " ms, consultas: "
+                + (endQueries - startQueries) + " ms. Speedup: "
+                + (double) (endStreams - startStreams) / (double) (endQueries - startQueries));
+    }
+
+    /*
+     * Prueba los bordes de los filtros de rango, la intersección de filtros
+     * repetidos y que las filas sin usar de una tabla no cuentan.
+     */
+    public void testRangeBoundariesOnPartialTable() {
+        final StudentTable table = new StudentTable(1_000);
+        table.add("Ana", "Gil", 20.0, 65, false);
+        table.add("Ana", "Ruiz", 21.0, 64, false);
+        table.add("Luis", "Gil", 30.0, 90, true);
+        table.add("Zoe", "Ruiz", 19.5, 10, true);
+
+        assertEquals(4.0, StudentQuery.over(table)
+                .execute(StudentAggregate.count()).value());
+        assertEquals(3.0, StudentQuery.over(table).where(StudentFilter.ageAtLeast(20))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(2.0, StudentQuery.over(table).where(StudentFilter.ageGreaterThan(20))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(2.0, StudentQuery.over(table).where(StudentFilter.gradeLessThan(65))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(3.0, StudentQuery.over(table).where(StudentFilter.gradeAtMost(65))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(1.0, StudentQuery.over(table)
+                .where(StudentFilter.ageAtLeast(19), StudentFilter.ageAtLeast(21),
+                        StudentFilter.ageAtMost(25))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(64.0 + 65.0, StudentQuery.over(table)
+                .where(StudentFilter.isNotCurrent())
+                .execute(StudentAggregate.sum(StudentColumn.GRADE)).value());
+        assertEquals(19.5, StudentQuery.over(table)
+                .execute(StudentAggregate.min(StudentColumn.AGE)).value());
+
+        final StudentQueryResult byLastName = StudentQuery.over(table).groupByLastName()
+                .execute(StudentAggregate.count());
+        assertEquals(2, byLastName.size());
+        assertEquals("Gil", byLastName.topKey());
+        assertEquals(0, StudentQuery.over(table).where(StudentFilter.lastNameIs("Nadie"))
+                .groupByLastName().execute(StudentAggregate.count()).size());
+        try {
+            byLastName.value();
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+    }
+
+    /*
+     * Prueba que los filtros de igualdad de edad y nota acotan por ambos
+     * lados y se combinan con los de rango.
+     */
+    public void testEqualityFilters() {
+        final StudentTable table = new StudentTable(10);
+        table.add("Ana", "Gil", 20.0, 65, false);
+        table.add("Ana", "Ruiz", 21.0, 64, false);
+        table.add("Luis", "Gil", 20.0, 66, true);
+        table.add("Zoe", "Ruiz", 19.5, 65, true);
+
+        assertEquals(2.0, StudentQuery.over(table).where(StudentFilter.ageIs(20))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(2.0, StudentQuery.over(table).where(StudentFilter.gradeIs(65))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(1.0, StudentQuery.over(table)
+                .where(StudentFilter.ageIs(20), StudentFilter.gradeIs(65))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(2.0, StudentQuery.over(table)
+                .where(StudentFilter.gradeIs(65), StudentFilter.ageAtMost(20))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(0.0, StudentQuery.over(table)
+                .where(StudentFilter.gradeIs(65), StudentFilter.gradeIs(64))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(0.0, StudentQuery.over(table)
+                .where(StudentFilter.ageIs(20), StudentFilter.ageGreaterThan(20))
+                .execute(StudentAggregate.count()).value());
+        assertEquals(0.0, StudentQuery.over(table).where(StudentFilter.ageIs(22))
+                .execute(StudentAggregate.count()).value());
+    }
+}
@@ -0,0 +1,170 @@
+package co.edu.unal.paralela;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StudentTableTest extends TestCase {
+    final static int REPEATS = 10;
+    private final static String[] firstNames = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    private final static String[] lastNames = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    private Student[] generateStudentData(final int nStudents) {
+        final int nCurrentStudents = nStudents * 3 / 10;
+
+        Student[] students = new Student[nStudents];
+        Random r = new Random(123);
+
+        for (int s = 0; s < nStudents; s++) {
+            final String firstName = firstNames[r.nextInt(firstNames.length)];
+            final String lastName = lastNames[r.nextInt(lastNames.length)];
+            final double age = r.nextDouble() * 100.0;
+            final int grade = 1 + r.nextInt(100);
+            final boolean current = (s < nCurrentStudents);
+
+            students[s] = new Student(firstName, lastName, age, grade, current);
+        }
+
+        return students;
+    }
+
+    /*
+     * Prueba que la tabla conserva los datos de cada estudiante.
+     */
+    public void testRoundTrip() {
+        final Student[] students = generateStudentData(1_000);
+        final StudentTable table = StudentTable.fromStudents(students);
+
+        assertEquals(students.length, table.size());
+        assertEquals(firstNames.length, table.getFirstNames().size());
+        for (int row = 0; row < students.length; row++) {
+            final Student s = table.toStudent(row);
+            assertEquals(students[row].getFirstName(), s.getFirstName());
+            assertEquals(students[row].getLastName(), s.getLastName());
+            assertEquals(students[row].getAge(), s.getAge());
+            assertEquals(students[row].getGrade(), s.getGrade());
+            assertEquals(students[row].checkIsCurrent(), s.checkIsCurrent());
+        }
+
+        final StudentTable filled = new StudentTable(2);
+        assertEquals(0, filled.add("Ana", "Ruiz", 21.5, 70, true));
+        assertEquals(1, filled.add("Ana", "Gil", 30.0, 40, false));
+        assertEquals(filled.getFirstNameId(0), filled.getFirstNameId(1));
+        assertTrue(filled.isCurrent(0));
+        assertFalse(filled.isCurrent(1));
+        try {
+            filled.add("Luis", "Gil", 20.0, 10, false);
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+    }
+
+    /*
+     * Compara las consultas por columnas de una tabla con las versiones
+     * imperativas sobre los mismos estudiantes.
+     */
+    private void assertColumnarMatches(final Student[] students, final StudentTable table) {
+        final StudentAnalytics analytics = new StudentAnalytics();
+        // @audit-info Sin activos o sin inactivos la versión imperativa da
+        // NaN y null; la de columnas devuelve 0.0 y ""
+        final double expectedAge = analytics.averageAgeOfEnrolledStudentsImperative(students);
+        assertEquals(Double.isNaN(expectedAge) ? 0.0 : expectedAge,
+                analytics.averageAgeOfEnrolledStudentsColumnar(table), 1E-5);
+        final String expectedName =
+                analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+        assertEquals(expectedName == null ? "" : expectedName,
+                analytics.mostCommonFirstNameOfInactiveStudentsColumnar(table));
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20Columnar(table));
+    }
+
+    /*
+     * Prueba que las consultas por columnas concuerdan con las versiones
+     * imperativas sobre Student[], con tamaños que no son múltiplo de 64.
+     */
+    public void testColumnarAnalytics() {
+        for (int n : new int[] {1, 63, 64, 65, 200_001}) {
+            final Student[] students = generateStudentData(n);
+            assertColumnarMatches(students, StudentTable.fromStudents(students));
+        }
+    }
+
+    /*
+     * Mide las consultas por columnas frente a los streams paralelos sobre
+     * Student[]. Sólo informa los tiempos; no exige un speedup.
+     */
+    public void testColumnarAnalyticsPerf() {
+        final Student[] students = generateStudentData(2_000_000);
+        final StudentTable table = StudentTable.fromStudents(students);
+        final StudentAnalytics analytics = new StudentAnalytics();
+        analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students);
+        analytics.countNumberOfFailedStudentsOlderThan20Columnar(table);
+
+        final long startObjects = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.averageAgeOfEnrolledStudentsParallelStream(students);
+            analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(students);
+            analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students);
+        }
+        final long endObjects = System.currentTimeMillis();
+
+        final long startColumns = System.currentTimeMillis();
+        for (int r = 0; r < REPEATS; r++) {
+            analytics.averageAgeOfEnrolledStudentsColumnar(table);
+            analytics.mostCommonFirstNameOfInactiveStudentsColumnar(table);
+            analytics.countNumberOfFailedStudentsOlderThan20Columnar(table);
+        }
+        final long endColumns = System.currentTimeMillis();
+
+        System.out.println("StudentTable - Consultas por columnas. Objetos: "
+                + (endObjects - startObjects) + " ms, columnas: "
+                + (endColumns - startColumns) + " ms. Speedup: "
+                + (double) (endObjects - startObjects) / (double) (endColumns - startColumns));
+    }
+
+    /*
+     * Prueba que en una tabla con capacidad mayor que su tamaño las filas
+     * sin usar no cuentan en ninguna consulta.
+     */
+    public void testPartiallyFilledTable() {
+        final Student[] all = generateStudentData(1_000);
+        for (int n : new int[] {0, 10, 64, 130, 999}) {
+            final StudentTable table = new StudentTable(all.length);
+            final Student[] students = new Student[n];
+            // @audit-info Se agregan primero los inactivos para que haya
+            // nombres que contar aun con pocas filas
+            for (int row = 0; row < n; row++) {
+                final Student s = all[all.length - 1 - row];
+                students[row] = s;
+                table.add(s.getFirstName(), s.getLastName(), s.getAge(),
+                        s.getGrade(), s.checkIsCurrent());
+            }
+            assertEquals(n, table.size());
+            assertEquals(all.length, table.capacity());
+            assertColumnarMatches(students, table);
+        }
+    }
+
+    /*
+     * Prueba los valores por defecto cuando no hay activos o no hay
+     * inactivos.
+     */
+    public void testNoMatchingStudents() {
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentTable allCurrent = new StudentTable(3);
+        allCurrent.add("Ana", "Ruiz", 21.0, 10, true);
+        allCurrent.add("Luis", "Gil", 40.0, 20, true);
+        assertEquals(30.5, analytics.averageAgeOfEnrolledStudentsColumnar(allCurrent), 1E-12);
+        assertEquals("", analytics.mostCommonFirstNameOfInactiveStudentsColumnar(allCurrent));
+        assertEquals(0, analytics.countNumberOfFailedStudentsOlderThan20Columnar(allCurrent));
+
+        final StudentTable noneCurrent = new StudentTable(3);
+        noneCurrent.add("Ana", "Ruiz", 21.0, 10, false);
+        noneCurrent.add("Luis", "Gil", 20.0, 10, false);
+        noneCurrent.add("Luis", "Ruiz", 30.0, 65, false);
+        assertEquals(0.0, analytics.averageAgeOfEnrolledStudentsColumnar(noneCurrent));
+        assertEquals("Luis", analytics.mostCommonFirstNameOfInactiveStudentsColumnar(noneCurrent));
+        assertEquals(1, analytics.countNumberOfFailedStudentsOlderThan20Columnar(noneCurrent));
+    }
+}